@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Compara platform threads x virtual threads com a mesma carga (CargaPedidos).
+#
+# Pré-requisitos: PostgreSQL configurado em ../aula (application.properties) e Java 21
+# para o modo virtual (em Java 17 a propriedade é ignorada e as duas rodadas ficam iguais).
+#
+# A carga inteira usa um único token de empresa: o controle de admissão (200 de rajada, 50/s
+# por empresa) é desligado, senão a comparação mediria quase só respostas 429.
+#
+# Uso: ./comparar-threads.sh [usuarios=400] [duracao=30] [aquecimento=10]
+set -euo pipefail
+cd "$(dirname "$0")"
+
+PORTA=${PORTA:-18081}
+APP_JAR=../aula/target/delivery-app-1.0.0-exec.jar
+
+(cd ../aula && mvn -B -q install -DskipTests)
+mvn -B -q package
+
+rodada() {
+  local modo=$1; shift
+  echo "=== spring.threads.virtual.enabled=$modo ==="
+  java -jar "$APP_JAR" \
+    --server.port="$PORTA" \
+    --spring.threads.virtual.enabled="$modo" \
+    --spring.jpa.show-sql=false \
+    --admissao.habilitado=false \
+    > "target/app-virtual-$modo.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  until curl -s -o /dev/null "http://localhost:$PORTA/auth/login"; do sleep 1; done
+
+  java -cp target/benchmarks.jar com.senac.aula.carga.CargaPedidos \
+    url="http://localhost:$PORTA" "$@" | tee "target/carga-virtual-$modo.txt"
+
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+rodada false "$@"
+rodada true "$@"
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Mede a subida da aplicação em três modos: jar executável comum, AOT (perfil "aot")
+# e AOT + CDS (arquivo de classes gerado numa rodada de treino).
+#
+# Para cada modo: tempo até a porta responder e latência da primeira requisição
+# (a primeira ainda paga JIT frio e inicialização preguiçosa do Spring MVC).
+#
+# Pré-requisitos: PostgreSQL configurado em ../aula (application.properties).
+# Argumentos extras para a aplicação: APP_ARGS="--spring.datasource.url=..." ./medir-inicializacao.sh
+#
+# Uso: ./medir-inicializacao.sh [repeticoes=5]
+set -euo pipefail
+cd "$(dirname "$0")"
+
+REPETICOES=${1:-5}
+PORTA=${PORTA:-18081}
+APP_ARGS=${APP_ARGS:-}
+EXEC_JAR=../aula/target/delivery-app-1.0.0-exec.jar
+AOT_JAR=../aula/target/delivery-app-1.0.0.jar
+CDS=target/delivery-app.jsa
+URL="http://localhost:$PORTA/v3/api-docs"
+
+mkdir -p target
+(cd ../aula && mvn -B -q -Paot package -DskipTests)
+
+# O CDS só vale para o mesmo classpath e a mesma JVM: regerado a cada build.
+# spring.context.exit=onRefresh encerra logo após o refresh, com as classes da subida já carregadas.
+echo "=== treino CDS ==="
+rm -f "$CDS"
+java -XX:ArchiveClassesAtExit="$CDS" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$AOT_JAR" --server.port="$PORTA" $APP_ARGS > target/treino-cds.log 2>&1 || true
+[ -f "$CDS" ] || { echo "Arquivo CDS não foi gerado (ver target/treino-cds.log)"; exit 1; }
+
+agora_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+rodada() {
+  local modo=$1; shift
+  local soma_subida=0 soma_primeira=0
+  for i in $(seq "$REPETICOES"); do
+    local inicio; inicio=$(agora_ms)
+    java "$@" --server.port="$PORTA" --spring.jpa.show-sql=false $APP_ARGS \
+      > "target/inicializacao-$modo.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -s -o /dev/null "http://localhost:$PORTA/auth/login"; do
+      kill -0 "$pid" 2>/dev/null || { echo "Aplicação saiu (ver target/inicializacao-$modo.log)"; exit 1; }
+      sleep 0.05
+    done
+    local pronta; pronta=$(agora_ms)
+    local primeira; primeira=$(curl -s -o /dev/null -w '%{time_total}' "$URL" | awk '{printf "%d", $1 * 1000}')
+
+    soma_subida=$(( soma_subida + pronta - inicio ))
+    soma_primeira=$(( soma_primeira + primeira ))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    trap - EXIT
+  done
+  printf '%-8s subida média: %6d ms   primeira requisição média: %5d ms\n' \
+    "$modo" $(( soma_subida / REPETICOES )) $(( soma_primeira / REPETICOES ))
+}
+
+rodada jar -jar "$EXEC_JAR" | tee target/inicializacao.txt
+rodada aot -Dspring.aot.enabled=true -jar "$AOT_JAR" | tee -a target/inicializacao.txt
+rodada aot+cds -XX:SharedArchiveFile="$CDS" -Dspring.aot.enabled=true -jar "$AOT_JAR" | tee -a target/inicializacao.txt
@@ -0,0 +1,32 @@
+package com.senac.aula.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do benchmarks.jar: mesmos argumentos do org.openjdk.jmh.Main,
+ * sempre com o GCProfiler ligado (gc.alloc.rate e gc.alloc.rate.norm = bytes por operação).
+ *
+ * Exemplos:
+ *   java -jar target/benchmarks.jar                    (todos)
+ *   java -jar target/benchmarks.jar Json -p tamanho=200
+ *   java -jar target/benchmarks.jar -rf json -rff target/baseline.json
+ */
+public class Executar {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+        if (linhaDeComando.shouldHelp() || linhaDeComando.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options opcoes = new OptionsBuilder()
+                .parent(linhaDeComando)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.senac.aula.benchmark;
+
+import com.senac.aula.domain.Coordenada;
+import com.senac.aula.infra.geo.GradeEntregadores;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da atribuição no despacho (DespachoService): reserva do mais próximo na grade.
+ *
+ * - reservarUm: um pedido (avanço individual); o entregador volta para a grade em seguida
+ * - reservarLote: 200 pedidos de uma vez (avanço em lote / modo pico), guloso global
+ *
+ * entregadores = quantos disponíveis numa área de ~35 x 35 km.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradeEntregadoresBenchmark {
+
+    @Param({"1000", "20000"})
+    public int entregadores;
+
+    private GradeEntregadores grade;
+    private Coordenada[] pontos;
+    private List<GradeEntregadores.Solicitacao> lote;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        grade = new GradeEntregadores(0.01);
+        for (int i = 0; i < entregadores; i++) {
+            grade.atualizar(i, ponto(random));
+        }
+        pontos = new Coordenada[4096];
+        for (int i = 0; i < pontos.length; i++) {
+            pontos[i] = ponto(random);
+        }
+        lote = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lote.add(new GradeEntregadores.Solicitacao(i, ponto(random)));
+        }
+    }
+
+    @Benchmark
+    public long reservarUm() {
+        Coordenada destino = pontos[proximo++ & (pontos.length - 1)];
+        List<GradeEntregadores.Reserva> reservas = grade.reservar(List.of(new GradeEntregadores.Solicitacao(1, destino)), 8);
+        devolver(reservas);
+        return reservas.size();
+    }
+
+    @Benchmark
+    public long reservarLote() {
+        List<GradeEntregadores.Reserva> reservas = grade.reservar(lote, 8);
+        devolver(reservas);
+        return reservas.size();
+    }
+
+    private void devolver(List<GradeEntregadores.Reserva> reservas) {
+        for (GradeEntregadores.Reserva r : reservas) {
+            grade.atualizar(r.entregadorId(), r.posicaoEntregador());
+        }
+    }
+
+    private static Coordenada ponto(Random random) {
+        return new Coordenada(-23.70 + random.nextDouble() * 0.32, -46.82 + random.nextDouble() * 0.34);
+    }
+}
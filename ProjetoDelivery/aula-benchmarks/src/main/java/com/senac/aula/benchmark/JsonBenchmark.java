@@ -0,0 +1,72 @@
+package com.senac.aula.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.domain.model.Produto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das respostas de lista, com um ObjectMapper configurado como o do Spring Boot.
+ *
+ * - pedidos: corpo de GET /pedidos (página padrão 50 e máxima 200)
+ * - produtos: catálogo como entidade Produto (formato antigo) e como ProdutoResumo (atual)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private static final String[] CATEGORIAS = {"Lanches", "Bebidas", "Sobremesas", "Porções"};
+
+    @Param({"50", "200"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+    private List<PedidoResponse> pedidos;
+    private List<Produto> produtos;
+    private List<ProdutoResumo> produtosResumo;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pedidos = PedidoResponseBenchmark.Dados.respostas(tamanho);
+
+        produtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            produtos.add(Produto.builder()
+                    .id((long) i + 1)
+                    .nome("Produto da casa número " + i)
+                    .preco(new BigDecimal("19.90").add(BigDecimal.valueOf(i, 1)))
+                    .categoria(CATEGORIAS[i % CATEGORIAS.length])
+                    .build());
+        }
+        produtosResumo = produtos.stream()
+                .map(p -> new ProdutoResumo(p.getId(), p.getNome(), p.getPreco(), p.getCategoria()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] pedidos() throws Exception {
+        return objectMapper.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] produtos() throws Exception {
+        return objectMapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public byte[] produtosResumo() throws Exception {
+        return objectMapper.writeValueAsBytes(produtosResumo);
+    }
+}
@@ -0,0 +1,72 @@
+package com.senac.aula.benchmark;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.security.JwtService;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService: emissão (login) e verificação (toda requisição autenticada).
+ *
+ * Verificação sem cache (HMAC + parse a cada chamada) x com cache de tokens verificados.
+ * O verificador é reutilizado nos dois casos; a diferença medida é só o cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "chave-de-benchmark-com-tamanho-suficiente-para-hmac256";
+
+    private JwtService semCache;
+    private JwtService comCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        semCache = new JwtService(SECRET, 3_600_000, 0, Duration.ofMinutes(5));
+        comCache = new JwtService(SECRET, 3_600_000, 50_000, Duration.ofMinutes(5));
+
+        usuario = Usuario.builder()
+                .id(42L)
+                .nome("Cozinha Central")
+                .email("cozinha@restaurante.com")
+                .tipo(TipoUsuario.EMPRESA)
+                .build();
+        token = semCache.gerarToken(usuario);
+        comCache.extrairUsuario(token); // aquece a entrada do cache
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return semCache.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String extrairEmailSemCache() {
+        return semCache.extrairEmail(token);
+    }
+
+    @Benchmark
+    public String extrairEmailEmCache() {
+        return comCache.extrairEmail(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado verificacaoFria() {
+        return semCache.extrairUsuario(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado verificacaoEmCache() {
+        return comCache.extrairUsuario(token);
+    }
+}
@@ -0,0 +1,49 @@
+package com.senac.aula.benchmark;
+
+import com.senac.aula.security.LimitadorTaxa;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do controle de admissão (AdmissaoFilter) por requisição, com 8 threads concorrentes.
+ *
+ * - mesmaChave: todas as threads disputam o mesmo balde (pior caso do compareAndSet)
+ * - chavesEspalhadas: 10 mil principais diferentes (caso típico)
+ * - recusando: balde sempre vazio (caminho do 429)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LimitadorTaxaBenchmark {
+
+    private LimitadorTaxa folgado;
+    private LimitadorTaxa esgotado;
+
+    @Setup
+    public void setup() {
+        folgado = new LimitadorTaxa(1_000_000, 1e9, 100_000);
+        esgotado = new LimitadorTaxa(1, 0.001, 100_000);
+        esgotado.tentar(1L);
+    }
+
+    @Benchmark
+    public long mesmaChave() {
+        return folgado.tentar(1L);
+    }
+
+    @Benchmark
+    public long chavesEspalhadas() {
+        return folgado.tentar(ThreadLocalRandom.current().nextLong(10_000));
+    }
+
+    @Benchmark
+    public long recusando() {
+        return esgotado.tentar(1L);
+    }
+}
@@ -0,0 +1,76 @@
+package com.senac.aula.benchmark;
+
+import com.senac.aula.application.dto.auth.LoginResponse;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.security.JwtService;
+import com.senac.aula.security.SenhaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do login (BCrypt no executor de senhas + emissão do token) por custo do BCrypt.
+ *
+ * 16 threads do JMH fazem o papel das requisições concorrentes (pico de logins na troca de turno);
+ * o BCrypt fica limitado às threadsSenha do executor (0 = metade dos núcleos, igual à aplicação).
+ * A consulta do usuário não entra: é a mesma em todos os custos.
+ *
+ *   java -jar target/benchmarks.jar Login -p custo=10,11
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String SENHA = "senhaDoCliente123";
+    private static final String SECRET = "chave-de-benchmark-com-tamanho-suficiente-para-hmac256";
+
+    @Param({"8", "10", "12"})
+    private int custo;
+
+    @Param({"0"})
+    private int threadsSenha;
+
+    private ExecutorService executor;
+    private SenhaService senhaService;
+    private JwtService jwtService;
+    private Usuario usuario;
+
+    @Setup
+    public void setup() {
+        int threads = threadsSenha > 0 ? threadsSenha : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = Executors.newFixedThreadPool(threads);
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(custo);
+        senhaService = new SenhaService(encoder, executor, custo);
+        jwtService = new JwtService(SECRET, 3_600_000, 0, Duration.ofMinutes(5));
+        usuario = Usuario.builder()
+                .id(42L)
+                .nome("Cliente")
+                .email("cliente@delivery.com")
+                .senha(encoder.encode(SENHA))
+                .tipo(TipoUsuario.CLIENTE)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Mesmo caminho do AuthService.login depois da consulta
+    @Benchmark
+    public LoginResponse login() {
+        return senhaService.confere(SENHA, usuario.getSenha())
+                .thenApply(ok -> new LoginResponse(jwtService.gerarToken(usuario), usuario.getNome(), usuario.getTipo().name()))
+                .join();
+    }
+}
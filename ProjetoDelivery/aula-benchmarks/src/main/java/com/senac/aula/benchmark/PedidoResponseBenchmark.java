@@ -0,0 +1,71 @@
+package com.senac.aula.benchmark;
+
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.model.PedidoDelivery;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento entidade -> DTO (PedidoService.toPedidoResponse delega para PedidoResponse.de).
+ *
+ * tamanho: página padrão (50) e máxima (200) de GET /pedidos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoResponseBenchmark {
+
+    @Param({"50", "200"})
+    private int tamanho;
+
+    private List<PedidoDelivery> pedidos;
+
+    @Setup
+    public void setup() {
+        pedidos = Dados.pedidos(tamanho);
+    }
+
+    @Benchmark
+    public List<PedidoResponse> mapearPagina() {
+        List<PedidoResponse> resposta = new ArrayList<>(pedidos.size());
+        for (PedidoDelivery pedido : pedidos) {
+            resposta.add(PedidoResponse.de(pedido));
+        }
+        return resposta;
+    }
+
+    /** Massa de dados com textos e valores no tamanho dos pedidos reais. */
+    static final class Dados {
+
+        private static final StatusPedido[] STATUS = StatusPedido.values();
+
+        static List<PedidoDelivery> pedidos(int quantidade) {
+            LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+            List<PedidoDelivery> pedidos = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                pedidos.add(PedidoDelivery.builder()
+                        .id((long) i + 1)
+                        .descricao("2x X-Burger, 1x Batata média, 1x Refrigerante lata (sem gelo) #" + i)
+                        .endereco("Rua das Flores, " + (100 + i) + " - Apto " + (i % 40) + " - Centro")
+                        .valorTotal(new BigDecimal("57.80").add(BigDecimal.valueOf(i, 2)))
+                        .status(STATUS[i % STATUS.length])
+                        .criadoEm(base.minusMinutes(i))
+                        .build());
+            }
+            return pedidos;
+        }
+
+        static List<PedidoResponse> respostas(int quantidade) {
+            return pedidos(quantidade).stream().map(PedidoResponse::de).toList();
+        }
+    }
+}
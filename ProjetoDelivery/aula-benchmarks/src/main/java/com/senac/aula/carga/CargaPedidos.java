@@ -0,0 +1,170 @@
+package com.senac.aula.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga de ciclo fechado para POST /pedidos e GET /pedidos.
+ *
+ * Cada usuário simulado alterna criar e listar pedidos até o fim da duração e mede a latência
+ * de cada chamada. Usado por comparar-threads.sh para comparar platform x virtual threads
+ * com a mesma carga.
+ *
+ * Uso:
+ *   java -cp target/benchmarks.jar com.senac.aula.carga.CargaPedidos \
+ *        [url=http://localhost:8081] [usuarios=200] [duracao=30] [aquecimento=10]
+ */
+public class CargaPedidos {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new HashMap<>(Map.of(
+                "url", "http://localhost:8081",
+                "usuarios", "200",
+                "duracao", "30",
+                "aquecimento", "10"));
+        for (String arg : args) {
+            String[] par = arg.split("=", 2);
+            opcoes.put(par[0], par[1]);
+        }
+        String url = opcoes.get("url");
+        int usuarios = Integer.parseInt(opcoes.get("usuarios"));
+        Duration duracao = Duration.ofSeconds(Long.parseLong(opcoes.get("duracao")));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(opcoes.get("aquecimento")));
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, usuarios / 25)))
+                .build();
+        String token = autenticar(http, url);
+
+        System.out.printf("Aquecendo por %ds...%n", aquecimento.toSeconds());
+        rodar(http, url, token, usuarios, aquecimento);
+
+        System.out.printf("Medindo por %ds com %d usuários...%n", duracao.toSeconds(), usuarios);
+        Map<String, Amostras> resultado = rodar(http, url, token, usuarios, duracao);
+        resultado.forEach((nome, amostras) -> amostras.imprimir(nome, duracao));
+        System.exit(0);
+    }
+
+    private static String autenticar(HttpClient http, String url) throws Exception {
+        String email = "carga-" + UUID.randomUUID() + "@carga.local";
+        String corpo = "{\"nome\":\"Restaurante Carga\",\"email\":\"" + email
+                + "\",\"senha\":\"123456\",\"cnpj\":\"00000000000100\"}";
+        http.send(post(url + "/auth/register", corpo, null), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> login = http.send(
+                post(url + "/auth/login", "{\"email\":\"" + email + "\",\"senha\":\"123456\"}", null),
+                HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login falhou: " + login.statusCode() + " " + login.body());
+        }
+        return new ObjectMapper().readTree(login.body()).get("token").asText();
+    }
+
+    private static Map<String, Amostras> rodar(HttpClient http, String url, String token,
+                                               int usuarios, Duration duracao) throws InterruptedException {
+        Amostras criar = new Amostras();
+        Amostras listar = new Amostras();
+        long fim = System.nanoTime() + duracao.toNanos();
+        CountDownLatch terminou = new CountDownLatch(usuarios);
+        ExecutorService usuariosSimulados = Executors.newFixedThreadPool(usuarios);
+
+        for (int u = 0; u < usuarios; u++) {
+            int usuario = u;
+            usuariosSimulados.execute(() -> {
+                try {
+                    long[] latenciasCriar = new long[1 << 16];
+                    long[] latenciasListar = new long[1 << 16];
+                    int nCriar = 0, nListar = 0, errosCriar = 0, errosListar = 0;
+                    for (int i = 0; System.nanoTime() < fim; i++) {
+                        String corpo = "{\"descricao\":\"Carga " + usuario + "-" + i
+                                + "\",\"endereco\":\"Rua da Carga, " + i + "\",\"valorTotal\":25.90}";
+                        long t0 = System.nanoTime();
+                        boolean ok = chamar(http, post(url + "/pedidos", corpo, token));
+                        long t1 = System.nanoTime();
+                        if (ok && nCriar < latenciasCriar.length) latenciasCriar[nCriar++] = t1 - t0;
+                        else if (!ok) errosCriar++;
+
+                        ok = chamar(http, HttpRequest.newBuilder(URI.create(url + "/pedidos?limite=50"))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET().build());
+                        long t2 = System.nanoTime();
+                        if (ok && nListar < latenciasListar.length) latenciasListar[nListar++] = t2 - t1;
+                        else if (!ok) errosListar++;
+                    }
+                    criar.adicionar(Arrays.copyOf(latenciasCriar, nCriar), errosCriar);
+                    listar.adicionar(Arrays.copyOf(latenciasListar, nListar), errosListar);
+                } finally {
+                    terminou.countDown();
+                }
+            });
+        }
+        terminou.await();
+        usuariosSimulados.shutdown();
+        usuariosSimulados.awaitTermination(10, TimeUnit.SECONDS);
+        return Map.of("POST /pedidos", criar, "GET /pedidos", listar);
+    }
+
+    private static boolean chamar(HttpClient http, HttpRequest request) {
+        try {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static HttpRequest post(String url, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder.build();
+    }
+
+    /** Latências (ns) e erros de um endpoint, somados entre todos os usuários simulados. */
+    private static final class Amostras {
+        private final List<long[]> latencias = new ArrayList<>();
+        private long erros;
+
+        synchronized void adicionar(long[] amostras, int novosErros) {
+            latencias.add(amostras);
+            erros += novosErros;
+        }
+
+        synchronized void imprimir(String nome, Duration duracao) {
+            long[] todas = latencias.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (todas.length == 0) {
+                System.out.printf("%-14s sem respostas de sucesso, erros=%d%n", nome, erros);
+                return;
+            }
+            System.out.printf("%-14s req/s=%8.1f  p50=%7.1fms  p95=%7.1fms  p99=%7.1fms  max=%7.1fms  erros=%d%n",
+                    nome,
+                    todas.length / (double) duracao.toSeconds(),
+                    percentil(todas, 50), percentil(todas, 95), percentil(todas, 99),
+                    todas[todas.length - 1] / 1e6,
+                    erros);
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            int i = (int) Math.ceil(p / 100 * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, i)] / 1e6;
+        }
+    }
+}
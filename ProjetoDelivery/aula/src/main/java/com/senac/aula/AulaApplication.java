@@ -2,8 +2,10 @@ package com.senac.aula;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 
-@SpringBootApplication
+// Login próprio (AuthService + JWT): sem o usuário em memória com senha gerada do Spring Boot
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 public class
 AulaApplication {
 
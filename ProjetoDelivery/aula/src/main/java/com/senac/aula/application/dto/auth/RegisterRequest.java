@@ -9,6 +9,7 @@ import jakarta.validation.constraints.Size;
  * - nome, email, senha, cpf, cnpj
  *
  * Observação: não há campo 'tipo'; o backend determina CLIENTE/EMPRESA pela presença de cpf/cnpj.
+ * entregador=true cadastra um ENTREGADOR (cpf, sem cnpj).
  */
 public record RegisterRequest(
         @NotBlank(message = "O nome não pode ser vazio")
@@ -25,5 +26,8 @@ public record RegisterRequest(
         // CPF e CNPJ são opcionais para o registro, a lógica de tipo é no backend.
         // Se precisar de validação de formato para CPF/CNPJ, adicione @Pattern
         String cpf,
-        String cnpj
+        String cnpj,
+
+        // Opcional: true para cadastrar entregador
+        Boolean entregador
 ) {}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.senac.aula.application.dto.despacho;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrega atual do entregador logado.
+ */
+public record AtribuicaoResponse(
+        Long pedidoId,
+        String descricao,
+        String endereco,
+        Double latitude,
+        Double longitude,
+        LocalDateTime atribuidoEm
+) {}
@@ -0,0 +1,6 @@
+package com.senac.aula.application.dto.despacho;
+
+/**
+ * Pedido aguardando entregador e o ponto de entrega (projeção JPQL).
+ */
+public record DestinoPedido(Long pedidoId, Double latitude, Double longitude) {}
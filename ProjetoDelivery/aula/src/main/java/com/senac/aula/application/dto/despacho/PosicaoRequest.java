@@ -0,0 +1,16 @@
+package com.senac.aula.application.dto.despacho;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Posição atual do entregador (graus decimais).
+ */
+public record PosicaoRequest(
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double latitude,
+
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double longitude
+) {}
@@ -0,0 +1,16 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.util.List;
+
+/**
+ * Avanço de status em lote (cozinha em horário de pico).
+ * - ids: pedidos a avançar
+ * - status: avança todos os pedidos da empresa nesse status (ex.: EM_PREPARO)
+ * Pelo menos um dos dois deve ser informado; com ambos, só os ids nesse status avançam.
+ */
+public record AvancarLoteRequest(
+        List<Long> ids,
+        StatusPedido status
+) {}
@@ -0,0 +1,13 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Filtros da exportação do histórico de pedidos (todos opcionais).
+ * - status: vazio/null = todos
+ * - de: inclusivo / ate: exclusivo, ambos sobre criadoEm (mesma convenção de PedidoFiltro)
+ */
+public record ExportacaoFiltro(Set<StatusPedido> status, LocalDateTime de, LocalDateTime ate) {}
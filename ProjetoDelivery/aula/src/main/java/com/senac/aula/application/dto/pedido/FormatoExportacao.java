@@ -0,0 +1,36 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.exception.BusinessException;
+
+import java.util.Locale;
+
+/** Formatos aceitos pela exportação do histórico de pedidos. */
+public enum FormatoExportacao {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    /** Aceita o nome em qualquer caixa (?formato=csv ou ?formato=NDJSON). */
+    public static FormatoExportacao de(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato inválido: " + valor + " (use csv ou ndjson).");
+        }
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+}
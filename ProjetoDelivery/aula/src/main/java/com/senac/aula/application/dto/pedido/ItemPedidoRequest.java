@@ -0,0 +1,16 @@
+package com.senac.aula.application.dto.pedido;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/** Item do pedido: só o produto e a quantidade; o preço vem do catálogo no servidor. */
+public record ItemPedidoRequest(
+        @NotNull(message = "O produto é obrigatório")
+        Long produtoId,
+
+        @NotNull(message = "A quantidade é obrigatória")
+        @Min(value = 1, message = "A quantidade mínima é 1")
+        @Max(value = 999, message = "A quantidade máxima é 999")
+        Integer quantidade
+) {}
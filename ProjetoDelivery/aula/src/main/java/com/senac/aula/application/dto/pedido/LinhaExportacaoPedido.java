@@ -0,0 +1,21 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha da exportação do histórico (projeção direta da consulta; nenhuma entidade é carregada).
+ * Cliente pode vir null em pedidos lançados pela própria empresa.
+ */
+public record LinhaExportacaoPedido(
+        Long id,
+        LocalDateTime criadoEm,
+        StatusPedido status,
+        String descricao,
+        String endereco,
+        BigDecimal valorTotal,
+        String clienteNome,
+        String clienteEmail
+) {}
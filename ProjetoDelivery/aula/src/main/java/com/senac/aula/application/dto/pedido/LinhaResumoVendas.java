@@ -0,0 +1,9 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Pedidos criados no dia que estão atualmente no status, com a soma de valorTotal. */
+public record LinhaResumoVendas(LocalDate dia, StatusPedido status, long quantidade, BigDecimal receita) {}
@@ -0,0 +1,9 @@
+package com.senac.aula.application.dto.pedido;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem de pedidos.
+ * - proximoCursor: null quando não há mais páginas
+ */
+public record PaginaPedidos(List<PedidoResponse> itens, String proximoCursor) {}
@@ -0,0 +1,26 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Estado de um pedido lido (sem carregar a entidade) antes de uma alteração condicional:
+ * avanço de status, edição ou exclusão.
+ * - empresaId/clienteId: dono do pedido e destinatários do evento
+ * - versao: conferida no UPDATE/DELETE (0 linhas = alterado por outra requisição)
+ */
+public record PedidoAtual(
+        PedidoResponse pedido,
+        Long empresaId,
+        Long clienteId,
+        StatusPedido status,
+        Long versao
+) {
+    // Usado pela projeção JPQL (select new ...)
+    public PedidoAtual(Long id, String descricao, String endereco, BigDecimal valorTotal, StatusPedido status,
+                       LocalDateTime criadoEm, Long empresaId, Long clienteId, Long versao) {
+        this(new PedidoResponse(id, descricao, endereco, valorTotal, status, criadoEm), empresaId, clienteId, status, versao);
+    }
+}
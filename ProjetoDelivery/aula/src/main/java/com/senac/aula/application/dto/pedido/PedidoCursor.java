@@ -0,0 +1,36 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por keyset: o último (criadoEm, id) entregue.
+ * Trafega para o cliente como um token opaco em Base64 URL-safe.
+ */
+public record PedidoCursor(LocalDateTime criadoEm, Long id) {
+
+    public static PedidoCursor de(PedidoResponse ultimo) {
+        return new PedidoCursor(ultimo.criadoEm(), ultimo.id());
+    }
+
+    public String codificar() {
+        String bruto = criadoEm + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PedidoCursor decodificar(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf('|');
+            return new PedidoCursor(
+                    LocalDateTime.parse(bruto.substring(0, separador)),
+                    Long.parseLong(bruto.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor inválido.");
+        }
+    }
+}
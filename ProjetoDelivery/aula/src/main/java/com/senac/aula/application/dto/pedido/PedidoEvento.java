@@ -0,0 +1,16 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.TipoEventoPedido;
+
+/**
+ * Evento de aplicação publicado pelo PedidoService e entregue após o commit.
+ * - empresaId/clienteId: quem deve ser notificado (clienteId é null em pedidos de balcão)
+ * - pedido: estado após a mudança (null em EXCLUIDO)
+ */
+public record PedidoEvento(
+        TipoEventoPedido tipo,
+        Long pedidoId,
+        Long empresaId,
+        Long clienteId,
+        PedidoResponse pedido
+) {}
@@ -0,0 +1,12 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais da listagem de pedidos (status/de/ate podem ser null).
+ * - de: inclusivo / ate: exclusivo, ambos sobre criadoEm
+ * - incluirArquivados: também lê o arquivo frio (entregues antigos); por padrão só os recentes
+ */
+public record PedidoFiltro(StatusPedido status, LocalDateTime de, LocalDateTime ate, boolean incluirArquivados) {}
@@ -0,0 +1,13 @@
+package com.senac.aula.application.dto.pedido;
+
+import com.senac.aula.domain.enums.StatusPedido;
+
+/**
+ * Estado de um pedido lido (e travado) antes do avanço em lote.
+ * clienteId é usado só para endereçar o evento de status.
+ */
+public record PedidoParaAvanco(
+        PedidoResponse pedido,
+        Long clienteId,
+        StatusPedido status
+) {}
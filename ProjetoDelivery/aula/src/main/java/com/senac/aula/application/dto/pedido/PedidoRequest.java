@@ -1,7 +1,12 @@
 package com.senac.aula.application.dto.pedido;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public record PedidoRequest(
         @NotBlank(message = "A descrição é obrigatória")
@@ -10,8 +15,16 @@ public record PedidoRequest(
         @NotBlank(message = "O endereço é obrigatório")
         String endereco,
 
+        // Só usado em pedidos sem itens da própria empresa (PDV, texto livre);
+        // com itens o total é calculado no servidor
+        @PositiveOrZero(message = "O valor total não pode ser negativo")
         BigDecimal valorTotal,
 
         // Novo: O cliente precisa dizer para QUAL empresa é o pedido
-        Long empresaId
-) {}
\ No newline at end of file
+        Long empresaId,
+
+        // Itens do cardápio da empresa (opcional)
+        @Valid
+        @Size(max = 100, message = "No máximo 100 itens por pedido")
+        List<ItemPedidoRequest> itens
+) {}
@@ -1,5 +1,8 @@
 package com.senac.aula.application.dto.pedido;
 
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.model.PedidoDelivery;
+
 import java.math.BigDecimal; // <--- Importante!
 import java.time.LocalDateTime;
 
@@ -13,4 +16,21 @@ public record PedidoResponse(
 
         String status,
         LocalDateTime criadoEm
-) {}
\ No newline at end of file
+) {
+    // Usado pelas projeções JPQL/Criteria (select new ...), que trazem o enum direto da coluna
+    public PedidoResponse(Long id, String descricao, String endereco, BigDecimal valorTotal,
+                          StatusPedido status, LocalDateTime criadoEm) {
+        this(id, descricao, endereco, valorTotal, status != null ? status.name() : null, criadoEm);
+    }
+
+    public static PedidoResponse de(PedidoDelivery pedido) {
+        return new PedidoResponse(
+                pedido.getId(),
+                pedido.getDescricao(),
+                pedido.getEndereco(),
+                pedido.getValorTotal(),
+                pedido.getStatus().name(),
+                pedido.getCriadoEm()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.senac.aula.application.dto.pedido;
+
+/**
+ * Resultado do avanço de um pedido dentro de um lote.
+ * NAO_ENCONTRADO também cobre pedidos de outra empresa (não revela que existem).
+ */
+public record ResultadoAvanco(
+        Long id,
+        Situacao situacao,
+        String statusAnterior,
+        String statusAtual
+) {
+    public enum Situacao {
+        AVANCADO,
+        JA_ENTREGUE,
+        NAO_ENCONTRADO
+    }
+}
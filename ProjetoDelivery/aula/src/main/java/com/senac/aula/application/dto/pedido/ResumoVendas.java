@@ -0,0 +1,13 @@
+package com.senac.aula.application.dto.pedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Painel de vendas da empresa no período [de, ate] (datas inclusivas).
+ * - quantidade/receita: totais do período (todos os status)
+ * - linhas: quebra por dia e status (combinações sem pedidos não aparecem)
+ */
+public record ResumoVendas(LocalDate de, LocalDate ate, long quantidade, BigDecimal receita,
+                           List<LinhaResumoVendas> linhas) {}
@@ -0,0 +1,44 @@
+package com.senac.aula.application.dto.produto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Uma linha da resposta NDJSON da importação de produtos.
+ * - ERRO: linha do CSV recusada (a importação continua)
+ * - PROGRESSO: emitido a cada lote gravado
+ * - FALHA: erro ao gravar um lote; a importação para (lotes anteriores ficam gravados)
+ * - RESUMO: último evento, com os totais
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EventoImportacao(
+        Tipo tipo,
+        Long linha,
+        String mensagem,
+        Long linhasLidas,
+        Long importados,
+        Long erros,
+        Long duracaoMs
+) {
+    public enum Tipo {
+        ERRO,
+        PROGRESSO,
+        FALHA,
+        RESUMO
+    }
+
+    public static EventoImportacao erro(long linha, String mensagem) {
+        return new EventoImportacao(Tipo.ERRO, linha, mensagem, null, null, null, null);
+    }
+
+    public static EventoImportacao progresso(long linhasLidas, long importados, long erros) {
+        return new EventoImportacao(Tipo.PROGRESSO, null, null, linhasLidas, importados, erros, null);
+    }
+
+    public static EventoImportacao falha(String mensagem, long linhasLidas, long importados, long erros) {
+        return new EventoImportacao(Tipo.FALHA, null, mensagem, linhasLidas, importados, erros, null);
+    }
+
+    public static EventoImportacao resumo(long linhasLidas, long importados, long erros, long duracaoMs) {
+        return new EventoImportacao(Tipo.RESUMO, null, null, linhasLidas, importados, erros, duracaoMs);
+    }
+}
@@ -0,0 +1,9 @@
+package com.senac.aula.application.dto.produto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO compacto de produto usado no catálogo.
+ * Não expõe a empresa (nem nenhum dado do Usuario dono).
+ */
+public record ProdutoResumo(Long id, String nome, BigDecimal preco, String categoria) {}
@@ -0,0 +1,6 @@
+package com.senac.aula.application.dto.restaurante;
+
+/**
+ * Categoria distinta do cardápio de uma empresa (projeção JPQL usada pelo índice de busca).
+ */
+public record CategoriaEmpresa(Long empresaId, String categoria) {}
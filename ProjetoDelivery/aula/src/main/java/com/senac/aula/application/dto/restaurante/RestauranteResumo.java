@@ -0,0 +1,8 @@
+package com.senac.aula.application.dto.restaurante;
+
+import java.util.List;
+
+/**
+ * Restaurante encontrado na busca: o id é o empresaId usado no PedidoRequest.
+ */
+public record RestauranteResumo(Long id, String nome, List<String> categorias) {}
@@ -0,0 +1,15 @@
+package com.senac.aula.application.dto.usuario;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+
+/**
+ * Cópia imutável dos dados de um Usuario guardada no cache.
+ * Não carrega a senha (hash) nem documentos.
+ */
+public record UsuarioResumo(Long id, String nome, String email, TipoUsuario tipo) {
+
+    public static UsuarioResumo de(Usuario usuario) {
+        return new UsuarioResumo(usuario.getId(), usuario.getNome(), usuario.getEmail(), usuario.getTipo());
+    }
+}
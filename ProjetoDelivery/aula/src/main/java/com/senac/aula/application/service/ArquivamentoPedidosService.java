@@ -0,0 +1,109 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.PedidoAtual;
+import com.senac.aula.infra.cache.VersoesListagem;
+import com.senac.aula.infra.repository.PedidoArquivadoRepository;
+import com.senac.aula.infra.repository.PedidoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Move pedidos ENTREGUE mais antigos que pedidos.arquivamento.idade para o arquivo frio
+ * (pedidos_delivery_arquivo / itens_pedido_arquivo, particionado por mês no PostgreSQL).
+ *
+ * Observações:
+ * - Lotes de pedidos.arquivamento.lote, um por transação: copia itens e pedidos e apaga os originais.
+ *   Os pedidos do lote ficam travados até o commit (exclusão concorrente recebe 409).
+ * - pedidos_delivery fica só com o que está em andamento e o histórico recente: índices e
+ *   listagens deixam de pagar pelos entregues antigos. GET /pedidos?arquivados=true lê os dois.
+ * - O resumo de vendas não muda (a reconstrução soma recentes + arquivo).
+ * - Depois de cada lote os ETags das listagens das empresas/clientes afetados são renovados.
+ */
+@Slf4j
+@Service
+public class ArquivamentoPedidosService {
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+    private final VersoesListagem versoesListagem;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration idade;
+    private final int lote;
+    private final Counter arquivados;
+
+    public ArquivamentoPedidosService(PedidoRepository pedidoRepository,
+                                      PedidoArquivadoRepository pedidoArquivadoRepository,
+                                      VersoesListagem versoesListagem,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${pedidos.arquivamento.idade:90d}") Duration idade,
+                                      @Value("${pedidos.arquivamento.lote:1000}") int lote) {
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+        this.versoesListagem = versoesListagem;
+        this.transactionTemplate = transactionTemplate;
+        this.idade = idade;
+        this.lote = lote;
+        this.arquivados = Counter.builder("delivery.pedidos.arquivados")
+                .description("Pedidos entregues movidos para o arquivo frio")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${pedidos.arquivamento.cron:0 15 4 * * *}")
+    public void arquivarAntigos() {
+        arquivarCriadosAntesDe(LocalDateTime.now().minus(idade));
+    }
+
+    /** Arquiva, em lotes, os entregues criados antes do limite; devolve quantos foram movidos. */
+    public long arquivarCriadosAntesDe(LocalDateTime limite) {
+        long inicio = System.nanoTime();
+        long total = 0;
+        int movidos;
+        do {
+            movidos = arquivarLote(limite);
+            total += movidos;
+        } while (movidos == lote);
+        if (total > 0) {
+            log.info("Arquivados {} pedidos entregues criados antes de {} em {} ms",
+                    total, limite, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return total;
+    }
+
+    private int arquivarLote(LocalDateTime limite) {
+        List<PedidoAtual> pedidos = transactionTemplate.execute(status -> {
+            List<PedidoAtual> travados = pedidoRepository.travarParaArquivar(limite, PageRequest.of(0, lote));
+            if (travados.isEmpty()) return travados;
+            List<Long> ids = travados.stream().map(p -> p.pedido().id()).toList();
+            travados.stream()
+                    .map(p -> YearMonth.from(p.pedido().criadoEm()))
+                    .distinct()
+                    .forEach(pedidoArquivadoRepository::garantirParticao);
+            pedidoArquivadoRepository.copiarItens(ids);
+            pedidoArquivadoRepository.copiarPedidos(ids, LocalDateTime.now());
+            pedidoRepository.excluirArquivados(ids);
+            return travados;
+        });
+        if (pedidos == null || pedidos.isEmpty()) return 0;
+
+        // Já depois do commit: a listagem padrão dessas empresas/clientes mudou
+        pedidos.stream().map(PedidoAtual::empresaId).filter(Objects::nonNull).distinct()
+                .forEach(id -> versoesListagem.incrementar(VersoesListagem.Escopo.PEDIDOS_EMPRESA, id));
+        pedidos.stream().map(PedidoAtual::clienteId).filter(Objects::nonNull).distinct()
+                .forEach(id -> versoesListagem.incrementar(VersoesListagem.Escopo.PEDIDOS_CLIENTE, id));
+        arquivados.increment(pedidos.size());
+        return pedidos.size();
+    }
+}
@@ -3,52 +3,110 @@ package com.senac.aula.application.service;
 import com.senac.aula.application.dto.auth.*;
 import com.senac.aula.domain.enums.TipoUsuario;
 import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.infra.datasource.ConsistenciaLeitura;
 import com.senac.aula.infra.repository.UsuarioRepository;
 import com.senac.aula.security.JwtService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.senac.aula.security.SenhaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
-@RequiredArgsConstructor
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Cadastro e login.
+ *
+ * Observações:
+ * - Só o BCrypt roda no senhaExecutor (SenhaService); o que vai ao banco depois dele
+ *   (INSERT do cadastro, UPDATE do rehash) segue no contaExecutor.
+ */
+@Slf4j
 @Service
 public class AuthService {
 
     private final UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final SenhaService senhaService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final ConsistenciaLeitura consistenciaLeitura;
+    private final Executor contaExecutor;
+
+    public AuthService(UsuarioRepository usuarioRepository,
+                       SenhaService senhaService,
+                       JwtService jwtService,
+                       ConsistenciaLeitura consistenciaLeitura,
+                       @Qualifier("contaExecutor") Executor contaExecutor) {
+        this.usuarioRepository = usuarioRepository;
+        this.senhaService = senhaService;
+        this.jwtService = jwtService;
+        this.consistenciaLeitura = consistenciaLeitura;
+        this.contaExecutor = contaExecutor;
+    }
 
-    public void registrar(RegisterRequest req) {
+    /**
+     * Cadastro: o BCrypt roda no executor do SenhaService, como no login; o INSERT sai no contaExecutor
+     * quando o hash fica pronto.
+     */
+    public CompletableFuture<Void> registrar(RegisterRequest req) {
 
-        if (usuarioRepository.findByEmail(req.email()).isPresent()) {
+        if (consistenciaLeitura.noPrimario(() -> usuarioRepository.findByEmail(req.email())).isPresent()) {
             throw new RuntimeException("Email já cadastrado");
         }
 
-        Usuario u = Usuario.builder()
-                .nome(req.nome())
-                .email(req.email())
-                .senha(passwordEncoder.encode(req.senha()))
-                .cpf(req.cpf())
-                .cnpj(req.cnpj())
-                .tipo((req.cnpj() != null && !req.cnpj().isBlank()) ?
-                        TipoUsuario.EMPRESA : TipoUsuario.CLIENTE)
-                .build();
-
-        usuarioRepository.save(u);
-    }
+        return senhaService.gerarHash(req.senha()).thenAcceptAsync(hash -> {
+            Usuario u = Usuario.builder()
+                    .nome(req.nome())
+                    .email(req.email())
+                    .senha(hash)
+                    .cpf(req.cpf())
+                    .cnpj(req.cnpj())
+                    .tipo(tipoCadastro(req))
+                    .build();
 
-    public LoginResponse login(LoginRequest req) {
+            usuarioRepository.save(u);
+        }, contaExecutor);
+    }
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(req.email(), req.senha())
-        );
+    private static TipoUsuario tipoCadastro(RegisterRequest req) {
+        if (req.cnpj() != null && !req.cnpj().isBlank()) {
+            return TipoUsuario.EMPRESA;
+        }
+        return Boolean.TRUE.equals(req.entregador()) ? TipoUsuario.ENTREGADOR : TipoUsuario.CLIENTE;
+    }
 
-        Usuario usuario = usuarioRepository.findByEmail(req.email())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    /**
+     * Login com uma única consulta: o Usuario lido serve para conferir a senha e montar o token.
+     * O BCrypt roda no executor do SenhaService; a thread da requisição é liberada enquanto isso.
+     * A consulta vai ao primário: quem acabou de se cadastrar ainda pode não estar na réplica.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest req) {
+        Usuario usuario = consistenciaLeitura.noPrimario(() -> usuarioRepository.findByEmail(req.email())).orElse(null);
+        String hash = usuario != null ? usuario.getSenha() : null;
 
-        String token = jwtService.gerarToken(usuario);
+        return senhaService.confere(req.senha(), hash).thenApply(confere -> {
+            if (!confere) {
+                throw new BadCredentialsException("Email ou senha inválidos");
+            }
+            if (senhaService.precisaRehash(hash)) {
+                refazerHash(usuario, req.senha());
+            }
+            return new LoginResponse(jwtService.gerarToken(usuario), usuario.getNome(), usuario.getTipo().name());
+        });
+    }
 
-        return new LoginResponse(token, usuario.getNome(), usuario.getTipo().name());
+    // Custo do BCrypt mudou: grava o hash novo em segundo plano (se falhar, tenta de novo no próximo login)
+    private void refazerHash(Usuario usuario, String senha) {
+        try {
+            senhaService.gerarHash(senha)
+                    .thenAcceptAsync(novoHash -> usuarioRepository.trocarHashSenha(usuario.getId(), usuario.getSenha(), novoHash),
+                            contaExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Falha ao refazer o hash da senha do usuário {}", usuario.getId(), e);
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            log.debug("Rehash da senha do usuário {} adiado: {}", usuario.getId(), e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
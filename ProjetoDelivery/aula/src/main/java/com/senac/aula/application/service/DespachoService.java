@@ -0,0 +1,304 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.despacho.AtribuicaoResponse;
+import com.senac.aula.application.dto.despacho.DestinoPedido;
+import com.senac.aula.application.dto.despacho.PosicaoRequest;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.domain.Coordenada;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoEventoPedido;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.infra.datasource.ConsistenciaLeitura;
+import com.senac.aula.infra.geo.GradeEntregadores;
+import com.senac.aula.infra.repository.PedidoRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Despacho automático: atribui o entregador disponível mais próximo quando o pedido fica A_CAMINHO.
+ *
+ * Observações:
+ * - Entregadores disponíveis (PUT /entregadores/disponibilidade) ficam numa grade em memória
+ *   (GradeEntregadores); ao serem atribuídos saem da grade e voltam quando o pedido é ENTREGUE,
+ *   na posição da entrega.
+ * - Os pedidos A_CAMINHO de uma mesma transação são despachados juntos depois do commit:
+ *   o avanço individual vira uma busca simples, o avanço em lote vira uma atribuição em lote.
+ * - Pedidos sem entregador no raio ficam aguardando; reprocessar() tenta de novo a cada
+ *   despacho.lote.intervalo, direto do banco (também cobre restart e outras instâncias).
+ * - despacho.lote.forcado=true (pico): nada é atribuído no commit; todo o acumulado é atribuído
+ *   de uma vez no reprocessamento, o que aproxima melhor pedidos e entregadores.
+ * - A gravação é condicional (entregador_id is null): duas instâncias nunca atribuem o mesmo pedido.
+ *   Como o stream SSE, a grade é por instância.
+ */
+@Slf4j
+@Service
+public class DespachoService {
+
+    private record Entrega(long pedidoId, Coordenada destino, Coordenada posicaoNaReserva) {}
+
+    private final PedidoRepository pedidoRepository;
+    private final ConsistenciaLeitura consistenciaLeitura;
+    private final TransactionTemplate novaTransacao;
+    private final GradeEntregadores grade;
+    private final double raioMaximoKm;
+    private final boolean loteForcado;
+    private final int loteMaximo;
+
+    // entregadorId -> entrega em andamento, e o inverso (pedidoId -> entregadorId)
+    private final Map<Long, Entrega> entregas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> entregadorDoPedido = new ConcurrentHashMap<>();
+
+    private final Timer tempoReserva;
+    private final Counter atribuidosImediato;
+    private final Counter atribuidosLote;
+
+    public DespachoService(PedidoRepository pedidoRepository,
+                           ConsistenciaLeitura consistenciaLeitura,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${despacho.celula-graus:0.01}") double celulaGraus,
+                           @Value("${despacho.raio-maximo-km:8}") double raioMaximoKm,
+                           @Value("${despacho.lote.forcado:false}") boolean loteForcado,
+                           @Value("${despacho.lote.maximo:500}") int loteMaximo) {
+        this.pedidoRepository = pedidoRepository;
+        this.consistenciaLeitura = consistenciaLeitura;
+        // Também roda em afterCommit, quando a transação do pedido ainda está ligada à thread
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.grade = new GradeEntregadores(celulaGraus);
+        this.raioMaximoKm = raioMaximoKm;
+        this.loteForcado = loteForcado;
+        this.loteMaximo = loteMaximo;
+
+        this.tempoReserva = Timer.builder("delivery.despacho.reserva")
+                .description("Busca e reserva de entregadores na grade (por despacho)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.atribuidosImediato = Counter.builder("delivery.despacho.atribuicoes").tag("modo", "imediato")
+                .description("Pedidos atribuídos a entregadores")
+                .register(meterRegistry);
+        this.atribuidosLote = Counter.builder("delivery.despacho.atribuicoes").tag("modo", "lote")
+                .description("Pedidos atribuídos a entregadores")
+                .register(meterRegistry);
+        Gauge.builder("delivery.despacho.entregadores", grade, GradeEntregadores::tamanho).tag("situacao", "disponivel")
+                .description("Entregadores conhecidos por esta instância")
+                .register(meterRegistry);
+        Gauge.builder("delivery.despacho.entregadores", entregas, Map::size).tag("situacao", "em_entrega")
+                .description("Entregadores conhecidos por esta instância")
+                .register(meterRegistry);
+    }
+
+    // --- Entregador ---
+
+    /** Entra (ou atualiza a posição) na grade; durante uma entrega a posição é ignorada. */
+    public void ficarDisponivel(PosicaoRequest req) {
+        Long entregadorId = entregadorLogado().id();
+        Coordenada posicao = new Coordenada(req.latitude(), req.longitude());
+
+        // Primeira posição nesta instância (ex.: após restart): confere se há entrega em andamento
+        Optional<AtribuicaoResponse> emAndamento = Optional.empty();
+        if (!grade.contem(entregadorId) && !entregas.containsKey(entregadorId)) {
+            emAndamento = entregaEmAndamento(entregadorId);
+        }
+        synchronized (grade) {
+            if (entregas.containsKey(entregadorId)) {
+                return;
+            }
+            if (emAndamento.isPresent()) {
+                AtribuicaoResponse a = emAndamento.get();
+                Coordenada destino = a.latitude() != null ? new Coordenada(a.latitude(), a.longitude()) : posicao;
+                registrarEntrega(entregadorId, new Entrega(a.pedidoId(), destino, posicao));
+                return;
+            }
+            grade.atualizar(entregadorId, posicao);
+        }
+    }
+
+    public void ficarIndisponivel() {
+        Long entregadorId = entregadorLogado().id();
+        synchronized (grade) {
+            grade.remover(entregadorId);
+            Entrega entrega = entregas.remove(entregadorId);
+            if (entrega != null) entregadorDoPedido.remove(entrega.pedidoId());
+        }
+    }
+
+    public Optional<AtribuicaoResponse> atribuicaoAtual() {
+        return entregaEmAndamento(entregadorLogado().id());
+    }
+
+    // --- Eventos de pedido ---
+
+    /** Junta os pedidos A_CAMINHO da transação; o despacho roda uma vez, depois do commit. */
+    @EventListener
+    public void aoSairParaEntrega(PedidoEvento evento) {
+        if (loteForcado || !mudouPara(evento, StatusPedido.A_CAMINHO)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            despachar(List.of(evento.pedidoId()));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Long> pedidos = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pedidos == null) {
+            List<Long> novos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    despachar(novos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DespachoService.this);
+                }
+            });
+            pedidos = novos;
+        }
+        pedidos.add(evento.pedidoId());
+    }
+
+    /** Entrega concluída (ou pedido excluído): o entregador volta para a grade. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoConcluirEntrega(PedidoEvento evento) {
+        boolean entregue = mudouPara(evento, StatusPedido.ENTREGUE);
+        if (!entregue && evento.tipo() != TipoEventoPedido.EXCLUIDO) {
+            return;
+        }
+        Long entregadorId = entregadorDoPedido.remove(evento.pedidoId());
+        if (entregadorId == null) {
+            return;
+        }
+        synchronized (grade) {
+            Entrega entrega = entregas.remove(entregadorId);
+            if (entrega != null) {
+                grade.atualizar(entregadorId, entregue ? entrega.destino() : entrega.posicaoNaReserva());
+            }
+        }
+    }
+
+    /** Pedidos A_CAMINHO ainda sem entregador (sem ninguém no raio, lote forçado, restart). */
+    @Scheduled(fixedDelayString = "${despacho.lote.intervalo:PT5S}")
+    public void reprocessar() {
+        if (grade.tamanho() == 0) {
+            return;
+        }
+        List<DestinoPedido> aguardando = pedidoRepository.buscarAguardandoEntregador(PageRequest.of(0, loteMaximo));
+        atribuir(aguardando, atribuidosLote);
+    }
+
+    private void despachar(Collection<Long> pedidoIds) {
+        if (grade.tamanho() == 0) {
+            return;
+        }
+        List<DestinoPedido> destinos = novaTransacao.execute(s -> pedidoRepository.buscarDestinos(pedidoIds));
+        atribuir(destinos, pedidoIds.size() == 1 ? atribuidosImediato : atribuidosLote);
+    }
+
+    private void atribuir(List<DestinoPedido> destinos, Counter atribuidos) {
+        if (destinos == null || destinos.isEmpty()) {
+            return;
+        }
+        List<GradeEntregadores.Solicitacao> solicitacoes = destinos.stream()
+                .map(d -> new GradeEntregadores.Solicitacao(d.pedidoId(), new Coordenada(d.latitude(), d.longitude())))
+                .toList();
+
+        List<GradeEntregadores.Reserva> reservas;
+        synchronized (grade) {
+            long inicio = System.nanoTime();
+            reservas = grade.reservar(solicitacoes, raioMaximoKm);
+            tempoReserva.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            for (GradeEntregadores.Reserva r : reservas) {
+                Coordenada destino = solicitacoes.stream()
+                        .filter(s -> s.pedidoId() == r.pedidoId()).findFirst().orElseThrow().destino();
+                registrarEntrega(r.entregadorId(), new Entrega(r.pedidoId(), destino, r.posicaoEntregador()));
+            }
+        }
+        if (reservas.isEmpty()) {
+            return;
+        }
+
+        List<GradeEntregadores.Reserva> recusadas;
+        try {
+            recusadas = novaTransacao.execute(s -> {
+                LocalDateTime agora = LocalDateTime.now();
+                List<GradeEntregadores.Reserva> naoGravadas = new ArrayList<>();
+                for (GradeEntregadores.Reserva r : reservas) {
+                    if (pedidoRepository.atribuirEntregador(r.pedidoId(), r.entregadorId(), agora) == 0) {
+                        naoGravadas.add(r);
+                    }
+                }
+                return naoGravadas;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} atribuições; entregadores devolvidos à grade", reservas.size(), e);
+            recusadas = reservas;
+        }
+        desfazer(recusadas);
+        atribuidos.increment(reservas.size() - recusadas.size());
+    }
+
+    private void registrarEntrega(long entregadorId, Entrega entrega) {
+        entregas.put(entregadorId, entrega);
+        entregadorDoPedido.put(entrega.pedidoId(), entregadorId);
+    }
+
+    // Pedido já atribuído/alterado por outro caminho: o entregador volta para onde estava
+    private void desfazer(List<GradeEntregadores.Reserva> reservas) {
+        if (reservas.isEmpty()) return;
+        synchronized (grade) {
+            for (GradeEntregadores.Reserva r : reservas) {
+                entregadorDoPedido.remove(r.pedidoId());
+                if (entregas.remove(r.entregadorId()) != null) {
+                    grade.atualizar(r.entregadorId(), r.posicaoEntregador());
+                }
+            }
+        }
+    }
+
+    private Optional<AtribuicaoResponse> entregaEmAndamento(Long entregadorId) {
+        // Primário: a atribuição pode ter acabado de ser gravada
+        return consistenciaLeitura.noPrimario(() -> pedidoRepository.buscarEntregasEmAndamento(entregadorId))
+                .stream().findFirst();
+    }
+
+    private static boolean mudouPara(PedidoEvento evento, StatusPedido status) {
+        return evento.tipo() == TipoEventoPedido.STATUS_ALTERADO && evento.pedido() != null
+                && status.name().equals(evento.pedido().status());
+    }
+
+    private static UsuarioAutenticado entregadorLogado() {
+        UsuarioAutenticado usuario = UsuarioAutenticado.atual();
+        if (!usuario.isEntregador()) {
+            throw new BusinessException("Apenas entregadores podem usar o despacho.");
+        }
+        return usuario;
+    }
+}
@@ -0,0 +1,189 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.domain.EmailSenderPort;
+import com.senac.aula.domain.enums.StatusEmail;
+import com.senac.aula.domain.model.EmailOutbox;
+import com.senac.aula.infra.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de saída de emails (transactional outbox).
+ *
+ * - enfileirarConfirmacao: grava o email junto com o pedido (mesma transação).
+ * - despachar: job agendado que drena a fila em lotes no executor dedicado,
+ *   com novas tentativas em backoff exponencial e descarte (dead-letter) após o limite.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailSenderPort emailSenderPort;
+    private final Executor emailExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration lease;
+
+    private final AtomicLong pendentes = new AtomicLong();
+    private final Timer envioSucesso;
+    private final Timer envioFalha;
+    private final Counter descartados;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              EmailSenderPort emailSenderPort,
+                              @Qualifier("emailExecutor") Executor emailExecutor,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${email.outbox.lote:50}") int tamanhoLote,
+                              @Value("${email.outbox.max-tentativas:5}") int maxTentativas,
+                              @Value("${email.outbox.backoff-inicial:30s}") Duration backoffInicial,
+                              @Value("${email.outbox.backoff-maximo:30m}") Duration backoffMaximo,
+                              @Value("${email.outbox.lease:2m}") Duration lease) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSenderPort = emailSenderPort;
+        this.emailExecutor = emailExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+        this.lease = lease;
+
+        Gauge.builder("delivery.email.outbox.pendentes", pendentes, AtomicLong::get)
+                .description("Emails aguardando envio na outbox")
+                .register(meterRegistry);
+        this.envioSucesso = Timer.builder("delivery.email.envio")
+                .description("Tempo de envio ao SMTP")
+                .tag("resultado", "sucesso")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.envioFalha = Timer.builder("delivery.email.envio")
+                .description("Tempo de envio ao SMTP")
+                .tag("resultado", "falha")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.descartados = Counter.builder("delivery.email.outbox.descartados")
+                .description("Emails que esgotaram as tentativas (dead-letter)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o email de confirmação na outbox. Precisa rodar dentro da transação do pedido.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enfileirarConfirmacao(Long pedidoId, String destinatario, String descricaoPedido, String nomeCliente) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .pedidoId(pedidoId)
+                .destinatario(destinatario)
+                .descricaoPedido(descricaoPedido)
+                .nomeCliente(nomeCliente)
+                .build());
+    }
+
+    /**
+     * Drena a outbox lote a lote enquanto houver emails prontos.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.intervalo:PT2S}", initialDelayString = "${email.outbox.atraso-inicial:PT10S}")
+    public void despachar() {
+        int processados;
+        do {
+            processados = processarLote();
+        } while (processados == tamanhoLote);
+
+        pendentes.set(emailOutboxRepository.countByStatus(StatusEmail.PENDENTE));
+    }
+
+    /**
+     * Reserva um lote (lease), envia em paralelo no executor dedicado e grava o resultado.
+     * Nenhuma transação fica aberta enquanto o SMTP responde.
+     */
+    int processarLote() {
+        List<EmailOutbox> lote = transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<EmailOutbox> prontos = emailOutboxRepository.buscarProntosParaEnvio(
+                    StatusEmail.PENDENTE, agora, PageRequest.of(0, tamanhoLote));
+            // Reserva: outra instância só volta a ver estes emails se o lease vencer
+            prontos.forEach(e -> e.setProximaTentativaEm(agora.plus(lease)));
+            return prontos;
+        });
+        if (lote == null || lote.isEmpty()) return 0;
+
+        Queue<Long> enviados = new ConcurrentLinkedQueue<>();
+        Queue<Falha> falhas = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture.allOf(lote.stream()
+                .map(email -> CompletableFuture.runAsync(() -> enviar(email, enviados, falhas), emailExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            if (!enviados.isEmpty()) {
+                emailOutboxRepository.marcarEnviados(List.copyOf(enviados), agora);
+            }
+            falhas.forEach(falha -> registrarFalha(falha, agora));
+        });
+        return lote.size();
+    }
+
+    private void enviar(EmailOutbox email, Queue<Long> enviados, Queue<Falha> falhas) {
+        long inicio = System.nanoTime();
+        try {
+            emailSenderPort.sendOrderConfirmationEmail(
+                    email.getDestinatario(), email.getDescricaoPedido(), email.getNomeCliente());
+            envioSucesso.record(Duration.ofNanos(System.nanoTime() - inicio));
+            enviados.add(email.getId());
+        } catch (Exception e) {
+            envioFalha.record(Duration.ofNanos(System.nanoTime() - inicio));
+            falhas.add(new Falha(email.getId(), email.getTentativas() + 1, e.getMessage()));
+        }
+    }
+
+    private void registrarFalha(Falha falha, LocalDateTime agora) {
+        String erro = falha.erro() != null && falha.erro().length() > 1000
+                ? falha.erro().substring(0, 1000) : falha.erro();
+
+        if (falha.tentativas() >= maxTentativas) {
+            log.error("Email {} descartado após {} tentativas: {}", falha.id(), falha.tentativas(), erro);
+            descartados.increment();
+            emailOutboxRepository.registrarFalha(falha.id(), StatusEmail.DESCARTADO, falha.tentativas(), agora, erro);
+            return;
+        }
+
+        log.warn("Falha ao enviar email {} (tentativa {}): {}", falha.id(), falha.tentativas(), erro);
+        emailOutboxRepository.registrarFalha(falha.id(), StatusEmail.PENDENTE, falha.tentativas(),
+                agora.plus(backoff(falha.tentativas())), erro);
+    }
+
+    // backoffInicial * 2^(tentativas - 1), limitado ao backoffMaximo
+    Duration backoff(int tentativas) {
+        Duration espera = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+
+    private record Falha(Long id, int tentativas, String erro) {}
+}
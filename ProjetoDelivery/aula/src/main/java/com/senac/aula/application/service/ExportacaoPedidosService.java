@@ -0,0 +1,118 @@
+package com.senac.aula.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.FormatoExportacao;
+import com.senac.aula.application.dto.pedido.LinhaExportacaoPedido;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.infra.csv.EscritorCsv;
+import com.senac.aula.infra.repository.PedidoRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do histórico de pedidos da empresa (CSV ou NDJSON) para contabilidade.
+ *
+ * Observações:
+ * - As linhas vêm de um cursor forward-only (fetch-size configurável) e são escritas direto na saída:
+ *   a memória usada não depende do tamanho do histórico.
+ * - Projeção em DTO, sem entidades: o contexto de persistência não cresce a cada linha.
+ * - A conexão fica presa enquanto o cliente baixa o arquivo; por isso o filtro de datas é recomendado.
+ */
+@Slf4j
+@Service
+public class ExportacaoPedidosService {
+
+    private static final int BUFFER_SAIDA = 16 * 1024;
+
+    private final PedidoRepository pedidoRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportacaoPedidosService(PedidoRepository pedidoRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${pedidos.exportacao.fetch-size:500}") int fetchSize) {
+        this.pedidoRepository = pedidoRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Escreve o histórico da empresa logada. A saída só é aberta depois das validações,
+     * para que um erro ainda possa virar resposta JSON normal.
+     *
+     * @return quantidade de pedidos exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(ExportacaoFiltro filtro, FormatoExportacao formato, Supplier<OutputStream> abrirSaida)
+            throws IOException {
+        UsuarioAutenticado usuario = UsuarioAutenticado.atual();
+        if (!usuario.isEmpresa()) {
+            throw new BusinessException("Apenas empresas podem exportar o histórico de pedidos.");
+        }
+        if (filtro.de() != null && filtro.ate() != null && !filtro.de().isBefore(filtro.ate())) {
+            throw new BusinessException("Período inválido: 'de' deve ser anterior a 'ate'.");
+        }
+
+        long inicio = System.nanoTime();
+        long linhas;
+        try (Stream<LinhaExportacaoPedido> stream = pedidoRepository.streamExportacao(usuario.id(), filtro, fetchSize)) {
+            Writer saida = new BufferedWriter(
+                    new OutputStreamWriter(abrirSaida.get(), StandardCharsets.UTF_8), BUFFER_SAIDA);
+            linhas = formato == FormatoExportacao.CSV
+                    ? escreverCsv(stream.iterator(), saida)
+                    : escreverNdjson(stream.iterator(), saida);
+            saida.flush();
+        }
+
+        log.info("Exportação de pedidos da empresa {} ({}): {} linhas em {} ms",
+                usuario.id(), formato, linhas, (System.nanoTime() - inicio) / 1_000_000);
+        return linhas;
+    }
+
+    private long escreverCsv(Iterator<LinhaExportacaoPedido> linhas, Writer saida) throws IOException {
+        // BOM: sem ele o Excel abre UTF-8 como Latin-1 e estraga os acentos
+        saida.write('﻿');
+        EscritorCsv csv = new EscritorCsv(saida, ',');
+        csv.valor("id").valor("criado_em").valor("status").valor("descricao").valor("endereco")
+                .valor("valor_total").valor("cliente_nome").valor("cliente_email").fimRegistro();
+
+        long total = 0;
+        while (linhas.hasNext()) {
+            LinhaExportacaoPedido l = linhas.next();
+            csv.valor(l.id()).valor(l.criadoEm()).valor(l.status()).texto(l.descricao()).texto(l.endereco())
+                    .valor(l.valorTotal()).texto(l.clienteNome()).texto(l.clienteEmail()).fimRegistro();
+            total++;
+        }
+        return total;
+    }
+
+    private long escreverNdjson(Iterator<LinhaExportacaoPedido> linhas, Writer saida) throws IOException {
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.setRootValueSeparator(null);
+
+        long total = 0;
+        while (linhas.hasNext()) {
+            objectMapper.writeValue(gerador, linhas.next());
+            gerador.writeRaw('\n');
+            total++;
+        }
+        gerador.flush();
+        return total;
+    }
+}
@@ -0,0 +1,180 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.produto.EventoImportacao;
+import com.senac.aula.domain.model.Produto;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.infra.cache.CatalogoCache;
+import com.senac.aula.infra.csv.LeitorCsv;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Importação em massa do catálogo a partir de CSV (cabeçalho: nome, preco, categoria).
+ *
+ * Observações:
+ * - O CSV é lido registro a registro; só o lote atual (lote-commit linhas válidas) fica em memória.
+ * - Cada lote é gravado numa transação própria; com o id por sequence o Hibernate envia os INSERTs
+ *   em batches de hibernate.jdbc.batch_size.
+ * - Linhas inválidas viram eventos ERRO e não interrompem a importação.
+ * - O cache do catálogo é invalidado ao final (inclusive se a importação falhar no meio).
+ */
+@Slf4j
+@Service
+public class ImportacaoProdutosService {
+
+    private static final int MAX_ERROS_DETALHADOS = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogoCache catalogoCache;
+    private final int loteCommit;
+    private final long maximoLinhas;
+
+    public ImportacaoProdutosService(TransactionTemplate transactionTemplate,
+                                     CatalogoCache catalogoCache,
+                                     @Value("${produtos.importacao.lote-commit:1000}") int loteCommit,
+                                     @Value("${produtos.importacao.maximo-linhas:100000}") long maximoLinhas) {
+        this.transactionTemplate = transactionTemplate;
+        this.catalogoCache = catalogoCache;
+        this.loteCommit = loteCommit;
+        this.maximoLinhas = maximoLinhas;
+    }
+
+    public EventoImportacao importar(Long empresaId, Reader csv, Consumer<EventoImportacao> eventos) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader reader = new BufferedReader(csv);
+        Colunas colunas = lerCabecalho(reader);
+        LeitorCsv leitor = new LeitorCsv(reader, colunas.separador(), 2);
+
+        List<Produto> lote = new ArrayList<>(loteCommit);
+        long lidas = 0, importados = 0, erros = 0;
+        try {
+            List<String> registro;
+            while ((registro = leitor.proximoRegistro()) != null) {
+                if (++lidas > maximoLinhas) {
+                    lidas--;
+                    eventos.accept(EventoImportacao.falha("Limite de " + maximoLinhas + " linhas por importação atingido",
+                            lidas, importados, erros));
+                    break;
+                }
+                try {
+                    lote.add(converter(registro, colunas));
+                } catch (IllegalArgumentException e) {
+                    if (++erros <= MAX_ERROS_DETALHADOS) {
+                        eventos.accept(EventoImportacao.erro(leitor.linhaAtual(), e.getMessage()));
+                    }
+                    continue;
+                }
+                if (lote.size() == loteCommit) {
+                    importados += gravar(empresaId, lote);
+                    eventos.accept(EventoImportacao.progresso(lidas, importados, erros));
+                }
+            }
+            if (!lote.isEmpty()) {
+                importados += gravar(empresaId, lote);
+                eventos.accept(EventoImportacao.progresso(lidas, importados, erros));
+            }
+        } catch (IOException e) {
+            // CSV malformado no meio do arquivo (ex.: aspas não fechadas): o que já foi gravado permanece
+            eventos.accept(EventoImportacao.falha(e.getMessage(), lidas, importados, erros));
+        } catch (RuntimeException e) {
+            log.warn("Falha gravando lote da importação de produtos da empresa {}", empresaId, e);
+            eventos.accept(EventoImportacao.falha("Erro ao gravar lote: " + e.getMessage(), lidas, importados, erros));
+        } finally {
+            catalogoCache.invalidar(empresaId);
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Importação de produtos da empresa {}: {} linhas, {} importados, {} erros em {} ms",
+                empresaId, lidas, importados, erros, duracaoMs);
+        EventoImportacao resumo = EventoImportacao.resumo(lidas, importados, erros, duracaoMs);
+        eventos.accept(resumo);
+        return resumo;
+    }
+
+    private int gravar(Long empresaId, List<Produto> lote) {
+        int quantidade = lote.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            Usuario empresa = em.getReference(Usuario.class, empresaId);
+            for (Produto produto : lote) {
+                produto.setEmpresa(empresa);
+                em.persist(produto);
+            }
+        });
+        lote.clear();
+        return quantidade;
+    }
+
+    private record Colunas(char separador, int nome, int preco, int categoria) {}
+
+    private static Colunas lerCabecalho(BufferedReader reader) throws IOException {
+        String cabecalho = reader.readLine();
+        if (cabecalho == null || cabecalho.isBlank()) {
+            throw new BusinessException("CSV vazio: a primeira linha deve ser o cabeçalho (nome, preco, categoria).");
+        }
+        if (cabecalho.startsWith("﻿")) cabecalho = cabecalho.substring(1); // BOM do Excel
+
+        char separador = LeitorCsv.detectarSeparador(cabecalho);
+        List<String> nomes = new LeitorCsv(new StringReader(cabecalho), separador, 1).proximoRegistro();
+        List<String> normalizados = nomes.stream().map(n -> n.trim().toLowerCase(Locale.ROOT)).toList();
+
+        int nome = normalizados.indexOf("nome");
+        int preco = normalizados.indexOf("preco");
+        if (preco < 0) preco = normalizados.indexOf("preço");
+        if (nome < 0 || preco < 0) {
+            throw new BusinessException("Cabeçalho deve conter as colunas nome e preco (categoria é opcional).");
+        }
+        return new Colunas(separador, nome, preco, normalizados.indexOf("categoria"));
+    }
+
+    // Mesmas regras do cadastro unitário + limites das colunas (IllegalArgumentException = linha recusada)
+    private static Produto converter(List<String> registro, Colunas colunas) {
+        String nome = campo(registro, colunas.nome());
+        String precoTexto = campo(registro, colunas.preco());
+        String categoria = colunas.categoria() >= 0 ? campo(registro, colunas.categoria()) : null;
+
+        if (nome == null || nome.isBlank()) throw new IllegalArgumentException("nome é obrigatório");
+        if (nome.length() > 255) throw new IllegalArgumentException("nome com mais de 255 caracteres");
+        if (categoria != null && categoria.length() > 255) {
+            throw new IllegalArgumentException("categoria com mais de 255 caracteres");
+        }
+        if (precoTexto == null || precoTexto.isBlank()) throw new IllegalArgumentException("preco é obrigatório");
+
+        BigDecimal preco;
+        try {
+            // Aceita "12.50" e "12,50" (sem separador de milhar)
+            preco = new BigDecimal(precoTexto.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("preco inválido: " + precoTexto);
+        }
+        if (preco.signum() <= 0) throw new IllegalArgumentException("preco deve ser maior que zero");
+        if (preco.scale() > 2) throw new IllegalArgumentException("preco com mais de 2 casas decimais: " + precoTexto);
+
+        return Produto.builder()
+                .nome(nome)
+                .preco(preco)
+                .categoria(categoria == null || categoria.isBlank() ? null : categoria)
+                .build();
+    }
+
+    private static String campo(List<String> registro, int indice) {
+        return indice < registro.size() ? registro.get(indice) : null;
+    }
+}
@@ -1,22 +1,46 @@
 package com.senac.aula.application.service;
 
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.ItemPedidoRequest;
+import com.senac.aula.application.dto.pedido.PaginaPedidos;
+import com.senac.aula.application.dto.pedido.PedidoAtual;
+import com.senac.aula.application.dto.pedido.PedidoCursor;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.application.dto.pedido.PedidoFiltro;
+import com.senac.aula.application.dto.pedido.PedidoParaAvanco;
 import com.senac.aula.application.dto.pedido.PedidoRequest;
 import com.senac.aula.application.dto.pedido.PedidoResponse;
-import com.senac.aula.domain.EmailSenderPort;
+import com.senac.aula.application.dto.pedido.ResultadoAvanco;
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
+import com.senac.aula.domain.GeocodificadorPort;
 import com.senac.aula.domain.enums.StatusPedido;
-import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.enums.TipoEventoPedido;
+import com.senac.aula.domain.model.ItemPedido;
 import com.senac.aula.domain.model.PedidoDelivery;
 import com.senac.aula.domain.model.Usuario;
 import com.senac.aula.exception.BusinessException;
+import com.senac.aula.exception.ConflitoException;
+import com.senac.aula.infra.cache.UsuarioCache;
 import com.senac.aula.infra.repository.PedidoRepository;
+import com.senac.aula.infra.repository.ProdutoRepository;
 import com.senac.aula.infra.repository.UsuarioRepository;
+import com.senac.aula.security.UsuarioAutenticado;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,131 +48,299 @@ public class PedidoService {
 
     private final PedidoRepository pedidoRepository;
     private final UsuarioRepository usuarioRepository;
-    private final EmailSenderPort emailSenderPort;
+    private final ProdutoRepository produtoRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final UsuarioCache usuarioCache;
+    private final ResumoVendasService resumoVendasService;
+    private final GeocodificadorPort geocodificador;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // Pega usuário logado independente do tipo
-    private Usuario getUsuarioLogado() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException("Usuário não encontrado."));
+    static final int LIMITE_PADRAO = 50;
+    static final int LIMITE_MAXIMO = 200;
+    static final int LOTE_MAXIMO = 500;
+
+    private static final Comparator<PedidoResponse> ORDEM_LISTAGEM =
+            Comparator.comparing(PedidoResponse::criadoEm).thenComparing(PedidoResponse::id).reversed();
+
+    // Pega usuário logado independente do tipo (vem das claims do JWT, sem consulta)
+    private UsuarioAutenticado getUsuarioLogado() {
+        return UsuarioAutenticado.atual();
+    }
+
+    // Referência (proxy) para associações: não executa SELECT
+    private Usuario referencia(Long id) {
+        return usuarioRepository.getReferenceById(id);
+    }
+
+    // Entregue aos assinantes (SSE) só depois do commit; ver PedidoStreamService
+    private void publicar(TipoEventoPedido tipo, PedidoDelivery pedido, PedidoResponse response) {
+        publicar(tipo, pedido.getId(), pedido.getEmpresa().getId(),
+                pedido.getCliente() != null ? pedido.getCliente().getId() : null, response);
+    }
+
+    private void publicar(TipoEventoPedido tipo, Long pedidoId, Long empresaId, Long clienteId, PedidoResponse response) {
+        eventPublisher.publishEvent(new PedidoEvento(tipo, pedidoId, empresaId, clienteId, response));
     }
 
     private PedidoResponse toPedidoResponse(PedidoDelivery pedido) {
-        return new PedidoResponse(
-                pedido.getId(),
-                pedido.getDescricao(),
-                pedido.getEndereco(),
-                pedido.getValorTotal(),
-                pedido.getStatus().name(),
-                pedido.getCriadoEm()
-        );
+        return PedidoResponse.de(pedido);
     }
 
     // LÓGICA MISTA (Serve tanto para Empresa quanto para Cliente)
     @Transactional
     public PedidoResponse criarPedido(PedidoRequest req) {
-        Usuario usuarioLogado = getUsuarioLogado();
-        Usuario empresaDoPedido;
-        Usuario clienteDoPedido;
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
+        UsuarioResumo empresaDoPedido;
+        UsuarioResumo clienteDoPedido;
 
-        if (usuarioLogado.getTipo() == TipoUsuario.EMPRESA) {
+        if (usuarioLogado.isEmpresa()) {
             // Cenário 1: A própria empresa criando pedido (PDV)
-            empresaDoPedido = usuarioLogado;
+            empresaDoPedido = usuarioCache.buscar(usuarioLogado.id())
+                    .orElseThrow(() -> new BusinessException("Usuário não encontrado."));
             clienteDoPedido = null; // Balcão/Telefone (sem cadastro)
         } else {
             // Cenário 2: Cliente criando pedido pelo App
             if (req.empresaId() == null) {
                 throw new BusinessException("Selecione um restaurante para fazer o pedido.");
             }
-            empresaDoPedido = usuarioRepository.findById(req.empresaId())
+            empresaDoPedido = usuarioCache.buscar(req.empresaId())
                     .orElseThrow(() -> new BusinessException("Restaurante não encontrado."));
-            clienteDoPedido = usuarioLogado;
+            clienteDoPedido = usuarioCache.buscar(usuarioLogado.id())
+                    .orElseThrow(() -> new BusinessException("Usuário não encontrado."));
+        }
+
+        List<ItemPedido> itens = montarItens(empresaDoPedido.id(), req.itens());
+        if (itens.isEmpty()) {
+            // Sem itens o total seria o informado na requisição: só a própria empresa (PDV) pode
+            if (!usuarioLogado.isEmpresa()) {
+                throw new BusinessException("Adicione ao menos um item do cardápio ao pedido.");
+            }
+            if (req.valorTotal() != null && req.valorTotal().signum() < 0) {
+                throw new BusinessException("O valor total não pode ser negativo.");
+            }
         }
 
         PedidoDelivery novoPedido = PedidoDelivery.builder()
                 .descricao(req.descricao())
                 .endereco(req.endereco())
-                .valorTotal(req.valorTotal())
-                .empresa(empresaDoPedido)
-                .cliente(clienteDoPedido)
+                // Com itens o total é sempre o do servidor; sem itens (só PDV da empresa) segue o valor informado
+                .valorTotal(itens.isEmpty() ? req.valorTotal() : somar(itens))
+                .empresa(referencia(empresaDoPedido.id()))
+                .cliente(clienteDoPedido != null ? referencia(clienteDoPedido.id()) : null)
                 .build();
+        itens.forEach(novoPedido::adicionarItem);
+        // Geocodificado uma única vez: o despacho usa as coordenadas quando o pedido sai para entrega
+        geocodificador.geocodificar(req.endereco()).ifPresent(c -> {
+            novoPedido.setLatitude(c.latitude());
+            novoPedido.setLongitude(c.longitude());
+        });
 
         PedidoDelivery pedidoSalvo = pedidoRepository.save(novoPedido);
+        resumoVendasService.pedidoCriado(pedidoSalvo);
+
+        // Email para quem fez o pedido (se for cliente cadastrado): vai para a outbox na mesma transação
+        // e é enviado em segundo plano pelo EmailOutboxService
+        String emailDestino = (clienteDoPedido != null) ? clienteDoPedido.email() : empresaDoPedido.email();
+        emailOutboxService.enfileirarConfirmacao(
+                pedidoSalvo.getId(),
+                emailDestino,
+                novoPedido.getDescricao(),
+                (clienteDoPedido != null) ? clienteDoPedido.nome() : "Cliente Balcão"
+        );
+
+        PedidoResponse response = toPedidoResponse(pedidoSalvo);
+        publicar(TipoEventoPedido.CRIADO, pedidoSalvo, response);
+        return response;
+    }
 
-        try {
-            // Envia email para quem fez o pedido (se for cliente cadastrado)
-            String emailDestino = (clienteDoPedido != null) ? clienteDoPedido.getEmail() : empresaDoPedido.getEmail();
-            emailSenderPort.sendOrderConfirmationEmail(
-                    emailDestino,
-                    novoPedido.getDescricao(),
-                    (clienteDoPedido != null) ? clienteDoPedido.getNome() : "Cliente Balcão"
-            );
-        } catch (Exception e) {
-            System.err.println("Erro email: " + e.getMessage());
+    /**
+     * Resolve os itens do pedido contra o cardápio da empresa com uma única consulta
+     * e copia nome e preço atuais para cada item. Produtos repetidos têm as quantidades somadas.
+     */
+    private List<ItemPedido> montarItens(Long empresaId, List<ItemPedidoRequest> itensRequest) {
+        if (itensRequest == null || itensRequest.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> quantidades = new LinkedHashMap<>();
+        for (ItemPedidoRequest item : itensRequest) {
+            quantidades.merge(item.produtoId(), item.quantidade(), Integer::sum);
+        }
+
+        Map<Long, ProdutoResumo> produtos = produtoRepository
+                .findResumosByEmpresaIdAndIdIn(empresaId, quantidades.keySet()).stream()
+                .collect(Collectors.toMap(ProdutoResumo::id, Function.identity()));
+        List<Long> faltando = quantidades.keySet().stream().filter(id -> !produtos.containsKey(id)).toList();
+        if (!faltando.isEmpty()) {
+            throw new BusinessException("Produtos não encontrados no cardápio do restaurante: " + faltando);
         }
 
-        return toPedidoResponse(pedidoSalvo);
+        List<ItemPedido> itens = new ArrayList<>(quantidades.size());
+        quantidades.forEach((produtoId, quantidade) -> {
+            ProdutoResumo produto = produtos.get(produtoId);
+            itens.add(ItemPedido.builder()
+                    .produto(produtoRepository.getReferenceById(produtoId))
+                    .nomeProduto(produto.nome())
+                    .precoUnitario(produto.preco())
+                    .quantidade(quantidade)
+                    .build());
+        });
+        return itens;
     }
 
-    // Lista pedidos baseado em QUEM está chamando
-    public List<PedidoResponse> listarPedidos() {
-        Usuario usuarioLogado = getUsuarioLogado();
-        List<PedidoDelivery> pedidos;
+    private static BigDecimal somar(List<ItemPedido> itens) {
+        return itens.stream().map(ItemPedido::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 
-        if (usuarioLogado.getTipo() == TipoUsuario.EMPRESA) {
-            pedidos = pedidoRepository.findByEmpresa(usuarioLogado);
-        } else {
-            pedidos = pedidoRepository.findByCliente(usuarioLogado);
+    // Lista pedidos baseado em QUEM está chamando, paginado por cursor (criadoEm, id)
+    @Transactional(readOnly = true)
+    public PaginaPedidos listarPedidos(PedidoFiltro filtro, String cursor, Integer limite) {
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
+        int tamanho = (limite == null || limite <= 0) ? LIMITE_PADRAO : Math.min(limite, LIMITE_MAXIMO);
+
+        Long empresaId = usuarioLogado.isEmpresa() ? usuarioLogado.id() : null;
+        Long clienteId = usuarioLogado.isEmpresa() ? null : usuarioLogado.id();
+        PedidoCursor posicao = PedidoCursor.decodificar(cursor);
+
+        // Busca um a mais só para saber se existe próxima página
+        List<PedidoResponse> pedidos = pedidoRepository.buscarPagina(empresaId, clienteId, filtro, posicao, tamanho + 1);
+        if (filtro.incluirArquivados()) {
+            // Mesma página no arquivo frio; as duas já vêm em (criadoEm desc, id desc) e o cursor vale para ambas.
+            // distinct: um pedido arquivado entre as duas leituras pode aparecer nas duas
+            List<PedidoResponse> arquivados = pedidoRepository.buscarPaginaArquivada(
+                    empresaId, clienteId, filtro, posicao, tamanho + 1);
+            pedidos = Stream.concat(pedidos.stream(), arquivados.stream())
+                    .distinct()
+                    .sorted(ORDEM_LISTAGEM)
+                    .limit(tamanho + 1)
+                    .toList();
         }
 
-        return pedidos.stream().map(this::toPedidoResponse).collect(Collectors.toList());
+        if (pedidos.size() <= tamanho) {
+            return new PaginaPedidos(pedidos, null);
+        }
+        List<PedidoResponse> pagina = pedidos.subList(0, tamanho);
+        return new PaginaPedidos(pagina, PedidoCursor.de(pagina.get(tamanho - 1)).codificar());
     }
 
     // --- Métodos de Manipulação (Apenas Empresa) ---
 
+    /**
+     * Avança o pedido um passo: compare-and-set sobre o status lido, filtrado pela empresa.
+     * Dois toques simultâneos no mesmo pedido não se perdem nem pulam etapa: o segundo
+     * recebe 409 e a cozinha recarrega.
+     */
     @Transactional
     public PedidoResponse avancarStatus(Long id) {
-        Usuario usuarioLogado = getUsuarioLogado();
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
         // Apenas empresa pode avançar status
-        if (usuarioLogado.getTipo() != TipoUsuario.EMPRESA) {
+        if (!usuarioLogado.isEmpresa()) {
             throw new BusinessException("Apenas empresas podem alterar status.");
         }
 
-        PedidoDelivery pedido = pedidoRepository.findById(id)
+        PedidoAtual atual = buscarAtual(id, usuarioLogado);
+        if (atual.status() == StatusPedido.ENTREGUE) {
+            return atual.pedido();
+        }
+        StatusPedido novo = atual.status().proximo();
+        if (pedidoRepository.trocarStatus(id, usuarioLogado.id(), atual.status(), novo) == 0) {
+            throw new ConflitoException("O status do pedido foi alterado por outra requisição; recarregue e tente novamente.");
+        }
+
+        PedidoResponse p = atual.pedido();
+        PedidoResponse response = new PedidoResponse(p.id(), p.descricao(), p.endereco(), p.valorTotal(), novo, p.criadoEm());
+        resumoVendasService.statusAlterado(atual, novo);
+        publicar(TipoEventoPedido.STATUS_ALTERADO, id, atual.empresaId(), atual.clienteId(), response);
+        return response;
+    }
+
+    // Pedido visível para o usuário (empresa ou cliente dono); de outro dono = não encontrado
+    private PedidoAtual buscarAtual(Long id, UsuarioAutenticado usuario) {
+        return pedidoRepository.buscarAtual(id, usuario.id())
                 .orElseThrow(() -> new BusinessException("Pedido não encontrado"));
+    }
 
-        if (!pedido.getEmpresa().getId().equals(usuarioLogado.getId())) {
-            throw new BusinessException("Acesso negado.");
+    /**
+     * Avança vários pedidos da empresa logada de uma vez (ids e/ou todos de um status).
+     * Os pedidos são lidos travados e avançados num único UPDATE; o resultado vem por id,
+     * na ordem pedida. Ids de outra empresa, inexistentes ou fora do status filtrado voltam
+     * como NAO_ENCONTRADO.
+     */
+    @Transactional
+    public List<ResultadoAvanco> avancarStatusEmLote(AvancarLoteRequest req) {
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
+        if (!usuarioLogado.isEmpresa()) {
+            throw new BusinessException("Apenas empresas podem alterar status.");
         }
+        boolean temIds = req.ids() != null && !req.ids().isEmpty();
+        if (!temIds && req.status() == null) {
+            throw new BusinessException("Informe os pedidos ou o status a avançar.");
+        }
+        LinkedHashSet<Long> ids = temIds ? new LinkedHashSet<>(req.ids()) : null;
+        if (ids != null && ids.size() > LOTE_MAXIMO) {
+            throw new BusinessException("No máximo " + LOTE_MAXIMO + " pedidos por lote.");
+        }
+
+        Long empresaId = usuarioLogado.id();
+        List<PedidoParaAvanco> travados = pedidoRepository.travarParaAvanco(empresaId, ids, req.status(), LOTE_MAXIMO);
 
-        StatusPedido statusAtual = pedido.getStatus();
-        // Lógica simples de avanço
-        if (statusAtual != StatusPedido.ENTREGUE) {
-            pedido.setStatus(StatusPedido.values()[statusAtual.ordinal() + 1]);
+        List<Long> aAvancar = travados.stream()
+                .filter(t -> t.status() != StatusPedido.ENTREGUE)
+                .map(t -> t.pedido().id())
+                .toList();
+        if (!aAvancar.isEmpty()) {
+            pedidoRepository.avancarStatusEmLote(empresaId, aAvancar);
         }
 
-        return toPedidoResponse(pedidoRepository.save(pedido));
+        Map<Long, PedidoParaAvanco> porId = travados.stream()
+                .collect(Collectors.toMap(t -> t.pedido().id(), Function.identity()));
+        List<ResultadoAvanco> resultados = new ArrayList<>();
+        ResumoVendasService.Ajustes ajustes = new ResumoVendasService.Ajustes(empresaId);
+        for (Long id : ids != null ? ids : porId.keySet()) {
+            PedidoParaAvanco travado = porId.get(id);
+            if (travado == null) {
+                resultados.add(new ResultadoAvanco(id, ResultadoAvanco.Situacao.NAO_ENCONTRADO, null, null));
+                continue;
+            }
+            StatusPedido anterior = travado.status();
+            if (anterior == StatusPedido.ENTREGUE) {
+                resultados.add(new ResultadoAvanco(id, ResultadoAvanco.Situacao.JA_ENTREGUE, anterior.name(), anterior.name()));
+                continue;
+            }
+            StatusPedido novo = anterior.proximo();
+            resultados.add(new ResultadoAvanco(id, ResultadoAvanco.Situacao.AVANCADO, anterior.name(), novo.name()));
+
+            PedidoResponse p = travado.pedido();
+            ajustes.mover(p.criadoEm(), p.valorTotal(), anterior, novo);
+            publicar(TipoEventoPedido.STATUS_ALTERADO, id, empresaId, travado.clienteId(),
+                    new PedidoResponse(p.id(), p.descricao(), p.endereco(), p.valorTotal(), novo, p.criadoEm()));
+        }
+        resumoVendasService.aplicar(ajustes);
+        return resultados;
     }
 
+    // Dono da empresa OU dono do pedido (cliente); DELETE condicional à versão lida (o resumo usa o status lido)
     @Transactional
     public void excluirPedido(Long id) {
-        Usuario usuarioLogado = getUsuarioLogado();
-        PedidoDelivery pedido = pedidoRepository.findById(id).orElseThrow();
-
-        // Validação de segurança: Dono da empresa OU Dono do pedido (Cliente)
-        boolean isDonoEmpresa = pedido.getEmpresa().getId().equals(usuarioLogado.getId());
-        boolean isDonoCliente = pedido.getCliente() != null && pedido.getCliente().getId().equals(usuarioLogado.getId());
-
-        if (!isDonoEmpresa && !isDonoCliente) {
-            throw new BusinessException("Sem permissão para excluir.");
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
+        PedidoAtual atual = buscarAtual(id, usuarioLogado);
+        if (pedidoRepository.excluirDoDono(id, usuarioLogado.id(), atual.versao()) == 0) {
+            throw new ConflitoException("O pedido foi alterado por outra requisição; recarregue e tente novamente.");
         }
-        pedidoRepository.delete(pedido);
+        resumoVendasService.pedidoExcluido(atual);
+        publicar(TipoEventoPedido.EXCLUIDO, id, atual.empresaId(), atual.clienteId(), null);
     }
 
+    @Transactional
     public PedidoResponse atualizarPedido(Long id, PedidoRequest req) {
-        // Implementação simplificada para manter compatibilidade
-        PedidoDelivery pedido = pedidoRepository.findById(id).orElseThrow();
-        pedido.setDescricao(req.descricao());
-        return toPedidoResponse(pedidoRepository.save(pedido));
+        // Só a descrição é editável; mesmas regras de dono da exclusão
+        UsuarioAutenticado usuarioLogado = getUsuarioLogado();
+        PedidoAtual atual = buscarAtual(id, usuarioLogado);
+        if (pedidoRepository.atualizarDescricao(id, usuarioLogado.id(), atual.versao(), req.descricao()) == 0) {
+            throw new ConflitoException("O pedido foi alterado por outra requisição; recarregue e tente novamente.");
+        }
+        PedidoResponse p = atual.pedido();
+        PedidoResponse response = new PedidoResponse(p.id(), req.descricao(), p.endereco(), p.valorTotal(), p.status(), p.criadoEm());
+        publicar(TipoEventoPedido.ATUALIZADO, id, atual.empresaId(), atual.clienteId(), response);
+        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.senac.aula.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream (Server-Sent Events) das mudanças de pedidos.
+ *
+ * Observações:
+ * - Canais: "empresa:{id}" e "cliente:{id}"; cada assinante só recebe o próprio canal.
+ * - Eventos chegam do PedidoService via @TransactionalEventListener (AFTER_COMMIT).
+ * - Fan-out não bloqueante: o publicador só enfileira; o envio roda no sseExecutor,
+ *   com no máximo um dreno ativo por assinante.
+ * - Cada assinante tem fila limitada; se encher (cliente lento), a conexão é encerrada
+ *   e o cliente reconecta usando Last-Event-ID.
+ * - Cada canal guarda uma janela dos últimos eventos para o replay na reconexão.
+ * - A fila comporta a janela inteira mais tamanho-fila eventos ao vivo: um replay grande não
+ *   despeja o próprio assinante (que reconectaria com o mesmo Last-Event-ID para sempre).
+ * - O publicador (AFTER_COMMIT do pedido, @Scheduled do heartbeat) nunca chama complete()/send():
+ *   no ResponseBodyEmitter eles são synchronized e esperariam um send() travado em socket cheio.
+ *   O despejo só marca o assinante; quem encerra a conexão é o dreno dele no sseExecutor.
+ * - Replay e publicação no canal usam o lock da janela: nenhum evento ao vivo passa na frente
+ *   do replay e nenhum cai no intervalo entre ler a janela e entrar no canal.
+ */
+@Slf4j
+@Service
+public class PedidoStreamService {
+
+    private final Executor sseExecutor;
+    private final int tamanhoFila;
+    private final int janelaReplay;
+    private final long timeoutMillis;
+
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<String, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final Cache<String, Janela> janelas;
+    private final AtomicLong totalAssinantes = new AtomicLong();
+    private final Counter despejados;
+
+    public PedidoStreamService(@Qualifier("sseExecutor") Executor sseExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${sse.pedidos.tamanho-fila:64}") int tamanhoFila,
+                               @Value("${sse.pedidos.janela-replay:256}") int janelaReplay,
+                               @Value("${sse.pedidos.timeout:30m}") Duration timeout,
+                               @Value("${sse.pedidos.retencao-replay:1h}") Duration retencaoReplay) {
+        this.sseExecutor = sseExecutor;
+        this.tamanhoFila = tamanhoFila;
+        this.janelaReplay = janelaReplay;
+        this.timeoutMillis = timeout.toMillis();
+        // Canais sem movimento somem da memória depois da retenção
+        this.janelas = Caffeine.newBuilder()
+                .expireAfterAccess(retencaoReplay)
+                .build();
+
+        Gauge.builder("delivery.sse.pedidos.assinantes", totalAssinantes, AtomicLong::get)
+                .description("Conexões SSE abertas no stream de pedidos")
+                .register(meterRegistry);
+        this.despejados = Counter.builder("delivery.sse.pedidos.despejados")
+                .description("Assinantes desconectados por não acompanharem o ritmo dos eventos")
+                .register(meterRegistry);
+    }
+
+    private static String canalEmpresa(Long id) {
+        return "empresa:" + id;
+    }
+
+    private static String canalCliente(Long id) {
+        return "cliente:" + id;
+    }
+
+    /**
+     * Abre a assinatura do usuário. Se lastEventId vier preenchido, reenvia os eventos
+     * posteriores que ainda estão na janela de replay.
+     */
+    public SseEmitter assinar(UsuarioAutenticado usuario, String lastEventId) {
+        String canal = usuario.isEmpresa() ? canalEmpresa(usuario.id()) : canalCliente(usuario.id());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Assinante assinante = new Assinante(canal, emitter);
+
+        emitter.onCompletion(assinante::finalizado);
+        emitter.onTimeout(assinante::finalizado);
+        emitter.onError(e -> assinante.finalizado());
+
+        Long ultimoRecebido = parseId(lastEventId);
+        Janela janela = janela(canal);
+        synchronized (janela) {
+            // Replay antes de entrar no canal: o primeiro evento ao vivo vem depois do backlog
+            if (ultimoRecebido != null) {
+                janela.depoisDe(ultimoRecebido).forEach(assinante::enfileirar);
+            }
+            assinantes.compute(canal, (c, set) -> {
+                Set<Assinante> destino = set != null ? set : ConcurrentHashMap.newKeySet();
+                destino.add(assinante);
+                return destino;
+            });
+            totalAssinantes.incrementAndGet();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarPedido(PedidoEvento evento) {
+        Mensagem mensagem = new Mensagem(sequencia.incrementAndGet(), evento);
+        entregar(canalEmpresa(evento.empresaId()), mensagem);
+        if (evento.clienteId() != null) {
+            entregar(canalCliente(evento.clienteId()), mensagem);
+        }
+    }
+
+    /** Comentário SSE periódico: mantém proxies abertos e detecta conexões mortas. */
+    @Scheduled(fixedDelayString = "${sse.pedidos.heartbeat:PT20S}")
+    public void heartbeat() {
+        assinantes.values().forEach(set -> set.forEach(a -> a.enfileirar(Mensagem.HEARTBEAT)));
+    }
+
+    private Janela janela(String canal) {
+        return janelas.get(canal, c -> new Janela(janelaReplay));
+    }
+
+    private void entregar(String canal, Mensagem mensagem) {
+        Janela janela = janela(canal);
+        synchronized (janela) {
+            janela.adicionar(mensagem);
+            Set<Assinante> destino = assinantes.get(canal);
+            if (destino != null) {
+                destino.forEach(a -> a.enfileirar(mensagem));
+            }
+        }
+    }
+
+    // Canal sem assinantes sai do mapa (senão fica uma entrada por empresa/cliente que já assinou)
+    private void remover(Assinante assinante) {
+        assinantes.computeIfPresent(assinante.canal, (c, set) -> {
+            if (set.remove(assinante)) {
+                totalAssinantes.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static Long parseId(String id) {
+        if (id == null || id.isBlank()) return null;
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Mensagem(long id, PedidoEvento evento) {
+        static final Mensagem HEARTBEAT = new Mensagem(-1, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (evento == null) return SseEmitter.event().comment("ping");
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(evento.tipo().name())
+                    .data(evento);
+        }
+    }
+
+    /** Últimos N eventos de um canal, para replay por Last-Event-ID. */
+    private static final class Janela {
+        private final int capacidade;
+        private final ArrayDeque<Mensagem> mensagens;
+
+        Janela(int capacidade) {
+            this.capacidade = capacidade;
+            this.mensagens = new ArrayDeque<>(capacidade);
+        }
+
+        synchronized void adicionar(Mensagem mensagem) {
+            if (mensagens.size() == capacidade) mensagens.pollFirst();
+            mensagens.addLast(mensagem);
+        }
+
+        synchronized List<Mensagem> depoisDe(long id) {
+            List<Mensagem> resultado = new ArrayList<>();
+            for (Mensagem m : mensagens) {
+                if (m.id() > id) resultado.add(m);
+            }
+            return resultado;
+        }
+    }
+
+    private final class Assinante {
+        private final String canal;
+        private final SseEmitter emitter;
+        private final Queue<Mensagem> fila = new ArrayBlockingQueue<>(janelaReplay + tamanhoFila);
+        private final AtomicBoolean drenando = new AtomicBoolean();
+        private final AtomicBoolean encerrado = new AtomicBoolean();
+        private final AtomicBoolean concluido = new AtomicBoolean();
+
+        Assinante(String canal, SseEmitter emitter) {
+            this.canal = canal;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(Mensagem mensagem) {
+            if (encerrado.get()) return;
+            if (!fila.offer(mensagem)) {
+                // Cliente lento: encerra e deixa ele reconectar com Last-Event-ID
+                if (encerrar()) despejados.increment();
+                return;
+            }
+            agendarDreno();
+        }
+
+        /** Só marca e sai do canal; o complete() fica para o dreno. */
+        private boolean encerrar() {
+            if (!encerrado.compareAndSet(false, true)) return false;
+            remover(this);
+            agendarDreno();
+            return true;
+        }
+
+        /** Callbacks do emitter (completion/timeout/erro): a conexão já acabou. */
+        void finalizado() {
+            encerrado.set(true);
+            concluido.set(true);
+            remover(this);
+            fila.clear();
+        }
+
+        private void agendarDreno() {
+            if (drenando.compareAndSet(false, true)) {
+                try {
+                    sseExecutor.execute(this::drenar);
+                } catch (RejectedExecutionException e) {
+                    // Executor saturado/desligando: sem dreno o assinante ficaria parado em silêncio
+                    // Sem dreno ativo ninguém segura o monitor do emitter: dá para encerrar aqui
+                    log.warn("Dreno SSE recusado para {}: encerrando a conexão", canal);
+                    drenando.set(false);
+                    encerrado.set(true);
+                    remover(this);
+                    fila.clear();
+                    concluir(null);
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                Mensagem mensagem;
+                while (!encerrado.get() && (mensagem = fila.poll()) != null) {
+                    emitter.send(mensagem.toSse());
+                }
+                if (encerrado.get()) {
+                    fila.clear();
+                    concluir(null);
+                }
+            } catch (Exception e) {
+                log.debug("Assinante SSE {} desconectado: {}", canal, e.getMessage());
+                encerrado.set(true);
+                remover(this);
+                fila.clear();
+                concluir(e);
+            } finally {
+                drenando.set(false);
+                // Encerrado entre o fim do laço e aqui, ou mensagem nova: outro dreno cuida
+                if (encerrado.get() ? !concluido.get() : !fila.isEmpty()) agendarDreno();
+            }
+        }
+
+        private void concluir(Exception erro) {
+            if (!concluido.compareAndSet(false, true)) return;
+            try {
+                if (erro == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(erro);
+                }
+            } catch (Exception e) {
+                log.debug("Emitter SSE {} já encerrado: {}", canal, e.getMessage());
+            }
+        }
+    }
+}
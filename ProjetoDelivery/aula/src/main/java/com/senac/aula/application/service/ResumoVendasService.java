@@ -0,0 +1,171 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.LinhaResumoVendas;
+import com.senac.aula.application.dto.pedido.PedidoAtual;
+import com.senac.aula.application.dto.pedido.ResumoVendas;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.model.PedidoDelivery;
+import com.senac.aula.domain.model.ResumoVendasDiario;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.infra.repository.ResumoVendasRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo de vendas por empresa/dia/status (tabela resumo_vendas_diario).
+ *
+ * Observações:
+ * - O PedidoService aplica os ajustes na mesma transação em que cria, avança ou exclui pedidos:
+ *   o painel nunca vê um pedido sem o respectivo total (nem o contrário).
+ * - Cada linha afetada é travada até o commit; os ajustes são aplicados sempre na mesma ordem
+ *   (dia, status) para que transações concorrentes não entrem em deadlock.
+ * - O painel lê só o resumo (no máximo dias × status linhas), nunca os pedidos.
+ * - A reconstrução periódica recalcula tudo a partir dos pedidos e corrige qualquer divergência.
+ */
+@Slf4j
+@Service
+public class ResumoVendasService {
+
+    static final int PERIODO_MAXIMO_DIAS = 366;
+
+    private final ResumoVendasRepository resumoVendasRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ResumoVendasService(ResumoVendasRepository resumoVendasRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.resumoVendasRepository = resumoVendasRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // --- Manutenção incremental (chamada pelo PedidoService) ---
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void pedidoCriado(PedidoDelivery pedido) {
+        aplicar(new Ajustes(pedido.getEmpresa().getId())
+                .somar(pedido.getCriadoEm(), pedido.getStatus(), 1, pedido.getValorTotal()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void pedidoExcluido(PedidoAtual pedido) {
+        aplicar(new Ajustes(pedido.empresaId())
+                .somar(pedido.pedido().criadoEm(), pedido.status(), -1, pedido.pedido().valorTotal()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusAlterado(PedidoAtual anterior, StatusPedido novo) {
+        aplicar(new Ajustes(anterior.empresaId())
+                .mover(anterior.pedido().criadoEm(), anterior.pedido().valorTotal(), anterior.status(), novo));
+    }
+
+    /** Aplica ajustes acumulados (ex.: avanço em lote): dois comandos por combinação dia/status. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(Ajustes ajustes) {
+        ajustes.variacoes.forEach((chave, variacao) -> {
+            if (variacao.quantidade == 0 && variacao.receita.signum() == 0) return;
+            String status = chave.status().name();
+            resumoVendasRepository.garantirLinha(ajustes.empresaId, chave.dia(), status);
+            resumoVendasRepository.somar(ajustes.empresaId, chave.dia(), status, variacao.quantidade, variacao.receita);
+        });
+    }
+
+    // --- Painel ---
+
+    @Transactional(readOnly = true)
+    public ResumoVendas consultar(LocalDate de, LocalDate ate) {
+        UsuarioAutenticado usuario = UsuarioAutenticado.atual();
+        if (!usuario.isEmpresa()) {
+            throw new BusinessException("Apenas empresas podem consultar o resumo de vendas.");
+        }
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = de != null ? de : (ate != null ? ate : hoje);
+        LocalDate fim = ate != null ? ate : (de != null ? de : hoje);
+        if (fim.isBefore(inicio)) {
+            throw new BusinessException("Período inválido: 'de' deve ser anterior ou igual a 'ate'.");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= PERIODO_MAXIMO_DIAS) {
+            throw new BusinessException("Período máximo de " + PERIODO_MAXIMO_DIAS + " dias.");
+        }
+
+        List<LinhaResumoVendas> linhas = resumoVendasRepository.buscarPeriodo(usuario.id(), inicio, fim).stream()
+                .filter(r -> r.getQuantidade() != 0)
+                .map(r -> new LinhaResumoVendas(r.getId().getDia(), r.getId().getStatus(), r.getQuantidade(), r.getReceita()))
+                // Status na ordem do fluxo (a coluna é texto: no banco a ordem seria alfabética)
+                .sorted(Comparator.comparing(LinhaResumoVendas::dia).thenComparing(LinhaResumoVendas::status))
+                .toList();
+        long quantidade = linhas.stream().mapToLong(LinhaResumoVendas::quantidade).sum();
+        BigDecimal receita = linhas.stream().map(LinhaResumoVendas::receita).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new ResumoVendas(inicio, fim, quantidade, receita, linhas);
+    }
+
+    // --- Reconstrução ---
+
+    /** Recalcula o resumo de todas as empresas, uma transação por empresa. */
+    @Scheduled(cron = "${resumo-vendas.reconstrucao.cron:0 30 3 * * *}")
+    public void reconstruirTodas() {
+        long inicio = System.nanoTime();
+        List<Long> empresas = resumoVendasRepository.empresasComMovimento();
+        for (Long empresaId : empresas) {
+            try {
+                reconstruir(empresaId);
+            } catch (RuntimeException e) {
+                log.warn("Falha reconstruindo o resumo de vendas da empresa {}", empresaId, e);
+            }
+        }
+        log.info("Resumo de vendas reconstruído para {} empresas em {} ms",
+                empresas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /** Apaga e recalcula o resumo da empresa a partir dos pedidos (recentes e arquivados). */
+    public void reconstruir(Long empresaId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            resumoVendasRepository.apagarEmpresa(empresaId);
+            resumoVendasRepository.recalcularEmpresa(empresaId);
+        });
+    }
+
+    /** Variações acumuladas de uma empresa, ordenadas por (dia, status). */
+    public static final class Ajustes {
+
+        private final Long empresaId;
+        private final Map<Chave, Variacao> variacoes = new TreeMap<>(
+                Comparator.comparing(Chave::dia).thenComparing(Chave::status));
+
+        public Ajustes(Long empresaId) {
+            this.empresaId = empresaId;
+        }
+
+        public Ajustes somar(LocalDateTime criadoEm, StatusPedido status, long quantidade, BigDecimal valor) {
+            BigDecimal receita = valor != null ? valor : BigDecimal.ZERO;
+            Variacao variacao = variacoes.computeIfAbsent(new Chave(criadoEm.toLocalDate(), status), c -> new Variacao());
+            variacao.quantidade += quantidade;
+            variacao.receita = variacao.receita.add(quantidade < 0 ? receita.negate() : receita);
+            return this;
+        }
+
+        public Ajustes mover(LocalDateTime criadoEm, BigDecimal valor, StatusPedido de, StatusPedido para) {
+            if (de == para) return this;
+            return somar(criadoEm, de, -1, valor).somar(criadoEm, para, 1, valor);
+        }
+
+        private record Chave(LocalDate dia, StatusPedido status) {}
+
+        private static final class Variacao {
+            long quantidade;
+            BigDecimal receita = BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.senac.aula.config;
+
+import db.migration.V4__produtos_sequence;
+import db.migration.V8__arquivo_pedidos;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Modo de inicialização rápida (perfis Maven "aot" e "native"; ver pom.xml).
+ */
+@Configuration
+@ImportRuntimeHints(AplicacaoRuntimeHints.class)
+public class AotConfig {
+
+    // Em imagem nativa o Flyway não encontra classes por varredura: as migrações Java vão explícitas.
+    // Na JVM a varredura continua valendo (registrar aqui também duplicaria as versões)
+    @Bean
+    public FlywayConfigurationCustomizer migracoesJavaImagemNativa() {
+        return configuracao -> {
+            if (NativeDetector.inNativeImage()) {
+                configuracao.javaMigrations(new V4__produtos_sequence(), new V8__arquivo_pedidos());
+            }
+        };
+    }
+}
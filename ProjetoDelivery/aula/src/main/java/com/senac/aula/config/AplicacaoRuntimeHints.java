@@ -0,0 +1,77 @@
+package com.senac.aula.config;
+
+import com.senac.aula.application.dto.despacho.AtribuicaoResponse;
+import com.senac.aula.application.dto.despacho.DestinoPedido;
+import com.senac.aula.application.dto.pedido.LinhaExportacaoPedido;
+import com.senac.aula.application.dto.pedido.PedidoAtual;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.application.dto.produto.EventoImportacao;
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.application.dto.restaurante.CategoriaEmpresa;
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
+import com.senac.aula.domain.model.EmailOutbox;
+import com.senac.aula.domain.model.ItemPedido;
+import com.senac.aula.domain.model.PedidoArquivado;
+import com.senac.aula.domain.model.PedidoDelivery;
+import com.senac.aula.domain.model.Produto;
+import com.senac.aula.domain.model.ResumoVendasDiario;
+import com.senac.aula.domain.model.ResumoVendasDiarioId;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.infra.busca.RestauranteIndiceListener;
+import com.senac.aula.infra.cache.UsuarioCacheListener;
+import db.migration.V4__produtos_sequence;
+import db.migration.V8__arquivo_pedidos;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reflexão que a imagem nativa não descobre sozinha (na JVM, com ou sem AOT, nada disso é necessário).
+ *
+ * - Entidades (Lombok): construtor sem argumentos, campos e getters/setters gerados, usados pelo Hibernate;
+ *   os listeners JPA são instanciados por reflexão
+ * - Projeções "select new"/cb.construct: o Hibernate chama o construtor do DTO por reflexão
+ * - JSON fora dos controllers (SSE, NDJSON, cache do catálogo): Jackson sobre os records
+ * - java-jwt: serializers/deserializers do header e do payload, carregados pelo Jackson interno da lib
+ * - Migrações Java do Flyway (registradas explicitamente em AotConfig, já que não há varredura do classpath)
+ */
+class AplicacaoRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> ENTIDADES = List.of(Usuario.class, Produto.class, PedidoDelivery.class,
+            PedidoArquivado.class, ItemPedido.class, EmailOutbox.class, ResumoVendasDiario.class, ResumoVendasDiarioId.class);
+
+    static final List<Class<?>> PROJECOES = List.of(PedidoResponse.class, PedidoAtual.class, LinhaExportacaoPedido.class,
+            ProdutoResumo.class, UsuarioResumo.class, CategoriaEmpresa.class, DestinoPedido.class, AtribuicaoResponse.class);
+
+    static final List<String> JWT = List.of("com.auth0.jwt.impl.HeaderDeserializer", "com.auth0.jwt.impl.PayloadDeserializer",
+            "com.auth0.jwt.impl.HeaderSerializer", "com.auth0.jwt.impl.PayloadSerializer", "com.auth0.jwt.impl.ClaimsSerializer",
+            "com.auth0.jwt.impl.BasicHeader", "com.auth0.jwt.impl.PayloadImpl", "com.auth0.jwt.impl.JsonNodeClaim");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTIDADES.forEach(entidade -> hints.reflection().registerType(entidade,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        Stream.of(UsuarioCacheListener.class, RestauranteIndiceListener.class)
+                .forEach(listener -> hints.reflection().registerType(listener,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+
+        PROJECOES.forEach(dto -> hints.reflection().registerType(dto, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                PedidoEvento.class, EventoImportacao.class, LinhaExportacaoPedido.class, ProdutoResumo.class);
+
+        JWT.forEach(nome -> hints.reflection().registerType(TypeReference.of(nome),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+
+        Stream.of(V4__produtos_sequence.class, V8__arquivo_pedidos.class)
+                .forEach(migracao -> hints.reflection().registerType(migracao, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+    }
+}
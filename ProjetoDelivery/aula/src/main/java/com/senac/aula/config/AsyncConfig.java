@@ -0,0 +1,117 @@
+package com.senac.aula.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executores dedicados para trabalho em segundo plano.
+ * Cada executor é limitado (threads + fila) para não competir sem controle com as requisições.
+ *
+ * Modo virtual threads (spring.threads.virtual.enabled=true, exige Java 21):
+ * - Tomcat, @Scheduled e estes executores passam a usar virtual threads.
+ * - O limite deixa de ser o tamanho do pool e vira um limite de concorrência por executor;
+ *   o acesso ao banco é limitado pelo LimitadorConcorrenciaDataSource (DataSourceConfig).
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Executor exclusivo para conversar com o SMTP (usado pelo EmailOutboxService).
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor emailExecutor(@Value("${email.outbox.threads:4}") int threads,
+                                                @Value("${email.outbox.lote:50}") int lote) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("email-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(lote);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Uma virtual thread por envio; no máximo email.outbox.threads conversando com o SMTP
+    @Bean(name = "emailExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor emailExecutorVirtual(@Value("${email.outbox.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(threads);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    /**
+     * Executor que escreve nas conexões SSE (PedidoStreamService).
+     * A fila é limitada: cada assinante tem no máximo um dreno agendado por vez.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor sseExecutor(@Value("${sse.pedidos.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        return executor;
+    }
+
+    /**
+     * Executor do BCrypt (SenhaService). Trabalho de CPU: pool fixo de platform threads nos dois modos
+     * (virtual threads não ajudam aqui). seguranca.senha.threads=0 usa metade dos núcleos.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor senhaExecutor(@Value("${seguranca.senha.threads:0}") int threads,
+                                                @Value("${seguranca.senha.fila:200}") int fila) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("senha-");
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        return executor;
+    }
+
+    /**
+     * Executor das gravações do AuthService depois do BCrypt (INSERT do cadastro, UPDATE do rehash).
+     * Separado do senhaExecutor: aquele é dimensionado para CPU e não pode ficar preso no banco.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor contaExecutor(@Value("${seguranca.conta.threads:4}") int threads,
+                                                @Value("${seguranca.conta.fila:200}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("conta-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        return executor;
+    }
+
+    @Bean(name = "contaExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor contaExecutorVirtual(@Value("${seguranca.conta.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("conta-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(threads);
+        return executor;
+    }
+
+    // Escrita em socket lento só estaciona a virtual thread; já há no máximo um dreno por assinante
+    @Bean(name = "sseExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor sseExecutorVirtual() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.senac.aula.config;
+
+import com.senac.aula.infra.datasource.LimitadorConcorrenciaDataSource;
+import com.senac.aula.infra.datasource.RoteamentoLeituraDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Limitador de concorrência na frente do DataSource (ver LimitadorConcorrenciaDataSource).
+ *
+ * Propriedades:
+ * - datasource.limitador.habilitado: default segue spring.threads.virtual.enabled
+ * - datasource.limitador.maximo: default é o tamanho do pool do Hikari (10)
+ * - datasource.limitador.espera-maxima: default 30s (mesmo connection-timeout padrão do Hikari)
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // static: BeanPostProcessor precisa existir antes dos demais beans
+    @Bean
+    public static BeanPostProcessor limitadorConcorrenciaDataSource(Environment env) {
+        boolean habilitado = env.getProperty("datasource.limitador.habilitado", Boolean.class,
+                env.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        int maximo = env.getProperty("datasource.limitador.maximo", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration espera = DurationStyle.detectAndParse(env.getProperty("datasource.limitador.espera-maxima", "30s"));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Só pools de verdade: proxies e o roteamento (ReplicaLeituraConfig) já passam por eles
+                if (habilitado && bean instanceof DataSource dataSource
+                        && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof RoteamentoLeituraDataSource)) {
+                    return new LimitadorConcorrenciaDataSource(dataSource, maximo, espera);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder limitadorConcorrenciaMetrics(DataSource dataSource) {
+        return registry -> {
+            LimitadorConcorrenciaDataSource limitador = desembrulhar(dataSource);
+            if (limitador == null) return;
+            Gauge.builder("delivery.datasource.limitador.em-uso", limitador, LimitadorConcorrenciaDataSource::getEmUso)
+                    .description("Conexões emprestadas sob o limitador")
+                    .register(registry);
+            Gauge.builder("delivery.datasource.limitador.aguardando", limitador, LimitadorConcorrenciaDataSource::getAguardando)
+                    .description("Threads aguardando permissão para pegar conexão")
+                    .register(registry);
+            FunctionCounter.builder("delivery.datasource.limitador.rejeitadas", limitador, LimitadorConcorrenciaDataSource::getRejeitadas)
+                    .description("Pedidos de conexão que desistiram após a espera máxima")
+                    .register(registry);
+        };
+    }
+
+    private static LimitadorConcorrenciaDataSource desembrulhar(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(LimitadorConcorrenciaDataSource.class)
+                    ? dataSource.unwrap(LimitadorConcorrenciaDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.senac.aula.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Casa as requisições que chegaram pela porta de gerenciamento (management.server.port).
+ *
+ * A porta é a do servidor "management" de fato iniciado (funciona com porta 0 nos testes).
+ * Se o Actuator estiver na mesma porta da aplicação não existe esse servidor e nada casa:
+ * os endpoints voltam a exigir autenticação.
+ */
+@Component
+class PortaGerenciamento implements RequestMatcher, ApplicationListener<WebServerInitializedEvent> {
+
+    private volatile int porta = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            porta = event.getWebServer().getPort();
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return request.getLocalPort() == porta;
+    }
+}
@@ -0,0 +1,101 @@
+package com.senac.aula.config;
+
+import com.senac.aula.infra.datasource.ConsistenciaLeitura;
+import com.senac.aula.infra.datasource.RoteamentoLeituraDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura: ativa só com datasource.leitura.jdbc-url definido.
+ *
+ * Beans:
+ * - dataSourcePrimario: o pool de sempre (spring.datasource.* / spring.datasource.hikari.*)
+ * - roteamentoLeitura: RoteamentoLeituraDataSource, dono do pool "leitura"
+ * - dataSource (@Primary): LazyConnectionDataSourceProxy na frente do roteamento; é o que JPA,
+ *   Flyway e JdbcTemplate usam
+ *
+ * O pool da réplica não é bean: o health check do Actuator não deve derrubar a aplicação quando
+ * só a réplica cai (as leituras voltam para o primário).
+ *
+ * Propriedades:
+ * - datasource.leitura.jdbc-url / username / password / maximum-pool-size: pool da réplica
+ * - datasource.leitura.connection-timeout: ms até desistir da réplica (default 2000)
+ * - datasource.leitura.pausa-apos-falha: tempo com a réplica fora depois de uma falha (default 30s)
+ * - datasource.leitura.janela-consistencia: ler-o-que-escreveu (ConsistenciaLeitura, default 5s)
+ */
+@Configuration
+@ConditionalOnProperty("datasource.leitura.jdbc-url")
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoLeituraDataSource roteamentoLeitura(@Qualifier("dataSourcePrimario") DataSource dataSourcePrimario,
+                                                         ConsistenciaLeitura consistencia,
+                                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                                         Environment env,
+                                                         @Value("${datasource.leitura.pausa-apos-falha:30s}") Duration pausaAposFalha) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("leitura");
+        config.setConnectionTimeout(2000);
+        // Réplica fora no startup não impede a aplicação de subir
+        config.setInitializationFailTimeout(-1);
+        config.setReadOnly(true);
+        Binder.get(env).bind("datasource.leitura", Bindable.ofInstance(config));
+        meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+        return new RoteamentoLeituraDataSource(dataSourcePrimario, new HikariDataSource(config),
+                consistencia, pausaAposFalha);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoLeituraDataSource roteamentoLeitura) {
+        return new LazyConnectionDataSourceProxy(roteamentoLeitura);
+    }
+
+    @Bean
+    public MeterBinder roteamentoLeituraMetrics(RoteamentoLeituraDataSource roteamento) {
+        return registry -> {
+            FunctionCounter.builder("delivery.datasource.leituras", roteamento, RoteamentoLeituraDataSource::getLeiturasReplica)
+                    .tag("destino", "replica")
+                    .description("Transações readOnly por destino da conexão")
+                    .register(registry);
+            FunctionCounter.builder("delivery.datasource.leituras", roteamento, RoteamentoLeituraDataSource::getLeiturasPrimario)
+                    .tag("destino", "primario")
+                    .description("Transações readOnly por destino da conexão")
+                    .register(registry);
+            FunctionCounter.builder("delivery.datasource.replica.falhas", roteamento, RoteamentoLeituraDataSource::getFalhasReplica)
+                    .description("Falhas ao conectar na réplica (leitura desviada para o primário)")
+                    .register(registry);
+            Gauge.builder("delivery.datasource.replica.disponivel", roteamento, r -> r.replicaDisponivel() ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .register(registry);
+        };
+    }
+}
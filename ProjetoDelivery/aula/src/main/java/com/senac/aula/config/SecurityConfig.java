@@ -1,12 +1,15 @@
 package com.senac.aula.config;
 
+import com.senac.aula.infra.cache.IdempotenciaPedidos;
+import com.senac.aula.presentation.controller.PedidoController;
+import com.senac.aula.security.AdmissaoFilter;
 import com.senac.aula.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -14,6 +17,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -27,6 +33,8 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
+    private final AdmissaoFilter admissaoFilter;
+    private final PortaGerenciamento portaGerenciamento;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -39,15 +47,26 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Define as permissões de acesso
                 .authorizeHttpRequests(authorize -> authorize
+                        // Dispatch assíncrono (fim de SSE) e de erro já passaram pela autenticação no request original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         // Libera endpoints públicos (Login, Registro e Swagger)
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll() // <--- Importante para o seu erro
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // Health check e scrape do Prometheus: abertos só na porta de gerenciamento (não publicada);
+                        // na porta da aplicação o /actuator não existe e os demais endpoints exigem login
+                        .requestMatchers(new AndRequestMatcher(portaGerenciamento,
+                                new OrRequestMatcher(
+                                        AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/actuator/health/**"),
+                                        AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/actuator/prometheus"))))
+                        .permitAll()
                         // Exige autenticação para qualquer outra rota
                         .anyRequest().authenticated()
                 )
                 // Adiciona o filtro de JWT antes do filtro de autenticação padrão
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // Limite de taxa por empresa/cliente (precisa do principal montado pelo filtro de JWT)
+                .addFilterAfter(admissaoFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -66,6 +85,9 @@ public class SecurityConfig {
         // Permite todos os headers (Authorization, Content-Type, etc)
         config.setAllowedHeaders(Arrays.asList("*"));
 
+        // Headers de resposta que o front pode ler (paginação por cursor, repetição idempotente)
+        config.setExposedHeaders(List.of(PedidoController.HEADER_PROXIMO_CURSOR, IdempotenciaPedidos.HEADER_REPETIDO));
+
         // Permite credenciais (cookies/tokens)
         config.setAllowCredentials(true);
 
@@ -74,13 +96,9 @@ public class SecurityConfig {
         return source;
     }
 
+    // Custo do BCrypt (cada +1 dobra o tempo); hashes com outro custo são refeitos no próximo login
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
-        return authenticationConfiguration.getAuthenticationManager();
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${seguranca.senha.custo-bcrypt:10}") int custo) {
+        return new BCryptPasswordEncoder(custo);
     }
 }
\ No newline at end of file
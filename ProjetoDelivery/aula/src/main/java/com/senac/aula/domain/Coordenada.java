@@ -0,0 +1,25 @@
+package com.senac.aula.domain;
+
+/**
+ * Ponto geográfico (graus decimais, WGS84).
+ */
+public record Coordenada(double latitude, double longitude) {
+
+    private static final double KM_POR_GRAU = 111.32;
+
+    public Coordenada {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenada fora da faixa: " + latitude + ", " + longitude);
+        }
+    }
+
+    /**
+     * Distância em km pela aproximação equirretangular: erro desprezível na escala de uma cidade
+     * e bem mais barata que haversine (é chamada várias vezes em cada busca do despacho).
+     */
+    public double distanciaKm(Coordenada outra) {
+        double x = (outra.longitude - longitude) * Math.cos(Math.toRadians((latitude + outra.latitude) / 2));
+        double y = outra.latitude - latitude;
+        return Math.sqrt(x * x + y * y) * KM_POR_GRAU;
+    }
+}
@@ -0,0 +1,12 @@
+package com.senac.aula.domain;
+
+import java.util.Optional;
+
+/**
+ * Converte o endereço de entrega em coordenadas (usado uma vez, na criação do pedido).
+ * Vazio quando o endereço não foi encontrado: o pedido segue, mas fica fora do despacho automático.
+ */
+public interface GeocodificadorPort {
+
+    Optional<Coordenada> geocodificar(String endereco);
+}
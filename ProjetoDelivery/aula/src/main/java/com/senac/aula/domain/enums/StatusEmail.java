@@ -0,0 +1,13 @@
+package com.senac.aula.domain.enums;
+
+/**
+ * Estados de um email na fila de saída (outbox).
+ * - PENDENTE: aguardando envio (ou nova tentativa)
+ * - ENVIADO: entregue ao servidor SMTP
+ * - DESCARTADO: esgotou as tentativas (dead-letter), fica para análise manual
+ */
+public enum StatusEmail {
+    PENDENTE,
+    ENVIADO,
+    DESCARTADO
+}
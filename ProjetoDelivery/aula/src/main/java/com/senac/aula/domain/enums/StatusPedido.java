@@ -8,5 +8,10 @@ public enum StatusPedido {
     RECEBIDO,
     EM_PREPARO,
     A_CAMINHO,
-    ENTREGUE
-}
\ No newline at end of file
+    ENTREGUE;
+
+    /** Próximo estado na ordem da enumeração (ENTREGUE é final e devolve ele mesmo). */
+    public StatusPedido proximo() {
+        return this == ENTREGUE ? this : values()[ordinal() + 1];
+    }
+}
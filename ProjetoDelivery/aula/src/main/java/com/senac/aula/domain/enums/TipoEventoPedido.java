@@ -0,0 +1,11 @@
+package com.senac.aula.domain.enums;
+
+/**
+ * Tipos de mudança em um pedido, publicados no stream (SSE) de pedidos.
+ */
+public enum TipoEventoPedido {
+    CRIADO,
+    ATUALIZADO,
+    STATUS_ALTERADO,
+    EXCLUIDO
+}
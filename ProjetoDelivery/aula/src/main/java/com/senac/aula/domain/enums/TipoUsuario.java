@@ -4,10 +4,12 @@ package com.senac.aula.domain.enums;
  * Tipos de usuário do sistema.
  * - CLIENTE: pessoa que faz pedidos
  * - EMPRESA: dono/conta do restaurante
+ * - ENTREGADOR: recebe pedidos A_CAMINHO pelo despacho (DespachoService)
  *
  * Usamos enum para garantir valores fixos e evitar strings soltas.
  */
 public enum TipoUsuario {
     CLIENTE,
-    EMPRESA
+    EMPRESA,
+    ENTREGADOR
 }
\ No newline at end of file
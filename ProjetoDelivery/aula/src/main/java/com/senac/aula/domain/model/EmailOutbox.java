@@ -0,0 +1,64 @@
+package com.senac.aula.domain.model;
+
+import com.senac.aula.domain.enums.StatusEmail;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email de confirmação aguardando envio (padrão transactional outbox).
+ *
+ * Gravado na MESMA transação do pedido; o envio real acontece depois,
+ * em segundo plano (EmailOutboxService), sem segurar a requisição nem a conexão.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String nomeCliente;
+
+    @Column(nullable = false)
+    private String descricaoPedido;
+
+    private Long pedidoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusEmail status;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    // Quando o email pode ser (re)tentado; também funciona como "lease" enquanto está em envio
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(length = 1000)
+    private String ultimoErro;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    @PrePersist
+    public void prePersist() {
+        if (criadoEm == null) criadoEm = LocalDateTime.now();
+        if (status == null) status = StatusEmail.PENDENTE;
+        if (proximaTentativaEm == null) proximaTentativaEm = criadoEm;
+    }
+}
@@ -0,0 +1,55 @@
+package com.senac.aula.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+/**
+ * Item de um pedido.
+ *
+ * Observações:
+ * - nomeProduto e precoUnitario são cópias do Produto no momento do pedido
+ *   (mudanças de preço no cardápio não alteram pedidos já feitos).
+ * - Id por sequence (allocationSize 50) para permitir INSERT em lote.
+ * - A remoção do pedido apaga os itens no próprio banco (ON DELETE CASCADE).
+ */
+@Entity
+@Table(name = "itens_pedido")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private PedidoDelivery pedido;
+
+    // Null quando o produto foi removido do cardápio depois do pedido
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "produto_id")
+    private Produto produto;
+
+    @Column(nullable = false)
+    private String nomeProduto;
+
+    @Column(nullable = false)
+    private BigDecimal precoUnitario;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    public BigDecimal getSubtotal() {
+        return precoUnitario.multiply(BigDecimal.valueOf(quantidade));
+    }
+}
@@ -0,0 +1,59 @@
+package com.senac.aula.domain.model;
+
+import com.senac.aula.domain.enums.StatusPedido;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido entregue movido para o arquivo frio (pedidos_delivery_arquivo) pelo ArquivamentoPedidosService.
+ * Somente leitura; os atributos têm os mesmos nomes de PedidoDelivery para as consultas da
+ * listagem/exportação servirem às duas tabelas. Sem FKs no banco: o arquivo só recebe cópias.
+ */
+@Entity
+@Immutable
+@Table(name = "pedidos_delivery_arquivo")
+@Getter
+@NoArgsConstructor
+public class PedidoArquivado {
+
+    @Id
+    private Long id;
+
+    private String descricao;
+
+    private String endereco;
+
+    private BigDecimal valorTotal;
+
+    @Enumerated(EnumType.STRING)
+    private StatusPedido status;
+
+    private LocalDateTime criadoEm;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "empresa_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Usuario empresa;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Usuario cliente;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entregador_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Usuario entregador;
+
+    private LocalDateTime atribuidoEm;
+
+    private Long versao;
+
+    private LocalDateTime arquivadoEm;
+}
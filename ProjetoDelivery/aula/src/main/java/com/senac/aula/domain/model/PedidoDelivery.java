@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "pedidos_delivery")
@@ -43,6 +45,33 @@ public class PedidoDelivery {
     @JoinColumn(name = "cliente_id")
     private Usuario cliente;
 
+    // Coordenadas do endereço, geocodificado uma vez na criação (null: fora do despacho automático)
+    private Double latitude;
+
+    private Double longitude;
+
+    // Entregador atribuído pelo despacho quando o pedido fica A_CAMINHO (ver DespachoService)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entregador_id")
+    private Usuario entregador;
+
+    private LocalDateTime atribuidoEm;
+
+    // Versionamento otimista; os UPDATEs condicionais do PedidoRepository incrementam a mesma coluna
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Itens do cardápio (vazio em pedidos de texto livre). Só PERSIST: a exclusão é feita pelo banco
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.PERSIST)
+    @Builder.Default
+    private List<ItemPedido> itens = new ArrayList<>();
+
+    public void adicionarItem(ItemPedido item) {
+        item.setPedido(this);
+        itens.add(item);
+    }
+
     @PrePersist
     public void prePersist() {
         if (criadoEm == null) criadoEm = LocalDateTime.now();
@@ -13,8 +13,10 @@ import java.math.BigDecimal;
 @Builder
 public class Produto {
 
+    // Sequence (allocationSize 50) em vez de IDENTITY: permite INSERT em lote na importação
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,8 +27,8 @@ public class Produto {
 
     private String categoria; // Ex: Lanches, Bebidas
 
-    // O produto pertence a uma empresa específica
-    @ManyToOne
+    // O produto pertence a uma empresa específica (LAZY: o catálogo nunca precisa do Usuario)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "empresa_id")
     private Usuario empresa;
 }
\ No newline at end of file
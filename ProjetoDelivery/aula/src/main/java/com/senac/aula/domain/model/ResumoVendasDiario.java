@@ -0,0 +1,30 @@
+package com.senac.aula.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de pedidos de uma empresa num dia (data de criação), por status atual.
+ *
+ * Observações:
+ * - Só é escrito por SQL nativo (ResumoVendasRepository): incrementos atômicos, sem ler a linha antes.
+ * - Pode ser reconstruído a partir de pedidos_delivery (ResumoVendasService.reconstruir).
+ */
+@Entity
+@Table(name = "resumo_vendas_diario")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoVendasDiario {
+
+    @EmbeddedId
+    private ResumoVendasDiarioId id;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false)
+    private BigDecimal receita;
+}
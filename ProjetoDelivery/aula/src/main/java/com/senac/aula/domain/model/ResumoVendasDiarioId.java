@@ -0,0 +1,28 @@
+package com.senac.aula.domain.model;
+
+import com.senac.aula.domain.enums.StatusPedido;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoVendasDiarioId implements Serializable {
+
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    private LocalDate dia;
+
+    @Enumerated(EnumType.STRING)
+    private StatusPedido status;
+}
@@ -1,6 +1,8 @@
 package com.senac.aula.domain.model;
 
 import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.infra.busca.RestauranteIndiceListener;
+import com.senac.aula.infra.cache.UsuarioCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -16,9 +18,12 @@ import java.util.List;
  * Observações:
  * - Implementa UserDetails para integrar com Spring Security facilmente.
  * - possui cpf (para cliente) e cnpj (para empresa). Em prePersist definimos tipo se necessário.
+ * - Alterações e remoções invalidam o UsuarioCache (UsuarioCacheListener).
+ * - Empresas cadastradas/alteradas/removidas atualizam a busca de restaurantes (RestauranteIndiceListener).
  */
 @Entity
 @Table(name = "usuarios")
+@EntityListeners({UsuarioCacheListener.class, RestauranteIndiceListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -50,7 +55,7 @@ public class Usuario implements UserDetails {
     @Column(length = 30)
     private String cnpj;
 
-    // Tipo do usuário (CLIENTE / EMPRESA)
+    // Tipo do usuário (CLIENTE / EMPRESA / ENTREGADOR)
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TipoUsuario tipo;
@@ -76,7 +81,7 @@ public class Usuario implements UserDetails {
     // ------- Métodos da interface UserDetails para Spring Security --------
 
     /**
-     * Concede a autoridade ROLE_CLIENTE ou ROLE_EMPRESA dependendo do tipo.
+     * Concede a autoridade ROLE_CLIENTE, ROLE_EMPRESA ou ROLE_ENTREGADOR dependendo do tipo.
      * Spring Security trabalha com "ROLE_xxx" por convenção.
      */
     @Override
@@ -0,0 +1,6 @@
+package com.senac.aula.exception;
+
+/** Alteração condicional perdeu a corrida para outra requisição (responde 409; o cliente recarrega e tenta de novo). */
+public class ConflitoException extends RuntimeException {
+    public ConflitoException(String msg) { super(msg); }
+}
@@ -1,13 +1,18 @@
 package com.senac.aula.exception;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException; // Import adicionado
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 /**
  * Tratamento global de exceções — centraliza mensagens JSON amigáveis.
@@ -24,6 +29,17 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    // Pedido alterado entre a leitura e o UPDATE condicional (ou @Version desatualizada)
+    @ExceptionHandler({ConflitoException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleConflito(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.CONFLICT.value(),
+                "error", ex instanceof ConflitoException ? ex.getMessage()
+                        : "Registro alterado por outra requisição; recarregue e tente novamente"
+        ));
+    }
+
     // Para capturar exceções de validação de DTOs
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -41,6 +57,37 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    // Executor dedicado lotado (ex.: pico de logins no executor de senhas): cliente deve tentar de novo
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleSobrecarga(TaskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "error", "Servidor ocupado, tente novamente em instantes"
+                ));
+    }
+
+    // Login com email ou senha errados
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<Map<String, Object>> handleCredenciais(BadCredentialsException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.UNAUTHORIZED.value(),
+                "error", ex.getMessage()
+        ));
+    }
+
+    // Falha dentro de um CompletableFuture (cadastro/login assíncronos): trata pela causa real
+    @ExceptionHandler(CompletionException.class)
+    public ResponseEntity<Map<String, Object>> handleAssincrona(CompletionException ex) {
+        Throwable causa = ex.getCause();
+        if (causa instanceof BadCredentialsException e) return handleCredenciais(e);
+        if (causa instanceof BusinessException e) return handleBusiness(e);
+        if (causa instanceof TaskRejectedException e) return handleSobrecarga(e);
+        return handleAll(causa instanceof Exception e ? e : ex);
+    }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleAll(Exception ex) { // Alterado tipo de retorno
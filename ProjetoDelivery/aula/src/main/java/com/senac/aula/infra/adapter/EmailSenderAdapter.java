@@ -3,6 +3,7 @@ package com.senac.aula.infra.adapter; // Está na camada de infraestrutura, fora
 
 import com.senac.aula.domain.EmailSenderPort; // Importamos a interface que criamos no Passo 1
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage; // Classe do Spring para e-mails simples
 import org.springframework.mail.javamail.JavaMailSender; // Interface do Spring para enviar e-mails de verdade
 import org.springframework.stereotype.Component; // Marca esta classe como um componente do Spring
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Value; // Para pegar valores
 
 // Esta classe é o nosso "Adaptador". Ela implementa a Porta (o contrato) do domínio.
 // Ela sabe os detalhes técnicos de COMO enviar um e-mail.
+@Slf4j // Logger (substitui o System.out; latência e falhas do envio são medidas no EmailOutboxService)
 @Component // Avisa o Spring que ele deve criar e gerenciar uma instância desta classe
 @RequiredArgsConstructor // Gera um construtor que injeta automaticamente campos 'final'
 public class EmailSenderAdapter implements EmailSenderPort { // Implementamos a interface do domínio
@@ -44,16 +46,10 @@ public class EmailSenderAdapter implements EmailSenderPort { // Implementamos a
                         "Obrigado por escolher nossos serviços!"
         );
 
-        try {
-            // Tentamos enviar o e-mail usando o JavaMailSender
-            mailSender.send(message);
-            System.out.println("E-mail de confirmação enviado para: " + recipientEmail);
-        } catch (Exception e) {
-            // Se algo der errado no envio, imprimimos um erro no console.
-            // Em um sistema de verdade, usaríamos um logger (como SLF4J/Logback) aqui.
-            // Importante: A criação do pedido NÃO DEVE FALHAR se o e-mail falhar.
-            // Por isso, capturamos a exceção aqui e não a relançamos.
-            System.err.println("Erro ao enviar e-mail de confirmação para " + recipientEmail + ": " + e.getMessage());
-        }
+        // Enviamos o e-mail usando o JavaMailSender.
+        // Importante: a exceção NÃO é mais engolida aqui. Este adapter só é chamado pelo
+        // EmailOutboxService (fora da transação do pedido), que usa a falha para agendar nova tentativa.
+        mailSender.send(message);
+        log.debug("E-mail de confirmação enviado para: {}", recipientEmail);
     }
 }
\ No newline at end of file
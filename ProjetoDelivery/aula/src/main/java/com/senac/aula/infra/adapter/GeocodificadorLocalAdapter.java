@@ -0,0 +1,84 @@
+package com.senac.aula.infra.adapter;
+
+import com.senac.aula.domain.Coordenada;
+import com.senac.aula.domain.GeocodificadorPort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Geocodificador local, sem rede: substituto do serviço real em desenvolvimento e testes.
+ *
+ * - Endereço com "@lat,lng" (ex.: "Rua A, 10 @-23.5614,-46.6559") usa as coordenadas informadas.
+ * - Qualquer outro endereço vira um ponto determinístico (hash do texto normalizado) dentro do
+ *   círculo de despacho.geocodificador.local.raio-km em volta do centro configurado.
+ */
+@Component
+@ConditionalOnProperty(name = "despacho.geocodificador", havingValue = "local", matchIfMissing = true)
+public class GeocodificadorLocalAdapter implements GeocodificadorPort {
+
+    private static final Pattern COORDENADAS = Pattern.compile("@\\s*(-?\\d{1,2}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)");
+
+    private final Coordenada centro;
+    private final double raioKm;
+
+    public GeocodificadorLocalAdapter(@Value("${despacho.geocodificador.local.latitude:-23.5505}") double latitude,
+                                      @Value("${despacho.geocodificador.local.longitude:-46.6333}") double longitude,
+                                      @Value("${despacho.geocodificador.local.raio-km:15}") double raioKm) {
+        this.centro = new Coordenada(latitude, longitude);
+        this.raioKm = raioKm;
+    }
+
+    @Override
+    public Optional<Coordenada> geocodificar(String endereco) {
+        if (endereco == null || endereco.isBlank()) {
+            return Optional.empty();
+        }
+        Matcher m = COORDENADAS.matcher(endereco);
+        if (m.find()) {
+            try {
+                return Optional.of(new Coordenada(Double.parseDouble(m.group(1)), Double.parseDouble(m.group(2))));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        byte[] hash = sha256(normalizar(endereco));
+        // Dois números em [0, 1) tirados do hash: ângulo e distância (raiz: densidade uniforme no círculo)
+        double angulo = 2 * Math.PI * fracao(hash, 0);
+        double distancia = raioKm * Math.sqrt(fracao(hash, 8));
+        double dLat = distancia * Math.sin(angulo) / 111.32;
+        double dLng = distancia * Math.cos(angulo) / (111.32 * Math.cos(Math.toRadians(centro.latitude())));
+        return Optional.of(new Coordenada(centro.latitude() + dLat, centro.longitude() + dLng));
+    }
+
+    private static String normalizar(String endereco) {
+        String semAcento = Normalizer.normalize(endereco, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcento.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    private static double fracao(byte[] hash, int inicio) {
+        long bits = 0;
+        for (int i = inicio; i < inicio + 7; i++) {
+            bits = (bits << 8) | (hash[i] & 0xff);
+        }
+        return (double) bits / (1L << 56);
+    }
+
+    private static byte[] sha256(String texto) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
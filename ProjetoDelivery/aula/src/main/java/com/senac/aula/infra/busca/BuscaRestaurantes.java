@@ -0,0 +1,136 @@
+package com.senac.aula.infra.busca;
+
+import com.senac.aula.application.dto.restaurante.CategoriaEmpresa;
+import com.senac.aula.application.dto.restaurante.RestauranteResumo;
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
+import com.senac.aula.infra.cache.UsuarioCache;
+import com.senac.aula.infra.datasource.ConsistenciaLeitura;
+import com.senac.aula.infra.repository.ProdutoRepository;
+import com.senac.aula.infra.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Busca de restaurantes (GET /restaurantes?q=) servida pelo IndiceRestaurantes em memória.
+ *
+ * Observações:
+ * - Carga completa na subida e a cada busca.restaurantes.reconstrucao (corrige o que esta instância
+ *   não viu: cadastros feitos em outra instância, alterações direto no banco).
+ * - Incremental, depois do commit: cadastro/alteração/remoção de EMPRESA (RestauranteIndiceListener)
+ *   e mudança de cardápio (CatalogoCache.invalidar), que relê só as categorias daquela empresa.
+ * - Alterações que chegam durante uma reconstrução são reaplicadas no índice novo antes da troca.
+ */
+@Slf4j
+@Component
+public class BuscaRestaurantes {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ProdutoRepository produtoRepository;
+    private final UsuarioCache usuarioCache;
+    private final ConsistenciaLeitura consistenciaLeitura;
+    private final Timer tempoBusca;
+
+    private volatile IndiceRestaurantes indice = new IndiceRestaurantes();
+    // Não nulo só durante uma reconstrução
+    private List<Consumer<IndiceRestaurantes>> alteracoesDuranteReconstrucao;
+
+    public BuscaRestaurantes(UsuarioRepository usuarioRepository,
+                             ProdutoRepository produtoRepository,
+                             UsuarioCache usuarioCache,
+                             ConsistenciaLeitura consistenciaLeitura,
+                             MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.produtoRepository = produtoRepository;
+        this.usuarioCache = usuarioCache;
+        this.consistenciaLeitura = consistenciaLeitura;
+        this.tempoBusca = Timer.builder("delivery.busca.restaurantes")
+                .description("Tempo de consulta ao índice de restaurantes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("delivery.busca.restaurantes.indexados", this, b -> b.indice.tamanho())
+                .description("Restaurantes no índice de busca")
+                .register(meterRegistry);
+    }
+
+    public List<RestauranteResumo> buscar(String consulta, int limite) {
+        return tempoBusca.record(() -> indice.buscar(consulta, limite));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${busca.restaurantes.reconstrucao:PT10M}",
+            initialDelayString = "${busca.restaurantes.reconstrucao:PT10M}")
+    public void reconstruir() {
+        List<Consumer<IndiceRestaurantes>> alteracoes = new ArrayList<>();
+        synchronized (this) {
+            alteracoesDuranteReconstrucao = alteracoes;
+        }
+        try {
+            IndiceRestaurantes novo = new IndiceRestaurantes();
+            Map<Long, List<String>> categorias = produtoRepository.buscarCategorias().stream()
+                    .collect(Collectors.groupingBy(CategoriaEmpresa::empresaId,
+                            Collectors.mapping(CategoriaEmpresa::categoria, Collectors.toList())));
+            for (UsuarioResumo empresa : usuarioRepository.buscarRestaurantes()) {
+                novo.colocar(empresa.id(), empresa.nome(), categorias.getOrDefault(empresa.id(), List.of()));
+            }
+            synchronized (this) {
+                alteracoes.forEach(a -> a.accept(novo));
+                indice = novo;
+            }
+            log.debug("Índice de restaurantes reconstruído: {} restaurantes", novo.tamanho());
+        } finally {
+            synchronized (this) {
+                alteracoesDuranteReconstrucao = null;
+            }
+        }
+    }
+
+    /** Empresa cadastrada ou alterada (nome); as categorias indexadas são mantidas. */
+    public void empresaSalva(Long empresaId, String nome) {
+        aposCommit(() -> aplicar(i -> i.colocar(empresaId, nome, i.categorias(empresaId))));
+    }
+
+    public void empresaRemovida(Long empresaId) {
+        aposCommit(() -> aplicar(i -> i.remover(empresaId)));
+    }
+
+    /** Cardápio mudou (chamado pelo CatalogoCache.invalidar, já depois do commit). */
+    public void catalogoAlterado(Long empresaId) {
+        List<String> categorias = consistenciaLeitura.noPrimario(() -> produtoRepository.buscarCategoriasDaEmpresa(empresaId));
+        usuarioCache.buscar(empresaId).ifPresent(empresa ->
+                aplicar(i -> i.colocar(empresaId, empresa.nome(), categorias)));
+    }
+
+    private synchronized void aplicar(Consumer<IndiceRestaurantes> alteracao) {
+        alteracao.accept(indice);
+        if (alteracoesDuranteReconstrucao != null) {
+            alteracoesDuranteReconstrucao.add(alteracao);
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,162 @@
+package com.senac.aula.infra.busca;
+
+import com.senac.aula.application.dto.restaurante.RestauranteResumo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice em memória dos restaurantes por prefixo de palavra do nome e das categorias.
+ *
+ * Observações:
+ * - Termos normalizados (minúsculas, sem acento) num mapa ordenado: o prefixo "piz" vira um
+ *   intervalo ["piz", "piz￿") e só os restaurantes desse intervalo são avaliados.
+ * - Consulta com várias palavras: todas precisam casar (como prefixo) com o nome ou uma categoria;
+ *   os candidatos saem da palavra mais longa, a mais seletiva.
+ * - Pontuação por palavra: nome exato > prefixo do nome > categoria exata > prefixo de categoria;
+ *   bônus quando o nome começa com a consulta inteira. Empate: nome em ordem alfabética.
+ * - Leitura sem trava; escritas (colocar/remover) são serializadas.
+ */
+public class IndiceRestaurantes {
+
+    private record Entrada(long id, String nome, List<String> categorias, String nomeNormalizado,
+                           String[] termosNome, String[] termosCategoria) {}
+
+    private record Resultado(Entrada entrada, int pontos) {}
+
+    private static final Comparator<Resultado> PIOR_PRIMEIRO = Comparator
+            .comparingInt(Resultado::pontos)
+            .thenComparing((Resultado r) -> r.entrada().nomeNormalizado(), Comparator.reverseOrder());
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> termos = new ConcurrentSkipListMap<>();
+
+    /** Inclui o restaurante ou troca nome/categorias. */
+    public synchronized void colocar(long id, String nome, Collection<String> categorias) {
+        remover(id);
+        LinkedHashSet<String> distintas = new LinkedHashSet<>();
+        Set<String> normalizadas = new HashSet<>();
+        for (String categoria : categorias) {
+            if (categoria != null && !categoria.isBlank() && normalizadas.add(normalizar(categoria))) {
+                distintas.add(categoria.trim());
+            }
+        }
+        List<String> listaCategorias = distintas.stream().sorted(String.CASE_INSENSITIVE_ORDER).toList();
+        String[] termosNome = tokenizar(nome);
+        String[] termosCategoria = listaCategorias.stream()
+                .flatMap(c -> Arrays.stream(tokenizar(c))).distinct().toArray(String[]::new);
+
+        Entrada entrada = new Entrada(id, nome, listaCategorias, normalizar(nome), termosNome, termosCategoria);
+        for (String termo : termosNome) indexar(termo, id);
+        for (String termo : termosCategoria) indexar(termo, id);
+        entradas.put(id, entrada);
+    }
+
+    public synchronized void remover(long id) {
+        Entrada anterior = entradas.remove(id);
+        if (anterior == null) return;
+        for (String termo : anterior.termosNome()) desindexar(termo, id);
+        for (String termo : anterior.termosCategoria()) desindexar(termo, id);
+    }
+
+    public boolean contem(long id) {
+        return entradas.containsKey(id);
+    }
+
+    /** Categorias indexadas do restaurante (vazio se não está no índice). */
+    public List<String> categorias(long id) {
+        Entrada entrada = entradas.get(id);
+        return entrada != null ? entrada.categorias() : List.of();
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    public List<RestauranteResumo> buscar(String consulta, int limite) {
+        String[] palavras = tokenizar(consulta);
+        if (palavras.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        String pivo = Arrays.stream(palavras).max(Comparator.comparingInt(String::length)).orElseThrow();
+        String consultaNormalizada = String.join(" ", palavras);
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, PIOR_PRIMEIRO);
+        Set<Long> vistos = new HashSet<>();
+        ConcurrentNavigableMap<String, Set<Long>> intervalo = termos.subMap(pivo, true, pivo + Character.MAX_VALUE, false);
+        for (Set<Long> ids : intervalo.values()) {
+            for (Long id : ids) {
+                if (!vistos.add(id)) continue;
+                Entrada entrada = entradas.get(id);
+                if (entrada == null) continue;
+                int pontos = pontuar(entrada, palavras, consultaNormalizada);
+                if (pontos == 0) continue;
+                melhores.add(new Resultado(entrada, pontos));
+                if (melhores.size() > limite) melhores.poll();
+            }
+        }
+
+        List<RestauranteResumo> resultado = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) {
+            Entrada e = melhores.poll().entrada();
+            resultado.add(new RestauranteResumo(e.id(), e.nome(), e.categorias()));
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    private static int pontuar(Entrada entrada, String[] palavras, String consultaNormalizada) {
+        int total = 0;
+        for (String palavra : palavras) {
+            int melhor = Math.max(pontuar(entrada.termosNome(), palavra, 8, 4), pontuar(entrada.termosCategoria(), palavra, 2, 1));
+            if (melhor == 0) return 0;
+            total += melhor;
+        }
+        return entrada.nomeNormalizado().startsWith(consultaNormalizada) ? total + 16 : total;
+    }
+
+    private static int pontuar(String[] termos, String palavra, int exato, int prefixo) {
+        int melhor = 0;
+        for (String termo : termos) {
+            if (termo.equals(palavra)) return exato;
+            if (termo.startsWith(palavra)) melhor = prefixo;
+        }
+        return melhor;
+    }
+
+    private void indexar(String termo, long id) {
+        termos.computeIfAbsent(termo, t -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private void desindexar(String termo, long id) {
+        termos.computeIfPresent(termo, (t, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcento.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    static String[] tokenizar(String texto) {
+        String normalizado = normalizar(texto);
+        return normalizado.isEmpty() ? new String[0] : Arrays.stream(normalizado.split(" ")).distinct().toArray(String[]::new);
+    }
+}
@@ -0,0 +1,36 @@
+package com.senac.aula.infra.busca;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA que mantém a busca de restaurantes em dia com os Usuarios do tipo EMPRESA.
+ *
+ * Mesmo esquema do UsuarioCacheListener (bean obtido de forma tardia); a BuscaRestaurantes
+ * só aplica a mudança depois do commit.
+ */
+public class RestauranteIndiceListener {
+
+    private final ObjectProvider<BuscaRestaurantes> buscaRestaurantes;
+
+    public RestauranteIndiceListener(ObjectProvider<BuscaRestaurantes> buscaRestaurantes) {
+        this.buscaRestaurantes = buscaRestaurantes;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void salvar(Usuario usuario) {
+        if (usuario.getTipo() == TipoUsuario.EMPRESA) {
+            buscaRestaurantes.ifAvailable(busca -> busca.empresaSalva(usuario.getId(), usuario.getNome()));
+        }
+    }
+
+    @PostRemove
+    public void remover(Usuario usuario) {
+        buscaRestaurantes.ifAvailable(busca -> busca.empresaRemovida(usuario.getId()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.senac.aula.infra.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.infra.busca.BuscaRestaurantes;
+import com.senac.aula.infra.datasource.ConsistenciaLeitura;
+import com.senac.aula.infra.repository.ProdutoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache read-through do catálogo de produtos, por empresa_id.
+ *
+ * - Guarda a lista compacta (ProdutoResumo) e o JSON já serializado, servido sem passar pelo Jackson.
+ * - Invalidado explicitamente por criar/deletar/importar produtos; o TTL é só uma rede de segurança.
+ * - Cada invalidação troca o carimbo de versão (ETag) da listagem de produtos da empresa.
+ * - Cada invalidação também relê as categorias da empresa na busca de restaurantes.
+ * - A carga lê do primário: um catálogo atrasado da réplica ficaria no cache até o TTL.
+ * - Catálogo vazio não é guardado: o empresaId vem do path, e ids aleatórios (ou de quem não é
+ *   empresa) encheriam o cache de listas vazias e despejariam catálogos de verdade.
+ * - Métricas: cache.gets (hit/miss), cache.size e delivery.catalogo.cache.taxa-acerto.
+ */
+@Component
+public class CatalogoCache {
+
+    private static final Catalogo VAZIO = new Catalogo(List.of(), "[]".getBytes(StandardCharsets.UTF_8));
+
+    private final ProdutoRepository produtoRepository;
+    private final ObjectMapper objectMapper;
+    private final VersoesListagem versoesListagem;
+    private final ConsistenciaLeitura consistenciaLeitura;
+    private final BuscaRestaurantes buscaRestaurantes;
+    private final Cache<Long, Catalogo> cache;
+
+    public CatalogoCache(ProdutoRepository produtoRepository,
+                         ObjectMapper objectMapper,
+                         VersoesListagem versoesListagem,
+                         ConsistenciaLeitura consistenciaLeitura,
+                         BuscaRestaurantes buscaRestaurantes,
+                         MeterRegistry meterRegistry,
+                         @Value("${cache.catalogo.tamanho-maximo:5000}") long tamanhoMaximo,
+                         @Value("${cache.catalogo.ttl:1h}") Duration ttl) {
+        this.produtoRepository = produtoRepository;
+        this.objectMapper = objectMapper;
+        this.versoesListagem = versoesListagem;
+        this.consistenciaLeitura = consistenciaLeitura;
+        this.buscaRestaurantes = buscaRestaurantes;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalogo");
+        Gauge.builder("delivery.catalogo.cache.taxa-acerto", cache, c -> c.stats().hitRate())
+                .description("Fração das leituras do catálogo atendidas pelo cache")
+                .register(meterRegistry);
+    }
+
+    public Catalogo buscar(Long empresaId) {
+        // Carga que devolve null não entra no Caffeine
+        Catalogo catalogo = cache.get(empresaId, this::carregar);
+        return catalogo != null ? catalogo : VAZIO;
+    }
+
+    public void invalidar(Long empresaId) {
+        cache.invalidate(empresaId);
+        versoesListagem.incrementar(VersoesListagem.Escopo.PRODUTOS, empresaId);
+        buscaRestaurantes.catalogoAlterado(empresaId);
+    }
+
+    private Catalogo carregar(Long empresaId) {
+        List<ProdutoResumo> itens = List.copyOf(
+                consistenciaLeitura.noPrimario(() -> produtoRepository.findResumosByEmpresaId(empresaId)));
+        if (itens.isEmpty()) {
+            return null;
+        }
+        try {
+            return new Catalogo(itens, objectMapper.writeValueAsBytes(itens));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar catálogo da empresa " + empresaId, e);
+        }
+    }
+
+    /** Catálogo de uma empresa: itens e o JSON correspondente. */
+    public record Catalogo(List<ProdutoResumo> itens, byte[] json) {}
+}
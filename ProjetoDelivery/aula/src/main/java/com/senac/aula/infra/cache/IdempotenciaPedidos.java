@@ -0,0 +1,110 @@
+package com.senac.aula.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.exception.ConflitoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resultados de POST /pedidos por Idempotency-Key (por usuário), limitados em tamanho e com expiração por TTL.
+ *
+ * Observações:
+ * - A primeira requisição com a chave cria o pedido; as repetições recebem o mesmo PedidoResponse
+ *   sem consultar nem gravar nada (nem pedido, nem email).
+ * - Repetições concorrentes esperam a primeira terminar (até espera-maxima) em vez de disputar com ela.
+ * - Se a criação falhar, a chave é liberada: a próxima tentativa cria de novo.
+ * - A mesma chave com outro corpo é recusada (erro do cliente, não repetição).
+ * - O resultado só é guardado depois do commit (PedidoService.criarPedido é @Transactional).
+ * - Por instância: com várias instâncias, repetições precisam cair na mesma (afinidade por usuário).
+ */
+@Component
+public class IdempotenciaPedidos {
+
+    public static final String HEADER_CHAVE = "Idempotency-Key";
+    public static final String HEADER_REPETIDO = "Idempotent-Replayed";
+    static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final Cache<Chave, Entrada> resultados;
+    private final Duration esperaMaxima;
+    private final Counter repeticoes;
+
+    public IdempotenciaPedidos(@Value("${pedidos.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                               @Value("${pedidos.idempotencia.ttl:24h}") Duration ttl,
+                               @Value("${pedidos.idempotencia.espera-maxima:30s}") Duration esperaMaxima,
+                               MeterRegistry meterRegistry) {
+        this.resultados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+        this.esperaMaxima = esperaMaxima;
+        this.repeticoes = Counter.builder("delivery.pedidos.idempotencia.repeticoes")
+                .description("POST /pedidos respondidos com o resultado guardado de uma Idempotency-Key")
+                .register(meterRegistry);
+        Gauge.builder("delivery.pedidos.idempotencia.chaves", resultados, Cache::estimatedSize)
+                .description("Idempotency-Keys guardadas")
+                .register(meterRegistry);
+    }
+
+    /** Resposta do pedido e se veio de uma execução anterior com a mesma chave. */
+    public record Resultado(PedidoResponse pedido, boolean repetido) {}
+
+    private record Chave(Long usuarioId, String chave) {}
+
+    private record Entrada(PedidoRequest requisicao, CompletableFuture<PedidoResponse> resposta) {}
+
+    public Resultado executar(Long usuarioId, String chave, PedidoRequest requisicao, Supplier<PedidoResponse> criar) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessException("Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        Chave id = new Chave(usuarioId, chave);
+        Entrada nova = new Entrada(requisicao, new CompletableFuture<>());
+        Entrada existente = resultados.asMap().putIfAbsent(id, nova);
+        if (existente != null) {
+            return new Resultado(aguardar(existente, requisicao), true);
+        }
+
+        try {
+            PedidoResponse resposta = criar.get();
+            nova.resposta().complete(resposta);
+            return new Resultado(resposta, false);
+        } catch (RuntimeException | Error e) {
+            resultados.asMap().remove(id, nova);
+            nova.resposta().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private PedidoResponse aguardar(Entrada existente, PedidoRequest requisicao) {
+        if (!existente.requisicao().equals(requisicao)) {
+            throw new BusinessException("Idempotency-Key já usada com outro pedido.");
+        }
+        try {
+            PedidoResponse resposta = existente.resposta().get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            repeticoes.increment();
+            return resposta;
+        } catch (TimeoutException e) {
+            throw new ConflitoException("Pedido com esta Idempotency-Key ainda em processamento; tente novamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoException("Pedido com esta Idempotency-Key ainda em processamento; tente novamente.");
+        } catch (ExecutionException e) {
+            // A primeira tentativa falhou: quem esperava recebe o mesmo erro (a chave já foi liberada)
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
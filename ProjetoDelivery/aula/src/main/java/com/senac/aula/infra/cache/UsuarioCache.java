@@ -0,0 +1,50 @@
+package com.senac.aula.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
+import com.senac.aula.infra.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache compartilhado de usuários (por id), limitado em tamanho e com expiração por TTL.
+ *
+ * - Na falta (miss) carrega do banco via UsuarioRepository.findById.
+ * - Entradas são invalidadas explicitamente depois do commit que altera/remove o Usuario (ver UsuarioCacheListener).
+ */
+@Component
+public class UsuarioCache {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, UsuarioResumo> cache;
+
+    public UsuarioCache(UsuarioRepository usuarioRepository,
+                        @Value("${cache.usuarios.tamanho-maximo:10000}") long tamanhoMaximo,
+                        @Value("${cache.usuarios.ttl:10m}") Duration ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<UsuarioResumo> buscar(Long id) {
+        if (id == null) return Optional.empty();
+        // Caffeine não guarda null: usuário inexistente sempre volta a consultar o banco
+        return Optional.ofNullable(cache.get(id, chave -> usuarioRepository.findById(chave)
+                .map(UsuarioResumo::de)
+                .orElse(null)));
+    }
+
+    public void invalidar(Long id) {
+        if (id != null) cache.invalidate(id);
+    }
+
+    public void invalidarTodos() {
+        cache.invalidateAll();
+    }
+}
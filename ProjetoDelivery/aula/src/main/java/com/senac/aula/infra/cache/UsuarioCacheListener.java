@@ -0,0 +1,47 @@
+package com.senac.aula.infra.cache;
+
+import com.senac.aula.domain.model.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA que invalida o UsuarioCache sempre que um Usuario é alterado ou removido.
+ *
+ * Instanciado pelo Hibernate através do container de beans do Spring; o cache é obtido
+ * de forma tardia (ObjectProvider) porque o EntityManagerFactory ainda está sendo criado.
+ *
+ * Os callbacks rodam no flush, antes do commit: invalidar ali deixaria uma falta concorrente
+ * recarregar a linha antiga (ainda a commitada) e guardá-la pelo TTL inteiro. Por isso a
+ * invalidação fica para o afterCommit; sem transação ativa, invalida na hora.
+ */
+public class UsuarioCacheListener {
+
+    private final ObjectProvider<UsuarioCache> usuarioCache;
+
+    public UsuarioCacheListener(ObjectProvider<UsuarioCache> usuarioCache) {
+        this.usuarioCache = usuarioCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidar(Usuario usuario) {
+        Long id = usuario.getId();
+        usuarioCache.ifAvailable(cache -> aposCommit(() -> cache.invalidar(id)));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
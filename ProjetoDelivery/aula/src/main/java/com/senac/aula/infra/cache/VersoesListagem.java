@@ -0,0 +1,114 @@
+package com.senac.aula.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carimbos de versão das listagens (pedidos por empresa/cliente, produtos por empresa) para ETag.
+ *
+ * Observações:
+ * - Toda mudança de pedido (PedidoEvento, após o commit) ou de produto (CatalogoCache.invalidar)
+ *   troca o carimbo do escopo; o GET compara o If-None-Match antes de qualquer consulta.
+ * - Os carimbos vêm de um contador único do processo: uma chave despejada do cache volta com
+ *   um valor maior que todos os anteriores, então um ETag antigo nunca volta a valer.
+ * - A "geração" (instante de subida) entra no ETag: após um restart, tudo é revalidado.
+ * - Carimbos por instância (como o stream SSE e a IdempotenciaPedidos): exige uma instância só
+ *   ou roteamento fixo (sticky) por empresa. Uma escrita na instância A não troca o carimbo da B,
+ *   que continuaria respondendo 304 a um ETag anterior à escrita. Vale também para o catálogo
+ *   público: GET /catalogo/{empresaId} precisa cair na instância que recebe as escritas da empresa.
+ *
+ * Métricas: delivery.listagem.condicional{listagem, resultado=nao_modificado|completo}
+ */
+@Component
+public class VersoesListagem {
+
+    public enum Escopo { PEDIDOS_EMPRESA, PEDIDOS_CLIENTE, PRODUTOS }
+
+    /** Valor da tag "listagem" nas métricas. */
+    public enum Listagem { PEDIDOS, PRODUTOS, CATALOGO }
+
+    private record Chave(Escopo escopo, Long id) {}
+
+    private record Contadores(Counter naoModificado, Counter completo) {}
+
+    private final String geracao = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong relogio = new AtomicLong();
+    private final Cache<Chave, Long> versoes;
+    private final Map<Listagem, Contadores> contadores = new EnumMap<>(Listagem.class);
+
+    public VersoesListagem(MeterRegistry meterRegistry,
+                           @Value("${cache.versoes.tamanho-maximo:200000}") long tamanhoMaximo) {
+        for (Listagem listagem : Listagem.values()) {
+            contadores.put(listagem, new Contadores(
+                    contador(meterRegistry, listagem, "nao_modificado"),
+                    contador(meterRegistry, listagem, "completo")));
+        }
+        this.versoes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .build();
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, Listagem listagem, String resultado) {
+        return Counter.builder("delivery.listagem.condicional")
+                .tag("listagem", listagem.name().toLowerCase(Locale.ROOT))
+                .tag("resultado", resultado)
+                .description("GETs condicionais das listagens: 304 sem consulta x resposta completa")
+                .register(meterRegistry);
+    }
+
+    public void incrementar(Escopo escopo, Long id) {
+        versoes.put(new Chave(escopo, id), relogio.incrementAndGet());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarPedido(PedidoEvento evento) {
+        incrementar(Escopo.PEDIDOS_EMPRESA, evento.empresaId());
+        if (evento.clienteId() != null) {
+            incrementar(Escopo.PEDIDOS_CLIENTE, evento.clienteId());
+        }
+    }
+
+    /** ETag (fraco) da listagem de pedidos do usuário; a query string diferencia filtros e páginas. */
+    public String etagPedidos(UsuarioAutenticado usuario, String queryString) {
+        Escopo escopo = usuario.isEmpresa() ? Escopo.PEDIDOS_EMPRESA : Escopo.PEDIDOS_CLIENTE;
+        return etag(escopo, usuario.id(), queryString);
+    }
+
+    public String etagProdutos(Long empresaId) {
+        return etag(Escopo.PRODUTOS, empresaId, null);
+    }
+
+    /**
+     * true (e resposta já marcada como 304) se o If-None-Match bate com o ETag atual.
+     * Conta o resultado em delivery.listagem.condicional.
+     */
+    public boolean naoModificado(WebRequest request, String etag, Listagem listagem) {
+        boolean naoModificado = request.checkNotModified(etag);
+        Contadores c = contadores.get(listagem);
+        (naoModificado ? c.naoModificado() : c.completo()).increment();
+        return naoModificado;
+    }
+
+    private String etag(Escopo escopo, Long id, String variante) {
+        long versao = versoes.get(new Chave(escopo, id), c -> relogio.incrementAndGet());
+        StringBuilder etag = new StringBuilder("W/\"").append(geracao).append('-').append(Long.toString(versao, 36));
+        if (variante != null && !variante.isEmpty()) {
+            etag.append('-').append(Integer.toHexString(variante.hashCode()));
+        }
+        return etag.append('"').toString();
+    }
+}
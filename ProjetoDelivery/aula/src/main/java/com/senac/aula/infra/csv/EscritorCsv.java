@@ -0,0 +1,66 @@
+package com.senac.aula.infra.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escrita de CSV (RFC 4180) registro a registro, direto num Writer.
+ *
+ * Observações:
+ * - Campos com separador, aspas ou quebra de linha saem entre aspas (aspas internas duplicadas).
+ * - Textos que começam com = + - @ recebem um apóstrofo na frente: o arquivo é aberto em planilha
+ *   e esses caracteres seriam interpretados como fórmula (CSV injection).
+ * - Não faz flush: o buffer fica a cargo do Writer recebido.
+ */
+public class EscritorCsv {
+
+    private final Writer writer;
+    private final char separador;
+    private boolean inicioRegistro = true;
+
+    public EscritorCsv(Writer writer, char separador) {
+        this.writer = writer;
+        this.separador = separador;
+    }
+
+    /** Campo de texto livre (digitado por usuários). */
+    public EscritorCsv texto(String valor) throws IOException {
+        if (valor != null && !valor.isEmpty() && "=+-@".indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        return campo(valor);
+    }
+
+    /** Campo gerado pelo sistema (números, datas, enums): sem o tratamento de fórmula. */
+    public EscritorCsv valor(Object valor) throws IOException {
+        return campo(valor != null ? valor.toString() : null);
+    }
+
+    public void fimRegistro() throws IOException {
+        writer.write("\r\n");
+        inicioRegistro = true;
+    }
+
+    private EscritorCsv campo(String valor) throws IOException {
+        if (!inicioRegistro) writer.write(separador);
+        inicioRegistro = false;
+        if (valor == null || valor.isEmpty()) return this;
+
+        if (precisaAspas(valor)) {
+            writer.write('"');
+            writer.write(valor.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(valor);
+        }
+        return this;
+    }
+
+    private boolean precisaAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == separador || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.senac.aula.infra.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV em streaming (RFC 4180): lê um registro por vez, sem carregar o arquivo.
+ *
+ * Observações:
+ * - O separador (',' ou ';') é detectado no cabeçalho por detectarSeparador().
+ * - Campos entre aspas podem conter separador, quebra de linha e aspas duplicadas ("").
+ * - linhaAtual() é a linha física em que o último registro lido começa (para mensagens de erro).
+ */
+public class LeitorCsv {
+
+    private final Reader reader;
+    private final char separador;
+    private int proximoChar = -2;
+    private long linhaFisica;
+    private long linhaAtual;
+
+    /**
+     * @param linhaInicial número da primeira linha que será lida (2 quando o cabeçalho já foi consumido)
+     */
+    public LeitorCsv(Reader reader, char separador, long linhaInicial) {
+        this.reader = reader;
+        this.separador = separador;
+        this.linhaFisica = linhaInicial;
+    }
+
+    /** ';' se o cabeçalho tiver mais ';' do que ',' (CSV exportado pelo Excel em pt-BR), senão ','. */
+    public static char detectarSeparador(String cabecalho) {
+        long pontoEVirgula = cabecalho.chars().filter(ch -> ch == ';').count();
+        long virgula = cabecalho.chars().filter(ch -> ch == ',').count();
+        return pontoEVirgula > virgula ? ';' : ',';
+    }
+
+    public long linhaAtual() {
+        return linhaAtual;
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo. Linhas em branco são ignoradas.
+     */
+    public List<String> proximoRegistro() throws IOException {
+        while (true) {
+            int c = espiar();
+            if (c == -1) return null;
+            if (c == '\r' || c == '\n') {
+                consumirQuebraDeLinha();
+                continue;
+            }
+            return lerRegistro();
+        }
+    }
+
+    private List<String> lerRegistro() throws IOException {
+        linhaAtual = linhaFisica;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean campoComAspas = false;
+
+        while (true) {
+            int c = ler();
+            if (c == -1) {
+                if (entreAspas) throw new IOException("Aspas não fechadas a partir da linha " + linhaAtual);
+                campos.add(finalizar(campo, campoComAspas));
+                return campos;
+            }
+            if (entreAspas) {
+                if (c == '"') {
+                    if (espiar() == '"') {
+                        campo.append((char) ler());
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    if (c == '\n') linhaFisica++;
+                    campo.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && campo.isEmpty()) {
+                entreAspas = true;
+                campoComAspas = true;
+            } else if (c == separador) {
+                campos.add(finalizar(campo, campoComAspas));
+                campo.setLength(0);
+                campoComAspas = false;
+            } else if (c == '\r' || c == '\n') {
+                devolver(c);
+                consumirQuebraDeLinha();
+                campos.add(finalizar(campo, campoComAspas));
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+        }
+    }
+
+    private static String finalizar(StringBuilder campo, boolean comAspas) {
+        return comAspas ? campo.toString() : campo.toString().trim();
+    }
+
+    private void consumirQuebraDeLinha() throws IOException {
+        int c = ler();
+        if (c == '\r' && espiar() == '\n') ler();
+        linhaFisica++;
+    }
+
+    private int espiar() throws IOException {
+        if (proximoChar == -2) proximoChar = reader.read();
+        return proximoChar;
+    }
+
+    private int ler() throws IOException {
+        int c = espiar();
+        proximoChar = -2;
+        return c;
+    }
+
+    private void devolver(int c) {
+        proximoChar = c;
+    }
+}
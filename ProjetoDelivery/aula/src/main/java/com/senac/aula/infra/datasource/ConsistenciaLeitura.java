@@ -0,0 +1,100 @@
+package com.senac.aula.infra.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Garantia de "ler o que escreveu" para o roteamento de leitura (RoteamentoLeituraDataSource).
+ *
+ * Observações:
+ * - Usuário que fez commit de uma transação de escrita lê do primário durante a janela
+ *   (datasource.leitura.janela-consistencia), tempo suficiente para a réplica alcançar.
+ * - Mudanças de pedido (PedidoEvento) marcam também a outra ponta: o cliente que recebe o evento
+ *   pelo SSE e recarrega a lista, ou a empresa que recebe um pedido novo.
+ * - noPrimario(...) força o primário em leituras que não podem ver dado atrasado
+ *   (login logo após o cadastro, carga do cache do catálogo).
+ * - Existe mesmo sem réplica configurada; aí só não é consultado.
+ */
+@Component
+public class ConsistenciaLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO_FORCADO = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> escritasRecentes;
+
+    public ConsistenciaLeitura(@Value("${datasource.leitura.janela-consistencia:5s}") Duration janela,
+                               @Value("${datasource.leitura.maximo-usuarios:100000}") long maximoUsuarios) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(maximoUsuarios)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    /** true se a leitura corrente precisa ir ao primário. */
+    public boolean exigePrimario() {
+        if (Boolean.TRUE.equals(PRIMARIO_FORCADO.get())) {
+            return true;
+        }
+        UsuarioAutenticado usuario = usuarioAtual();
+        return usuario != null && escritasRecentes.getIfPresent(usuario.id()) != null;
+    }
+
+    /** Chamado ao abrir a conexão de uma transação de escrita: marca o usuário no commit. */
+    public void registrarEscrita() {
+        UsuarioAutenticado usuario = usuarioAtual();
+        if (usuario == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                marcar(usuario.id());
+            }
+        });
+    }
+
+    public void marcar(Long usuarioId) {
+        if (usuarioId != null) {
+            escritasRecentes.put(usuarioId, Boolean.TRUE);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarPedido(PedidoEvento evento) {
+        marcar(evento.empresaId());
+        marcar(evento.clienteId());
+    }
+
+    /** Executa a leitura no primário, mesmo dentro de @Transactional(readOnly = true). */
+    public <T> T noPrimario(Supplier<T> leitura) {
+        Boolean anterior = PRIMARIO_FORCADO.get();
+        PRIMARIO_FORCADO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO_FORCADO.remove();
+            } else {
+                PRIMARIO_FORCADO.set(anterior);
+            }
+        }
+    }
+
+    private static UsuarioAutenticado usuarioAtual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UsuarioAutenticado usuario ? usuario : null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.senac.aula.infra.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource que limita quantas conexões podem estar emprestadas ao mesmo tempo.
+ *
+ * Observações:
+ * - Com virtual threads não há mais um pool de threads segurando a fila: milhares de requisições
+ *   chegariam juntas no Hikari. O semáforo (justo) ordena a espera antes do pool e desiste depois
+ *   de tempoMaximoEspera, devolvendo SQLTransientConnectionException (mesmo tipo do Hikari).
+ * - A permissão é devolvida no close() da conexão, uma única vez.
+ */
+public class LimitadorConcorrenciaDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final int maximoConcorrente;
+    private final long tempoMaximoEsperaNanos;
+    private final LongAdder rejeitadas = new LongAdder();
+
+    public LimitadorConcorrenciaDataSource(DataSource alvo, int maximoConcorrente, Duration tempoMaximoEspera) {
+        super(alvo);
+        this.maximoConcorrente = maximoConcorrente;
+        this.permissoes = new Semaphore(maximoConcorrente, true);
+        this.tempoMaximoEsperaNanos = tempoMaximoEspera.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int getEmUso() {
+        return maximoConcorrente - permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(tempoMaximoEsperaNanos, TimeUnit.NANOSECONDS)) {
+                rejeitadas.increment();
+                throw new SQLTransientConnectionException(
+                        "Limite de " + maximoConcorrente + " conexões simultâneas atingido");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName()) && liberada.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    if ("equals".equals(metodo.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(metodo.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(metodo.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
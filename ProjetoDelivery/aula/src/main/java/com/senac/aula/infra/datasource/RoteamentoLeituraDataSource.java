@@ -0,0 +1,126 @@
+package com.senac.aula.infra.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Roteia conexões entre o primário e a réplica de leitura.
+ *
+ * Observações:
+ * - Transação @Transactional(readOnly = true) vai para a réplica; o resto (escritas, Flyway,
+ *   código fora de transação) vai para o primário.
+ * - Precisa estar atrás de um LazyConnectionDataSourceProxy: o JpaTransactionManager pede a conexão
+ *   antes de marcar a transação como readOnly; o proxy só abre a conexão real no primeiro comando.
+ * - Usuário com escrita recente (ConsistenciaLeitura) lê do primário.
+ * - Falha ao conectar na réplica: a leitura cai no primário e a réplica fica fora por
+ *   pausaAposFalha; depois disso a próxima leitura tenta de novo.
+ * - getConnection(usuário, senha) segue o mesmo roteamento e repassa as credenciais.
+ * - É dono do pool da réplica (fechado no close); o primário é um bean à parte.
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primario;
+    private final DataSource leitura;
+    private final ConsistenciaLeitura consistencia;
+    private final long pausaAposFalhaNanos;
+
+    private volatile long indisponivelAte;
+    private final LongAdder leiturasReplica = new LongAdder();
+    private final LongAdder leiturasPrimario = new LongAdder();
+    private final LongAdder falhasReplica = new LongAdder();
+
+    public RoteamentoLeituraDataSource(DataSource primario, DataSource leitura,
+                                       ConsistenciaLeitura consistencia, Duration pausaAposFalha) {
+        this.primario = primario;
+        this.leitura = leitura;
+        this.consistencia = consistencia;
+        this.pausaAposFalhaNanos = pausaAposFalha.toNanos();
+        this.indisponivelAte = System.nanoTime();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return rotear(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return rotear(ds -> ds.getConnection(username, password));
+    }
+
+    private Connection rotear(Abertura abertura) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                consistencia.registrarEscrita();
+            }
+            return abertura.abrir(primario);
+        }
+        if (consistencia.exigePrimario() || !replicaDisponivel()) {
+            leiturasPrimario.increment();
+            return abertura.abrir(primario);
+        }
+        try {
+            Connection conexao = abertura.abrir(leitura);
+            leiturasReplica.increment();
+            return conexao;
+        } catch (SQLFeatureNotSupportedException e) {
+            throw e; // pool sem suporte a credenciais por chamada: não é a réplica que caiu
+        } catch (SQLException e) {
+            falhasReplica.increment();
+            indisponivelAte = System.nanoTime() + pausaAposFalhaNanos;
+            log.warn("Réplica de leitura indisponível, usando o primário por {} ms: {}",
+                    pausaAposFalhaNanos / 1_000_000, e.getMessage());
+            leiturasPrimario.increment();
+            return abertura.abrir(primario);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Abertura {
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+
+    // unwrap/isWrapperFor olham o primário (ex.: métricas do LimitadorConcorrenciaDataSource)
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primario.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primario.isWrapperFor(iface);
+    }
+
+    public boolean replicaDisponivel() {
+        return System.nanoTime() - indisponivelAte >= 0;
+    }
+
+    public long getLeiturasReplica() {
+        return leiturasReplica.sum();
+    }
+
+    public long getLeiturasPrimario() {
+        return leiturasPrimario.sum();
+    }
+
+    public long getFalhasReplica() {
+        return falhasReplica.sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (leitura instanceof AutoCloseable fechavel) {
+            fechavel.close();
+        }
+    }
+}
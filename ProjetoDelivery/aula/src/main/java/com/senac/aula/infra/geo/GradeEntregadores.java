@@ -0,0 +1,160 @@
+package com.senac.aula.infra.geo;
+
+import com.senac.aula.domain.Coordenada;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Índice espacial em memória dos entregadores disponíveis: grade regular de células em graus.
+ *
+ * Observações:
+ * - Cada célula guarda os entregadores dentro dela; a busca percorre anéis de células a partir
+ *   do ponto e para assim que nenhum anel seguinte pode ter alguém mais perto que o melhor achado.
+ *   Com a célula ~ à distância típica entre entregadores, são poucas células por busca.
+ * - Reservar tira o entregador da grade (não é mais candidato até ser devolvido).
+ * - Um único monitor protege tudo: as operações são de microssegundos e a reserva em lote
+ *   precisa enxergar a grade parada.
+ */
+public class GradeEntregadores {
+
+    private static final double KM_POR_GRAU = 111.32;
+
+    /** Solicitação de entrega: pedido e ponto de entrega. */
+    public record Solicitacao(long pedidoId, Coordenada destino) {}
+
+    /** Resultado de uma reserva: o entregador sai da grade. */
+    public record Reserva(long pedidoId, long entregadorId, Coordenada posicaoEntregador, double distanciaKm) {}
+
+    private record Candidato(long entregadorId, Coordenada posicao, double distanciaKm) {}
+
+    private record Tentativa(Solicitacao solicitacao, Candidato candidato) {}
+
+    private final double celulaGraus;
+    private final Map<Long, Coordenada> posicoes = new HashMap<>();
+    private final Map<Long, Map<Long, Coordenada>> celulas = new HashMap<>();
+
+    public GradeEntregadores(double celulaGraus) {
+        if (celulaGraus <= 0) {
+            throw new IllegalArgumentException("Tamanho de célula inválido: " + celulaGraus);
+        }
+        this.celulaGraus = celulaGraus;
+    }
+
+    /** Inclui o entregador ou move para a nova posição. */
+    public synchronized void atualizar(long entregadorId, Coordenada posicao) {
+        Coordenada anterior = posicoes.put(entregadorId, posicao);
+        long celulaNova = chave(indice(posicao.latitude()), indice(posicao.longitude()));
+        if (anterior != null) {
+            long celulaAnterior = chave(indice(anterior.latitude()), indice(anterior.longitude()));
+            if (celulaAnterior != celulaNova) {
+                removerDaCelula(celulaAnterior, entregadorId);
+            }
+        }
+        celulas.computeIfAbsent(celulaNova, c -> new HashMap<>()).put(entregadorId, posicao);
+    }
+
+    /** Tira o entregador da grade; devolve a última posição (null se não estava). */
+    public synchronized Coordenada remover(long entregadorId) {
+        Coordenada posicao = posicoes.remove(entregadorId);
+        if (posicao != null) {
+            removerDaCelula(chave(indice(posicao.latitude()), indice(posicao.longitude())), entregadorId);
+        }
+        return posicao;
+    }
+
+    public synchronized boolean contem(long entregadorId) {
+        return posicoes.containsKey(entregadorId);
+    }
+
+    public synchronized int tamanho() {
+        return posicoes.size();
+    }
+
+    /**
+     * Reserva um entregador por solicitação, no máximo a raioMaximoKm do destino.
+     *
+     * Guloso global: os pares (pedido, entregador mais próximo) saem em ordem crescente de distância;
+     * se o entregador do par já foi reservado, o pedido busca de novo e volta para a fila.
+     * Com uma solicitação é a busca do mais próximo; no pico evita que a ordem de chegada mande
+     * um entregador para longe enquanto outro pedido estava ao lado dele.
+     * Solicitações sem entregador no raio ficam fora do resultado.
+     */
+    public synchronized List<Reserva> reservar(Collection<Solicitacao> solicitacoes, double raioMaximoKm) {
+        PriorityQueue<Tentativa> fila = new PriorityQueue<>(
+                Comparator.comparingDouble((Tentativa t) -> t.candidato().distanciaKm()));
+        for (Solicitacao s : solicitacoes) {
+            Candidato c = maisProximo(s.destino(), raioMaximoKm);
+            if (c != null) fila.add(new Tentativa(s, c));
+        }
+
+        List<Reserva> reservas = new ArrayList<>();
+        while (!fila.isEmpty()) {
+            Tentativa t = fila.poll();
+            if (!posicoes.containsKey(t.candidato().entregadorId())) {
+                Candidato outro = maisProximo(t.solicitacao().destino(), raioMaximoKm);
+                if (outro != null) fila.add(new Tentativa(t.solicitacao(), outro));
+                continue;
+            }
+            remover(t.candidato().entregadorId());
+            reservas.add(new Reserva(t.solicitacao().pedidoId(), t.candidato().entregadorId(),
+                    t.candidato().posicao(), t.candidato().distanciaKm()));
+        }
+        return reservas;
+    }
+
+    private Candidato maisProximo(Coordenada ponto, double raioMaximoKm) {
+        if (posicoes.isEmpty()) {
+            return null;
+        }
+        long linha = indice(ponto.latitude());
+        long coluna = indice(ponto.longitude());
+        // Lado menor da célula (o de longitude encolhe com a latitude)
+        double ladoKm = celulaGraus * KM_POR_GRAU * Math.cos(Math.toRadians(Math.min(89, Math.abs(ponto.latitude()) + celulaGraus)));
+        int maximoAneis = (int) Math.ceil(raioMaximoKm / ladoKm) + 1;
+
+        Candidato melhor = null;
+        for (int anel = 0; anel <= maximoAneis; anel++) {
+            for (long dl = -anel; dl <= anel; dl++) {
+                boolean borda = Math.abs(dl) == anel;
+                // Nas linhas do meio só as duas colunas da borda pertencem ao anel
+                for (long dc = -anel; dc <= anel; dc += borda ? 1 : Math.max(1, 2L * anel)) {
+                    Map<Long, Coordenada> celula = celulas.get(chave(linha + dl, coluna + dc));
+                    if (celula == null) continue;
+                    for (Map.Entry<Long, Coordenada> e : celula.entrySet()) {
+                        double d = ponto.distanciaKm(e.getValue());
+                        if (d <= raioMaximoKm && (melhor == null || d < melhor.distanciaKm())) {
+                            melhor = new Candidato(e.getKey(), e.getValue(), d);
+                        }
+                    }
+                }
+            }
+            // Quem está nos próximos anéis fica a pelo menos anel * lado do ponto
+            if (melhor != null && melhor.distanciaKm() <= anel * ladoKm) {
+                break;
+            }
+        }
+        return melhor;
+    }
+
+    private void removerDaCelula(long celula, long entregadorId) {
+        Map<Long, Coordenada> entregadores = celulas.get(celula);
+        if (entregadores != null) {
+            entregadores.remove(entregadorId);
+            if (entregadores.isEmpty()) celulas.remove(celula);
+        }
+    }
+
+    private long indice(double graus) {
+        return (long) Math.floor(graus / celulaGraus);
+    }
+
+    private static long chave(long linha, long coluna) {
+        return (linha << 32) ^ (coluna & 0xffffffffL);
+    }
+}
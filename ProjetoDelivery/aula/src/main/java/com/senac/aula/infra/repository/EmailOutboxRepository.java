@@ -0,0 +1,48 @@
+package com.senac.aula.infra.repository;
+
+import com.senac.aula.domain.enums.StatusEmail;
+import com.senac.aula.domain.model.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Próximo lote de emails prontos para envio.
+     * FOR UPDATE SKIP LOCKED (lock.timeout = -2): várias instâncias podem drenar a fila sem disputar as mesmas linhas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from EmailOutbox e where e.status = :status and e.proximaTentativaEm <= :agora order by e.id")
+    List<EmailOutbox> buscarProntosParaEnvio(@Param("status") StatusEmail status,
+                                             @Param("agora") LocalDateTime agora,
+                                             Pageable lote);
+
+    long countByStatus(StatusEmail status);
+
+    // Um único UPDATE para todo o lote enviado com sucesso
+    @Modifying
+    @Query("update EmailOutbox e set e.status = com.senac.aula.domain.enums.StatusEmail.ENVIADO, " +
+            "e.enviadoEm = :agora, e.ultimoErro = null where e.id in :ids")
+    int marcarEnviados(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.tentativas = :tentativas, " +
+            "e.proximaTentativaEm = :proximaTentativaEm, e.ultimoErro = :erro where e.id = :id")
+    int registrarFalha(@Param("id") Long id,
+                       @Param("status") StatusEmail status,
+                       @Param("tentativas") int tentativas,
+                       @Param("proximaTentativaEm") LocalDateTime proximaTentativaEm,
+                       @Param("erro") String erro);
+}
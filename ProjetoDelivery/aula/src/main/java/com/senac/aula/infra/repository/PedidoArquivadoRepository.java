@@ -0,0 +1,29 @@
+package com.senac.aula.infra.repository;
+
+import com.senac.aula.domain.model.PedidoArquivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface PedidoArquivadoRepository extends JpaRepository<PedidoArquivado, Long>, PedidoArquivadoRepositoryCustom {
+
+    // Cópias feitas pelo ArquivamentoPedidosService, na mesma transação que apaga os originais
+
+    @Modifying
+    @Query(value = "insert into pedidos_delivery_arquivo (id, descricao, endereco, valor_total, status, criado_em, " +
+            "empresa_id, cliente_id, latitude, longitude, entregador_id, atribuido_em, versao, arquivado_em) " +
+            "select id, descricao, endereco, valor_total, status, criado_em, empresa_id, cliente_id, " +
+            "latitude, longitude, entregador_id, atribuido_em, versao, :agora " +
+            "from pedidos_delivery where id in (:ids)", nativeQuery = true)
+    int copiarPedidos(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query(value = "insert into itens_pedido_arquivo (id, pedido_id, produto_id, nome_produto, preco_unitario, quantidade) " +
+            "select id, pedido_id, produto_id, nome_produto, preco_unitario, quantidade " +
+            "from itens_pedido where pedido_id in (:ids)", nativeQuery = true)
+    int copiarItens(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package com.senac.aula.infra.repository;
+
+import java.time.YearMonth;
+
+/**
+ * DDL do arquivo frio que não cabe em @Query (nome de tabela não é parâmetro).
+ */
+public interface PedidoArquivadoRepositoryCustom {
+
+    /**
+     * Cria, se ainda não existir, a partição mensal de pedidos_delivery_arquivo que recebe os pedidos
+     * criados no mês. Só no PostgreSQL; nos demais bancos a tabela não é particionada e nada é feito.
+     */
+    void garantirParticao(YearMonth mes);
+}
@@ -0,0 +1,56 @@
+package com.senac.aula.infra.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação de PedidoArquivadoRepositoryCustom.
+ *
+ * Partição por mês (pedidos_delivery_arquivo_AAAA_MM, faixa [dia 1, dia 1 do mês seguinte)).
+ * Não existe partição default: um INSERT sem partição falha em vez de acumular num lugar
+ * que impediria criar a partição do mês depois. Os meses já garantidos ficam em memória.
+ */
+class PedidoArquivadoRepositoryImpl implements PedidoArquivadoRepositoryCustom {
+
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private volatile Boolean particionado;
+    private final Set<YearMonth> garantidas = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void garantirParticao(YearMonth mes) {
+        if (!particionado() || garantidas.contains(mes)) return;
+        em.createNativeQuery("create table if not exists pedidos_delivery_arquivo_" + mes.format(SUFIXO) +
+                        " partition of pedidos_delivery_arquivo for values from ('" + mes.atDay(1) + "') to ('" +
+                        mes.plusMonths(1).atDay(1) + "')")
+                .executeUpdate();
+        // Só marca depois do commit: um rollback desfaz o CREATE TABLE no PostgreSQL
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                garantidas.add(mes);
+            }
+        });
+    }
+
+    private boolean particionado() {
+        Boolean atual = particionado;
+        if (atual == null) {
+            atual = em.unwrap(Session.class).doReturningWork(c ->
+                    "PostgreSQL".equals(c.getMetaData().getDatabaseProductName()));
+            particionado = atual;
+        }
+        return atual;
+    }
+}
@@ -1,13 +1,96 @@
 package com.senac.aula.infra.repository;
 
+import com.senac.aula.application.dto.despacho.AtribuicaoResponse;
+import com.senac.aula.application.dto.despacho.DestinoPedido;
+import com.senac.aula.application.dto.pedido.PedidoAtual;
+import com.senac.aula.domain.enums.StatusPedido;
 import com.senac.aula.domain.model.PedidoDelivery;
 import com.senac.aula.domain.model.Usuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface PedidoRepository extends JpaRepository<PedidoDelivery, Long> {
+public interface PedidoRepository extends JpaRepository<PedidoDelivery, Long>, PedidoRepositoryCustom {
     List<PedidoDelivery> findByEmpresa(Usuario empresa);
 
     // Novo método para o histórico do cliente
     List<PedidoDelivery> findByCliente(Usuario cliente);
+
+    // --- Alterações condicionais (PedidoService): leitura por projeção + um UPDATE/DELETE filtrado pelo dono ---
+
+    // Só devolve o pedido se o usuário for a empresa ou o cliente dele
+    @Query("select new com.senac.aula.application.dto.pedido.PedidoAtual(p.id, p.descricao, p.endereco, " +
+            "p.valorTotal, p.status, p.criadoEm, p.empresa.id, c.id, p.versao) " +
+            "from PedidoDelivery p left join p.cliente c " +
+            "where p.id = :id and (p.empresa.id = :usuarioId or c.id = :usuarioId)")
+    Optional<PedidoAtual> buscarAtual(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    // Compare-and-set: só avança se o status ainda for o lido; 0 = outra requisição chegou antes
+    @Modifying
+    @Query("update PedidoDelivery p set p.status = :novo, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.empresa.id = :empresaId and p.status = :atual")
+    int trocarStatus(@Param("id") Long id, @Param("empresaId") Long empresaId,
+                     @Param("atual") StatusPedido atual, @Param("novo") StatusPedido novo);
+
+    @Modifying
+    @Query("update PedidoDelivery p set p.descricao = :descricao, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.versao = :versao and (p.empresa.id = :usuarioId or p.cliente.id = :usuarioId)")
+    int atualizarDescricao(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("versao") Long versao,
+                           @Param("descricao") String descricao);
+
+    // Itens saem pelo "on delete cascade" do banco
+    @Modifying
+    @Query("delete from PedidoDelivery p " +
+            "where p.id = :id and p.versao = :versao and (p.empresa.id = :usuarioId or p.cliente.id = :usuarioId)")
+    int excluirDoDono(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("versao") Long versao);
+
+    // --- Arquivamento (ArquivamentoPedidosService) ---
+
+    // Entregues mais antigos que o limite, travados até o commit (exclusão concorrente espera e recebe 409)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.senac.aula.application.dto.pedido.PedidoAtual(p.id, p.descricao, p.endereco, " +
+            "p.valorTotal, p.status, p.criadoEm, p.empresa.id, p.cliente.id, p.versao) " +
+            "from PedidoDelivery p where p.status = com.senac.aula.domain.enums.StatusPedido.ENTREGUE " +
+            "and p.criadoEm < :limite order by p.criadoEm, p.id")
+    List<PedidoAtual> travarParaArquivar(@Param("limite") LocalDateTime limite, Pageable lote);
+
+    // Itens saem pelo "on delete cascade" (já copiados para itens_pedido_arquivo)
+    @Modifying
+    @Query(value = "delete from pedidos_delivery where id in (:ids) and status = 'ENTREGUE'", nativeQuery = true)
+    int excluirArquivados(@Param("ids") Collection<Long> ids);
+
+    // --- Despacho (DespachoService) ---
+
+    @Query("select new com.senac.aula.application.dto.despacho.DestinoPedido(p.id, p.latitude, p.longitude) " +
+            "from PedidoDelivery p where p.id in :ids and p.status = com.senac.aula.domain.enums.StatusPedido.A_CAMINHO " +
+            "and p.entregador is null and p.latitude is not null")
+    List<DestinoPedido> buscarDestinos(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.senac.aula.application.dto.despacho.DestinoPedido(p.id, p.latitude, p.longitude) " +
+            "from PedidoDelivery p where p.status = com.senac.aula.domain.enums.StatusPedido.A_CAMINHO " +
+            "and p.entregador is null and p.latitude is not null order by p.criadoEm")
+    List<DestinoPedido> buscarAguardandoEntregador(Pageable pagina);
+
+    // Condicional: outro despacho (ou instância) que chegou antes vence; 0 = não atribuído
+    @Modifying
+    @Query(value = "update pedidos_delivery set entregador_id = :entregadorId, atribuido_em = :agora, " +
+            "versao = versao + 1 " +
+            "where id = :pedidoId and entregador_id is null and status = 'A_CAMINHO'", nativeQuery = true)
+    int atribuirEntregador(@Param("pedidoId") Long pedidoId, @Param("entregadorId") Long entregadorId,
+                           @Param("agora") LocalDateTime agora);
+
+    @Query("select new com.senac.aula.application.dto.despacho.AtribuicaoResponse(" +
+            "p.id, p.descricao, p.endereco, p.latitude, p.longitude, p.atribuidoEm) " +
+            "from PedidoDelivery p where p.entregador.id = :entregadorId " +
+            "and p.status = com.senac.aula.domain.enums.StatusPedido.A_CAMINHO order by p.atribuidoEm desc")
+    List<AtribuicaoResponse> buscarEntregasEmAndamento(@Param("entregadorId") Long entregadorId);
 }
\ No newline at end of file
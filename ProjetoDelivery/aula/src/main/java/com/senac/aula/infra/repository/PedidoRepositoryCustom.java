@@ -0,0 +1,49 @@
+package com.senac.aula.infra.repository;
+
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.LinhaExportacaoPedido;
+import com.senac.aula.application.dto.pedido.PedidoCursor;
+import com.senac.aula.application.dto.pedido.PedidoFiltro;
+import com.senac.aula.application.dto.pedido.PedidoParaAvanco;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.StatusPedido;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de PedidoDelivery que não cabem em métodos derivados do Spring Data.
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Página de pedidos ordenada por (criadoEm desc, id desc), projetada direto em PedidoResponse.
+     * Exatamente um entre empresaId e clienteId deve ser informado.
+     */
+    List<PedidoResponse> buscarPagina(Long empresaId, Long clienteId, PedidoFiltro filtro,
+                                      PedidoCursor cursor, int limite);
+
+    /** Mesma página de buscarPagina, lida do arquivo frio (pedidos entregues arquivados). */
+    List<PedidoResponse> buscarPaginaArquivada(Long empresaId, Long clienteId, PedidoFiltro filtro,
+                                               PedidoCursor cursor, int limite);
+
+    /**
+     * Lê e trava (FOR UPDATE) os pedidos da empresa candidatos ao avanço em lote.
+     * ids e status são filtros opcionais (pelo menos um deve vir preenchido).
+     */
+    List<PedidoParaAvanco> travarParaAvanco(Long empresaId, Collection<Long> ids, StatusPedido status, int limite);
+
+    /**
+     * Avança para o próximo status, num único UPDATE, os pedidos informados que pertencem à empresa
+     * e ainda não foram entregues. O CASE segue a ordem de StatusPedido; a versão é incrementada.
+     */
+    int avancarStatusEmLote(Long empresaId, Collection<Long> ids);
+
+    /**
+     * Histórico da empresa (recentes + arquivo frio) em ordem cronológica (criadoEm, id), lido por cursor forward-only
+     * em blocos de fetchSize linhas. Projeção em DTO: nada entra no contexto de persistência.
+     * Deve ser consumido (e fechado) dentro de uma transação.
+     */
+    Stream<LinhaExportacaoPedido> streamExportacao(Long empresaId, ExportacaoFiltro filtro, int fetchSize);
+}
@@ -0,0 +1,231 @@
+package com.senac.aula.infra.repository;
+
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.LinhaExportacaoPedido;
+import com.senac.aula.application.dto.pedido.PedidoCursor;
+import com.senac.aula.application.dto.pedido.PedidoFiltro;
+import com.senac.aula.application.dto.pedido.PedidoParaAvanco;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.model.PedidoArquivado;
+import com.senac.aula.domain.model.PedidoDelivery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementação de PedidoRepositoryCustom (Criteria API).
+ *
+ * A paginação é por keyset: em vez de OFFSET, filtra pelos pedidos "depois" do cursor,
+ * o que mantém o custo constante independente da página.
+ *
+ * O avanço em lote é um único UPDATE com CASE sobre o status, precedido da leitura travada
+ * dos mesmos pedidos (para montar o resultado por id e os eventos).
+ *
+ * A exportação usa getResultStream (ScrollableResults FORWARD_ONLY) com fetch size: o driver
+ * traz o resultado em blocos e só o bloco atual fica em memória. Pedidos recentes e arquivo frio
+ * (PedidoArquivado) são lidos em dois cursores e intercalados na ordem (criadoEm, id).
+ */
+class PedidoRepositoryImpl implements PedidoRepositoryCustom {
+
+    private static final Comparator<LinhaExportacaoPedido> ORDEM_EXPORTACAO =
+            Comparator.comparing(LinhaExportacaoPedido::criadoEm).thenComparing(LinhaExportacaoPedido::id);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<PedidoResponse> buscarPagina(Long empresaId, Long clienteId, PedidoFiltro filtro,
+                                             PedidoCursor cursor, int limite) {
+        return pagina(PedidoDelivery.class, empresaId, clienteId, filtro, cursor, limite);
+    }
+
+    @Override
+    public List<PedidoResponse> buscarPaginaArquivada(Long empresaId, Long clienteId, PedidoFiltro filtro,
+                                                      PedidoCursor cursor, int limite) {
+        return pagina(PedidoArquivado.class, empresaId, clienteId, filtro, cursor, limite);
+    }
+
+    // PedidoArquivado tem os mesmos atributos de PedidoDelivery: a mesma consulta serve às duas tabelas
+    private List<PedidoResponse> pagina(Class<?> origem, Long empresaId, Long clienteId, PedidoFiltro filtro,
+                                        PedidoCursor cursor, int limite) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<PedidoResponse> query = cb.createQuery(PedidoResponse.class);
+        Root<?> p = query.from(origem);
+        Path<LocalDateTime> criadoEm = p.get("criadoEm");
+        Path<Long> id = p.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (empresaId != null) where.add(cb.equal(p.get("empresa").get("id"), empresaId));
+        if (clienteId != null) where.add(cb.equal(p.get("cliente").get("id"), clienteId));
+
+        if (filtro != null) {
+            if (filtro.status() != null) where.add(cb.equal(p.get("status"), filtro.status()));
+            if (filtro.de() != null) where.add(cb.greaterThanOrEqualTo(criadoEm, filtro.de()));
+            if (filtro.ate() != null) where.add(cb.lessThan(criadoEm, filtro.ate()));
+        }
+
+        if (cursor != null) {
+            // (criadoEm, id) < (cursor.criadoEm, cursor.id)
+            // O "criadoEm <= cursor" redundante deixa o predicado usável como faixa no índice (empresa/cliente, criado_em)
+            where.add(cb.lessThanOrEqualTo(criadoEm, cursor.criadoEm()));
+            where.add(cb.or(
+                    cb.lessThan(criadoEm, cursor.criadoEm()),
+                    cb.and(cb.equal(criadoEm, cursor.criadoEm()), cb.lessThan(id, cursor.id()))));
+        }
+
+        query.select(cb.construct(PedidoResponse.class,
+                        id, p.get("descricao"), p.get("endereco"), p.get("valorTotal"), p.get("status"), criadoEm))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(criadoEm), cb.desc(id));
+
+        return em.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<PedidoParaAvanco> travarParaAvanco(Long empresaId, Collection<Long> ids, StatusPedido status, int limite) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PedidoDelivery> p = query.from(PedidoDelivery.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(p.get("empresa").get("id"), empresaId));
+        if (ids != null && !ids.isEmpty()) where.add(p.get("id").in(ids));
+        if (status != null) where.add(cb.equal(p.get("status"), status));
+
+        // cliente.id sai da própria coluna cliente_id, sem join: o PostgreSQL recusa FOR UPDATE
+        // no lado anulável de um LEFT JOIN, e só as linhas de pedidos_delivery precisam de trava
+        query.multiselect(p.get("id"), p.get("descricao"), p.get("endereco"), p.get("valorTotal"),
+                        p.get("status"), p.get("criadoEm"), p.get("cliente").get("id"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(p.get("id")));
+
+        return em.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limite)
+                .getResultStream()
+                .map(t -> {
+                    StatusPedido atual = t.get(4, StatusPedido.class);
+                    PedidoResponse pedido = new PedidoResponse(t.get(0, Long.class), t.get(1, String.class),
+                            t.get(2, String.class), t.get(3, BigDecimal.class), atual,
+                            t.get(5, LocalDateTime.class));
+                    return new PedidoParaAvanco(pedido, t.get(6, Long.class), atual);
+                })
+                .toList();
+    }
+
+    @Override
+    public int avancarStatusEmLote(Long empresaId, Collection<Long> ids) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<PedidoDelivery> update = cb.createCriteriaUpdate(PedidoDelivery.class);
+        Root<PedidoDelivery> p = update.from(PedidoDelivery.class);
+        Path<StatusPedido> status = p.get("status");
+
+        // case status when RECEBIDO then EM_PREPARO when EM_PREPARO then A_CAMINHO ... end
+        CriteriaBuilder.SimpleCase<StatusPedido, StatusPedido> proximo = cb.selectCase(status);
+        for (StatusPedido s : StatusPedido.values()) {
+            if (s != StatusPedido.ENTREGUE) proximo.when(s, s.proximo());
+        }
+
+        Path<Long> versao = p.get("versao");
+        update.set(status, proximo.otherwise(status))
+                .set(versao, cb.sum(versao, 1L))
+                .where(cb.equal(p.get("empresa").get("id"), empresaId),
+                        p.get("id").in(ids),
+                        cb.notEqual(status, StatusPedido.ENTREGUE));
+
+        return em.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Stream<LinhaExportacaoPedido> streamExportacao(Long empresaId, ExportacaoFiltro filtro, int fetchSize) {
+        Stream<LinhaExportacaoPedido> arquivo = exportacao(PedidoArquivado.class, empresaId, filtro, fetchSize);
+        Stream<LinhaExportacaoPedido> recentes = exportacao(PedidoDelivery.class, empresaId, filtro, fetchSize);
+        return mesclar(arquivo, recentes, ORDEM_EXPORTACAO);
+    }
+
+    private Stream<LinhaExportacaoPedido> exportacao(Class<?> origem, Long empresaId, ExportacaoFiltro filtro, int fetchSize) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<LinhaExportacaoPedido> query = cb.createQuery(LinhaExportacaoPedido.class);
+        Root<?> p = query.from(origem);
+        Join<Object, Object> cliente = p.join("cliente", JoinType.LEFT);
+        Path<LocalDateTime> criadoEm = p.get("criadoEm");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(p.get("empresa").get("id"), empresaId));
+        if (filtro.status() != null && !filtro.status().isEmpty()) where.add(p.get("status").in(filtro.status()));
+        if (filtro.de() != null) where.add(cb.greaterThanOrEqualTo(criadoEm, filtro.de()));
+        if (filtro.ate() != null) where.add(cb.lessThan(criadoEm, filtro.ate()));
+
+        query.select(cb.construct(LinhaExportacaoPedido.class,
+                        p.get("id"), criadoEm, p.get("status"), p.get("descricao"), p.get("endereco"),
+                        p.get("valorTotal"), cliente.get("nome"), cliente.get("email")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(criadoEm), cb.asc(p.get("id")));
+
+        return em.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Intercala dois streams já ordenados (merge de uma passada, sem materializar nenhum dos dois).
+     * Fechar o resultado fecha os dois cursores.
+     */
+    static <T> Stream<T> mesclar(Stream<T> a, Stream<T> b, Comparator<? super T> ordem) {
+        Iterator<T> ia = a.iterator();
+        Iterator<T> ib = b.iterator();
+        Iterator<T> mesclado = new Iterator<>() {
+            private T proximoA = ia.hasNext() ? ia.next() : null;
+            private T proximoB = ib.hasNext() ? ib.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return proximoA != null || proximoB != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                T atual;
+                if (proximoB == null || (proximoA != null && ordem.compare(proximoA, proximoB) <= 0)) {
+                    atual = proximoA;
+                    proximoA = ia.hasNext() ? ia.next() : null;
+                } else {
+                    atual = proximoB;
+                    proximoB = ib.hasNext() ? ib.next() : null;
+                }
+                return atual;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(mesclado, Spliterator.ORDERED), false)
+                .onClose(a::close)
+                .onClose(b::close);
+    }
+}
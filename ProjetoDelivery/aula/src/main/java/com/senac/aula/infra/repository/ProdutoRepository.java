@@ -1,11 +1,45 @@
 package com.senac.aula.infra.repository;
 
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.application.dto.restaurante.CategoriaEmpresa;
 import com.senac.aula.domain.model.Produto;
 import com.senac.aula.domain.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     // Busca produtos apenas da empresa logada
     List<Produto> findByEmpresa(Usuario empresa);
+
+    // Catálogo projetado direto no DTO (sem carregar entidades nem a empresa)
+    @Query("select new com.senac.aula.application.dto.produto.ProdutoResumo(p.id, p.nome, p.preco, p.categoria) " +
+            "from Produto p where p.empresa.id = :empresaId order by p.nome, p.id")
+    List<ProdutoResumo> findResumosByEmpresaId(@Param("empresaId") Long empresaId);
+
+    // Todos os produtos de um pedido numa única consulta, restrita ao cardápio da empresa
+    @Query("select new com.senac.aula.application.dto.produto.ProdutoResumo(p.id, p.nome, p.preco, p.categoria) " +
+            "from Produto p where p.empresa.id = :empresaId and p.id in :ids")
+    List<ProdutoResumo> findResumosByEmpresaIdAndIdIn(@Param("empresaId") Long empresaId,
+                                                      @Param("ids") Collection<Long> ids);
+
+    // Categorias distintas por empresa, para o índice de busca de restaurantes (carga completa)
+    @Query("select distinct new com.senac.aula.application.dto.restaurante.CategoriaEmpresa(p.empresa.id, p.categoria) " +
+            "from Produto p where p.categoria is not null")
+    List<CategoriaEmpresa> buscarCategorias();
+
+    @Query("select distinct p.categoria from Produto p where p.empresa.id = :empresaId and p.categoria is not null")
+    List<String> buscarCategoriasDaEmpresa(@Param("empresaId") Long empresaId);
+
+    // Exclusão num único DELETE filtrado pelo dono; 0 = inexistente ou de outra empresa.
+    // Itens de pedidos antigos ficam com produto_id nulo (snapshot de nome e preço preservado)
+    @Modifying
+    @Transactional
+    @Query("delete from Produto p where p.id = :id and p.empresa.id = :empresaId")
+    int excluirDaEmpresa(@Param("id") Long id, @Param("empresaId") Long empresaId);
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.senac.aula.infra.repository;
+
+import com.senac.aula.domain.model.ResumoVendasDiario;
+import com.senac.aula.domain.model.ResumoVendasDiarioId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumoVendasRepository extends JpaRepository<ResumoVendasDiario, ResumoVendasDiarioId> {
+
+    @Query("select r from ResumoVendasDiario r where r.id.empresaId = :empresaId " +
+            "and r.id.dia between :de and :ate")
+    List<ResumoVendasDiario> buscarPeriodo(@Param("empresaId") Long empresaId,
+                                           @Param("de") LocalDate de,
+                                           @Param("ate") LocalDate ate);
+
+    // Garante a linha (empresa, dia, status); concorrentes esperam o primeiro INSERT e não duplicam
+    @Modifying
+    @Query(value = "insert into resumo_vendas_diario (empresa_id, dia, status, quantidade, receita) " +
+            "values (:empresaId, :dia, :status, 0, 0) on conflict do nothing", nativeQuery = true)
+    int garantirLinha(@Param("empresaId") Long empresaId, @Param("dia") LocalDate dia, @Param("status") String status);
+
+    // Incremento atômico (trava só esta linha até o commit)
+    @Modifying
+    @Query(value = "update resumo_vendas_diario set quantidade = quantidade + :quantidade, receita = receita + :receita " +
+            "where empresa_id = :empresaId and dia = :dia and status = :status", nativeQuery = true)
+    int somar(@Param("empresaId") Long empresaId, @Param("dia") LocalDate dia, @Param("status") String status,
+              @Param("quantidade") long quantidade, @Param("receita") BigDecimal receita);
+
+    @Query(value = "select empresa_id from pedidos_delivery where empresa_id is not null " +
+            "union select empresa_id from pedidos_delivery_arquivo where empresa_id is not null " +
+            "union select empresa_id from resumo_vendas_diario", nativeQuery = true)
+    List<Long> empresasComMovimento();
+
+    @Modifying
+    @Query(value = "delete from resumo_vendas_diario where empresa_id = :empresaId", nativeQuery = true)
+    int apagarEmpresa(@Param("empresaId") Long empresaId);
+
+    // Recentes + arquivo frio: arquivar não muda o resumo
+    @Modifying
+    @Query(value = "insert into resumo_vendas_diario (empresa_id, dia, status, quantidade, receita) " +
+            "select empresa_id, cast(criado_em as date), status, count(*), coalesce(sum(valor_total), 0) " +
+            "from (select empresa_id, criado_em, status, valor_total from pedidos_delivery where empresa_id = :empresaId " +
+            "      union all " +
+            "      select empresa_id, criado_em, status, valor_total from pedidos_delivery_arquivo where empresa_id = :empresaId) p " +
+            "where status is not null " +
+            "group by empresa_id, cast(criado_em as date), status", nativeQuery = true)
+    int recalcularEmpresa(@Param("empresaId") Long empresaId);
+}
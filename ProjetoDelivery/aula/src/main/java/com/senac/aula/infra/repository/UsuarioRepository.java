@@ -1,7 +1,14 @@
 package com.senac.aula.infra.repository;
 
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
 import com.senac.aula.domain.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,4 +17,15 @@ import java.util.Optional;
  */
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
+
+    // Carga completa do índice de busca de restaurantes (BuscaRestaurantes)
+    @Query("select new com.senac.aula.application.dto.usuario.UsuarioResumo(u.id, u.nome, u.email, u.tipo) " +
+            "from Usuario u where u.tipo = com.senac.aula.domain.enums.TipoUsuario.EMPRESA")
+    List<UsuarioResumo> buscarRestaurantes();
+
+    // Rehash no login: só troca se a senha não mudou desde a leitura
+    @Modifying
+    @Transactional
+    @Query("update Usuario u set u.senha = :novoHash where u.id = :id and u.senha = :hashAtual")
+    int trocarHashSenha(@Param("id") Long id, @Param("hashAtual") String hashAtual, @Param("novoHash") String novoHash);
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import jakarta.validation.Valid; // Importante: adicionar esta anotação!
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -15,13 +17,14 @@ public class AuthController {
 
     private final AuthService authService;
 
+    // Cadastro e login são assíncronos: a resposta sai quando o BCrypt termina no executor de senhas
     @PostMapping("/register")
-    public void registrar(@RequestBody @Valid RegisterRequest req) { // Adicionado @Valid
-        authService.registrar(req);
+    public CompletableFuture<Void> registrar(@RequestBody @Valid RegisterRequest req) { // Adicionado @Valid
+        return authService.registrar(req);
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@RequestBody @Valid LoginRequest req) { // Adicionado @Valid
+    public CompletableFuture<LoginResponse> login(@RequestBody @Valid LoginRequest req) { // Adicionado @Valid
         return authService.login(req);
     }
 }
\ No newline at end of file
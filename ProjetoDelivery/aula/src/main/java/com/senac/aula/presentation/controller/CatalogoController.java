@@ -0,0 +1,35 @@
+package com.senac.aula.presentation.controller;
+
+import com.senac.aula.infra.cache.CatalogoCache;
+import com.senac.aula.infra.cache.VersoesListagem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Catálogo de um restaurante visto pelo cliente (somente leitura, servido do CatalogoCache).
+ */
+@RestController
+@RequestMapping("/catalogo")
+@RequiredArgsConstructor
+public class CatalogoController {
+
+    private final CatalogoCache catalogoCache;
+    private final VersoesListagem versoesListagem;
+
+    @GetMapping("/{empresaId}")
+    public ResponseEntity<byte[]> catalogo(@PathVariable Long empresaId, WebRequest request) {
+        String etag = versoesListagem.etagProdutos(empresaId);
+        if (versoesListagem.naoModificado(request, etag, VersoesListagem.Listagem.CATALOGO)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogoCache.buscar(empresaId).json());
+    }
+}
@@ -0,0 +1,38 @@
+package com.senac.aula.presentation.controller;
+
+import com.senac.aula.application.dto.despacho.AtribuicaoResponse;
+import com.senac.aula.application.dto.despacho.PosicaoRequest;
+import com.senac.aula.application.service.DespachoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/entregadores")
+@RequiredArgsConstructor
+public class EntregadorController {
+
+    private final DespachoService despachoService;
+
+    // Fica disponível para o despacho (ou atualiza a posição); o app chama periodicamente
+    @PutMapping("/disponibilidade")
+    public ResponseEntity<Void> ficarDisponivel(@Valid @RequestBody PosicaoRequest req) {
+        despachoService.ficarDisponivel(req);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/disponibilidade")
+    public ResponseEntity<Void> ficarIndisponivel() {
+        despachoService.ficarIndisponivel();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Entrega atual do entregador (204 enquanto nenhum pedido foi atribuído)
+    @GetMapping("/atribuicao")
+    public ResponseEntity<AtribuicaoResponse> atribuicao() {
+        return despachoService.atribuicaoAtual()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
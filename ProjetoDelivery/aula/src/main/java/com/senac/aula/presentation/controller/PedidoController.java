@@ -1,15 +1,42 @@
 package com.senac.aula.presentation.controller;
 
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.FormatoExportacao;
+import com.senac.aula.application.dto.pedido.PaginaPedidos;
+import com.senac.aula.application.dto.pedido.PedidoFiltro;
 import com.senac.aula.application.dto.pedido.PedidoRequest;
 import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.application.dto.pedido.ResultadoAvanco;
+import com.senac.aula.application.dto.pedido.ResumoVendas;
+import com.senac.aula.application.service.ExportacaoPedidosService;
 import com.senac.aula.application.service.PedidoService;
+import com.senac.aula.application.service.PedidoStreamService;
+import com.senac.aula.application.service.ResumoVendasService;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.infra.cache.IdempotenciaPedidos;
+import com.senac.aula.infra.cache.VersoesListagem;
+import com.senac.aula.security.UsuarioAutenticado;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/pedidos") // Removido prefixo /empresa para ser genérico
@@ -17,16 +44,94 @@ import java.util.List;
 // @PreAuthorize REMOVIDO: A segurança agora é feita dentro do Service (Regra de Negócio)
 public class PedidoController {
 
+    // Header com o token da próxima página (ausente na última página)
+    public static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
     private final PedidoService pedidoService;
+    private final PedidoStreamService pedidoStreamService;
+    private final ExportacaoPedidosService exportacaoPedidosService;
+    private final ResumoVendasService resumoVendasService;
+    private final VersoesListagem versoesListagem;
+    private final IdempotenciaPedidos idempotenciaPedidos;
 
+    // Com Idempotency-Key, repetições (retry/hedge do app) devolvem o pedido já criado
     @PostMapping
-    public ResponseEntity<PedidoResponse> criar(@RequestBody @Valid PedidoRequest req) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoService.criarPedido(req));
+    public ResponseEntity<PedidoResponse> criar(
+            @RequestBody @Valid PedidoRequest req,
+            @RequestHeader(value = IdempotenciaPedidos.HEADER_CHAVE, required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(pedidoService.criarPedido(req));
+        }
+        IdempotenciaPedidos.Resultado resultado = idempotenciaPedidos.executar(
+                UsuarioAutenticado.atual().id(), chaveIdempotencia, req, () -> pedidoService.criarPedido(req));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotenciaPedidos.HEADER_REPETIDO, String.valueOf(resultado.repetido()))
+                .body(resultado.pedido());
     }
 
+    // O corpo continua sendo a lista (compatível com o front); o cursor vai no header.
+    // Refresh sem mudanças: If-None-Match bate com o carimbo em memória e volta 304 sem consulta
     @GetMapping
-    public ResponseEntity<List<PedidoResponse>> listar() {
-        return ResponseEntity.ok(pedidoService.listarPedidos());
+    public ResponseEntity<List<PedidoResponse>> listar(
+            @RequestParam(required = false) StatusPedido status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            // Inclui o histórico arquivado (pedidos entregues antigos); por padrão só os recentes
+            @RequestParam(defaultValue = "false") boolean arquivados,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        // Carimbo lido ANTES da consulta: uma mudança concorrente sempre gera um ETag novo depois
+        String etag = versoesListagem.etagPedidos(UsuarioAutenticado.atual(), request.getQueryString());
+        if (versoesListagem.naoModificado(webRequest, etag, VersoesListagem.Listagem.PEDIDOS)) {
+            return null;
+        }
+        PaginaPedidos pagina = pedidoService.listarPedidos(new PedidoFiltro(status, de, ate, arquivados), cursor, limite);
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (pagina.proximoCursor() != null) {
+            resposta.header(HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.itens());
+    }
+
+    // Push das mudanças de pedidos (empresa: pedidos do restaurante / cliente: os próprios pedidos)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return pedidoStreamService.assinar(UsuarioAutenticado.atual(), lastEventId);
+    }
+
+    // Painel da empresa: pedidos e receita por dia e status, lidos só do resumo (padrão: hoje)
+    @GetMapping("/resumo")
+    public ResponseEntity<ResumoVendas> resumo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(resumoVendasService.consultar(de, ate));
+    }
+
+    // Histórico completo para contabilidade (empresa), em streaming: ?formato=csv|ndjson&status=...&de=...&ate=...
+    @GetMapping("/exportar")
+    public void exportar(
+            @RequestParam(name = "formato", defaultValue = "csv") String formatoParam,
+            @RequestParam(required = false) Set<StatusPedido> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            HttpServletResponse response) throws IOException {
+        FormatoExportacao formato = FormatoExportacao.de(formatoParam);
+        exportacaoPedidosService.exportar(new ExportacaoFiltro(status, de, ate), formato, () -> {
+            response.setContentType(formato.contentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"pedidos." + formato.extensao() + "\"");
+            try {
+                return response.getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @PutMapping("/{id}")
@@ -39,6 +144,12 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoService.avancarStatus(id));
     }
 
+    // Avanço em lote: {"ids": [...]} e/ou {"status": "EM_PREPARO"}; resultado por pedido
+    @PutMapping("/avancar")
+    public ResponseEntity<List<ResultadoAvanco>> avancarLote(@RequestBody AvancarLoteRequest req) {
+        return ResponseEntity.ok(pedidoService.avancarStatusEmLote(req));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         pedidoService.excluirPedido(id);
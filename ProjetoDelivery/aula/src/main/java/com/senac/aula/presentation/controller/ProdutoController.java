@@ -1,15 +1,30 @@
 package com.senac.aula.presentation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.aula.application.dto.produto.EventoImportacao;
+import com.senac.aula.application.dto.produto.ProdutoResumo;
+import com.senac.aula.application.service.ImportacaoProdutosService;
 import com.senac.aula.domain.model.Produto;
 import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.infra.cache.CatalogoCache;
+import com.senac.aula.infra.cache.VersoesListagem;
 import com.senac.aula.infra.repository.ProdutoRepository;
 import com.senac.aula.infra.repository.UsuarioRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/empresa/produtos")
@@ -18,34 +33,75 @@ public class ProdutoController {
 
     private final ProdutoRepository produtoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final CatalogoCache catalogoCache;
+    private final VersoesListagem versoesListagem;
+    private final ImportacaoProdutosService importacaoProdutosService;
+    private final ObjectMapper objectMapper;
 
-    // Helper para pegar empresa logada
+    // Helper para pegar empresa logada (referência pelo id do JWT, sem SELECT)
     private Usuario getEmpresaLogada() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Empresa não encontrada"));
+        return usuarioRepository.getReferenceById(UsuarioAutenticado.atual().id());
     }
 
+    // Servido do cache: o JSON já está pronto, sem consulta nem serialização.
+    // If-None-Match com o ETag atual = 304 sem nem olhar o cache do catálogo
     @GetMapping
-    public List<Produto> listar() {
-        return produtoRepository.findByEmpresa(getEmpresaLogada());
+    public ResponseEntity<byte[]> listar(WebRequest request) {
+        Long empresaId = UsuarioAutenticado.atual().id();
+        String etag = versoesListagem.etagProdutos(empresaId);
+        if (versoesListagem.naoModificado(request, etag, VersoesListagem.Listagem.PRODUTOS)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogoCache.buscar(empresaId).json());
     }
 
     @PostMapping
-    public Produto criar(@RequestBody Produto produto) {
-        produto.setEmpresa(getEmpresaLogada());
-        return produtoRepository.save(produto);
+    public ProdutoResumo criar(@RequestBody Produto produto) {
+        Usuario empresa = getEmpresaLogada();
+        produto.setEmpresa(empresa);
+        Produto salvo = produtoRepository.save(produto);
+        catalogoCache.invalidar(empresa.getId());
+        return new ProdutoResumo(salvo.getId(), salvo.getNome(), salvo.getPreco(), salvo.getCategoria());
+    }
+
+    /**
+     * Importação em massa: corpo text/csv (UTF-8) com cabeçalho nome,preco,categoria.
+     * O corpo é lido em streaming e a resposta é NDJSON (application/x-ndjson), um evento por linha:
+     * erros por linha, progresso a cada lote gravado e o resumo no final.
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public void importar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long empresaId = UsuarioAutenticado.atual().id();
+        InputStreamReader csv = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream saida = response.getOutputStream();
+        importacaoProdutosService.importar(empresaId, csv, evento -> escrever(saida, evento));
+    }
+
+    private void escrever(OutputStream saida, EventoImportacao evento) {
+        try {
+            saida.write(objectMapper.writeValueAsBytes(evento));
+            saida.write('\n');
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletar(@PathVariable Long id) {
-        Produto produto = produtoRepository.findById(id).orElse(null);
-        Usuario empresa = getEmpresaLogada();
+        Long empresaId = UsuarioAutenticado.atual().id();
 
-        // Segurança: Garante que o produto pertence a quem está tentando apagar
-        if (produto != null && produto.getEmpresa().getId().equals(empresa.getId())) {
-            produtoRepository.delete(produto);
+        // Segurança: o DELETE só casa se o produto pertence a quem está tentando apagar
+        if (produtoRepository.excluirDaEmpresa(id, empresaId) > 0) {
+            catalogoCache.invalidar(empresaId);
         }
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.senac.aula.presentation.controller;
+
+import com.senac.aula.application.dto.restaurante.RestauranteResumo;
+import com.senac.aula.infra.busca.BuscaRestaurantes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Descoberta de restaurantes: busca por prefixo no nome e nas categorias do cardápio
+ * (autocomplete). O id devolvido é o empresaId do PedidoRequest.
+ */
+@RestController
+@RequestMapping("/restaurantes")
+@RequiredArgsConstructor
+public class RestauranteController {
+
+    static final int LIMITE_PADRAO = 10;
+    static final int LIMITE_MAXIMO = 50;
+
+    private final BuscaRestaurantes buscaRestaurantes;
+
+    @GetMapping
+    public List<RestauranteResumo> buscar(@RequestParam(name = "q", required = false) String consulta,
+                                          @RequestParam(required = false) Integer limite) {
+        int tamanho = (limite == null || limite <= 0) ? LIMITE_PADRAO : Math.min(limite, LIMITE_MAXIMO);
+        return buscaRestaurantes.buscar(consulta, tamanho);
+    }
+}
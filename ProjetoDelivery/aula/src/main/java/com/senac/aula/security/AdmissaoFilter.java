@@ -0,0 +1,113 @@
+package com.senac.aula.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle de admissão por principal, logo depois do JwtAuthenticationFilter.
+ *
+ * Observações:
+ * - Empresa: um balde por empresa (id do JWT), compartilhado por todos os dispositivos do restaurante.
+ * - Cliente: um balde por usuário.
+ * - Requisições anônimas passam direto (login já é limitado pelo executor de senhas).
+ * - Estourou o balde: 429 com Retry-After (segundos), sem chegar no controller nem no banco.
+ *
+ * Métricas:
+ * - delivery.admissao.rejeitadas{tipo}: empresa, cliente
+ * - delivery.admissao.baldes{tipo}: chaves ativas em memória
+ */
+@Component
+public class AdmissaoFilter extends OncePerRequestFilter {
+
+    private final boolean habilitado;
+    private final LimitadorTaxa porEmpresa;
+    private final LimitadorTaxa porCliente;
+    private final Counter rejeitadasEmpresa;
+    private final Counter rejeitadasCliente;
+    private final ObjectMapper objectMapper;
+
+    public AdmissaoFilter(MeterRegistry meterRegistry,
+                          ObjectMapper objectMapper,
+                          @Value("${admissao.habilitado:true}") boolean habilitado,
+                          @Value("${admissao.empresa.capacidade:200}") int capacidadeEmpresa,
+                          @Value("${admissao.empresa.por-segundo:50}") double taxaEmpresa,
+                          @Value("${admissao.cliente.capacidade:40}") int capacidadeCliente,
+                          @Value("${admissao.cliente.por-segundo:10}") double taxaCliente,
+                          @Value("${admissao.maximo-chaves:100000}") long maximoChaves) {
+        this.habilitado = habilitado;
+        this.objectMapper = objectMapper;
+        this.porEmpresa = new LimitadorTaxa(capacidadeEmpresa, taxaEmpresa, maximoChaves);
+        this.porCliente = new LimitadorTaxa(capacidadeCliente, taxaCliente, maximoChaves);
+        this.rejeitadasEmpresa = contador(meterRegistry, "empresa");
+        this.rejeitadasCliente = contador(meterRegistry, "cliente");
+
+        Gauge.builder("delivery.admissao.baldes", porEmpresa, LimitadorTaxa::getChaves)
+                .tag("tipo", "empresa")
+                .description("Baldes de admissão ativos")
+                .register(meterRegistry);
+        Gauge.builder("delivery.admissao.baldes", porCliente, LimitadorTaxa::getChaves)
+                .tag("tipo", "cliente")
+                .description("Baldes de admissão ativos")
+                .register(meterRegistry);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String tipo) {
+        return Counter.builder("delivery.admissao.rejeitadas")
+                .tag("tipo", tipo)
+                .description("Requisições recusadas com 429 pelo controle de admissão")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof UsuarioAutenticado usuario)) {
+            filterChain.doFilter(req, res);
+            return;
+        }
+
+        long esperaNanos = usuario.isEmpresa() ? porEmpresa.tentar(usuario.id()) : porCliente.tentar(usuario.id());
+        if (esperaNanos == 0) {
+            filterChain.doFilter(req, res);
+            return;
+        }
+
+        (usuario.isEmpresa() ? rejeitadasEmpresa : rejeitadasCliente).increment();
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.setCharacterEncoding("UTF-8");
+        // Mesmo formato do GlobalExceptionHandler
+        objectMapper.writeValue(res.getOutputStream(), Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "error", "Muitas requisições. Tente novamente em " + segundos + " s."
+        ));
+    }
+}
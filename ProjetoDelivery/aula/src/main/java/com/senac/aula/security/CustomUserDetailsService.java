@@ -1,23 +0,0 @@
-package com.senac.aula.security;
-
-import com.senac.aula.infra.repository.UsuarioRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.*;
-import org.springframework.stereotype.Service;
-
-/**
- * UserDetailsService para carregar Usuario do banco usando email (username).
- * Retornamos o objeto Usuario (que implementa UserDetails).
- */
-@Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
-
-    private final UsuarioRepository usuarioRepository;
-
-    @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
-    }
-}
\ No newline at end of file
@@ -1,21 +1,63 @@
 package com.senac.aula.security;
 
-import com.senac.aula.infra.repository.UsuarioRepository;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-@RequiredArgsConstructor
+/**
+ * Autentica a requisição a partir do Bearer token.
+ * O principal (UsuarioAutenticado) vem das claims do JWT, sem consulta ao banco.
+ *
+ * Métricas:
+ * - delivery.jwt.verificacoes{resultado}: valido, expirado, assinatura_invalida, invalido
+ * - delivery.jwt.cache{resultado}: hit/miss do cache de tokens verificados do JwtService
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UsuarioRepository usuarioRepository;
+
+    private final Counter validos;
+    private final Counter expirados;
+    private final Counter assinaturaInvalida;
+    private final Counter invalidos;
+
+    public JwtAuthenticationFilter(JwtService jwtService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.validos = contador(meterRegistry, "valido");
+        this.expirados = contador(meterRegistry, "expirado");
+        this.assinaturaInvalida = contador(meterRegistry, "assinatura_invalida");
+        this.invalidos = contador(meterRegistry, "invalido");
+
+        FunctionCounter.builder("delivery.jwt.cache", jwtService, JwtService::getCacheHits)
+                .tag("resultado", "hit")
+                .description("Tokens atendidos pelo cache de tokens verificados")
+                .register(meterRegistry);
+        FunctionCounter.builder("delivery.jwt.cache", jwtService, JwtService::getCacheMisses)
+                .tag("resultado", "miss")
+                .description("Tokens que precisaram de verificação completa (HMAC)")
+                .register(meterRegistry);
+        Gauge.builder("delivery.jwt.cache.tamanho", jwtService, JwtService::getCacheTamanho)
+                .description("Entradas no cache de tokens verificados")
+                .register(meterRegistry);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("delivery.jwt.verificacoes")
+                .tag("resultado", resultado)
+                .description("Resultado da verificação do Bearer token")
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req,
@@ -30,17 +72,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.replace("Bearer ", "");
-
-        String email = jwtService.extrairEmail(token);
+        String token = authHeader.substring("Bearer ".length());
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails user = usuarioRepository.findByEmail(email).orElse(null);
-            if (user != null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                UsuarioAutenticado usuario = jwtService.extrairUsuario(token);
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities());
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
+                validos.increment();
+            } catch (TokenExpiredException e) {
+                expirados.increment();
+            } catch (SignatureVerificationException e) {
+                assinaturaInvalida.increment();
+            } catch (JWTVerificationException e) {
+                // Token inválido/expirado: segue sem autenticação (Spring Security responde 401/403)
+                invalidos.increment();
             }
         }
 
@@ -1,50 +1,108 @@
 package com.senac.aula.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.senac.aula.domain.enums.TipoUsuario;
 import com.senac.aula.domain.model.Usuario;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Emissão e verificação de tokens JWT.
+ *
+ * Observações:
+ * - Algorithm e JWTVerifier são criados uma única vez (são thread-safe).
+ * - Tokens já verificados ficam num cache limitado, chaveado pelo SHA-256 do token.
+ *   Cada entrada expira no máximo no "exp" do próprio token (ou antes, pelo ttl-maximo).
+ * - jwt.cache.tamanho-maximo=0 desativa o cache.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String ISSUER = "senac-api";
 
-    // Alterado para 'jwt.expiration' conforme seu application.properties e o nome mais comum
-    @Value("${jwt.expiration:86400000}") // Default de 24h em milissegundos, caso não configurado
-    private long expiracaoMilisegundos;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final long expiracaoMilisegundos;
+    private final Cache<ByteBuffer, TokenVerificado> tokensVerificados;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      // Default de 24h em milissegundos, caso não configurado
+                      @Value("${jwt.expiration:86400000}") long expiracaoMilisegundos,
+                      @Value("${jwt.cache.tamanho-maximo:50000}") long tamanhoMaximoCache,
+                      @Value("${jwt.cache.ttl-maximo:5m}") Duration ttlMaximoCache) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.expiracaoMilisegundos = expiracaoMilisegundos;
+        this.tokensVerificados = tamanhoMaximoCache > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(tamanhoMaximoCache)
+                        .expireAfter(new ExpiraNoExp(ttlMaximoCache))
+                        .build()
+                : null;
+    }
 
     /**
      * Gera token JWT com dados básicos do usuário.
      */
     public String gerarToken(Usuario usuario) {
-        Algorithm alg = Algorithm.HMAC256(secret);
-
         return JWT.create()
-                .withIssuer("senac-api")
+                .withIssuer(ISSUER)
                 .withSubject(usuario.getEmail())
                 .withClaim("id", usuario.getId())
                 .withClaim("tipo", usuario.getTipo().name())
                 .withIssuedAt(new Date())
                 // Usando a nova propriedade de expiração em milissegundos
                 .withExpiresAt(new Date(System.currentTimeMillis() + expiracaoMilisegundos))
-                .sign(alg);
+                .sign(algorithm);
     }
 
     /**
      * Extrai o email (subject) do token.
      */
     public String extrairEmail(String token) {
-        Algorithm alg = Algorithm.HMAC256(secret);
-        return JWT.require(alg)
-                .withIssuer("senac-api")
-                .build()
-                .verify(token)
-                .getSubject();
+        return extrairUsuario(token).email();
+    }
+
+    /**
+     * Monta o principal a partir das claims "id" e "tipo" emitidas em gerarToken.
+     * Consulta primeiro o cache de tokens verificados; na falta, verifica a assinatura.
+     */
+    public UsuarioAutenticado extrairUsuario(String token) {
+        if (tokensVerificados == null) {
+            return verificar(token).usuario();
+        }
+
+        ByteBuffer chave = digest(token);
+        TokenVerificado verificado = tokensVerificados.getIfPresent(chave);
+        if (verificado != null && verificado.expiraEmMillis() > System.currentTimeMillis()) {
+            cacheHits.increment();
+            return verificado.usuario();
+        }
+
+        cacheMisses.increment();
+        verificado = verificar(token);
+        tokensVerificados.put(chave, verificado);
+        return verificado.usuario();
     }
 
     /**
@@ -52,11 +110,69 @@ public class JwtService {
      */
     public boolean tokenValido(String token) {
         try {
-            extrairEmail(token); // Tenta extrair. Se houver erro (expiração, assinatura inválida), lança exceção.
+            extrairUsuario(token); // Tenta extrair. Se houver erro (expiração, assinatura inválida), lança exceção.
             return true;
         } catch (Exception e) {
             // Logar a exceção aqui seria útil para debug, mas para o método, basta retornar false.
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getCacheTamanho() {
+        return tokensVerificados != null ? tokensVerificados.estimatedSize() : 0;
+    }
+
+    private TokenVerificado verificar(String token) {
+        DecodedJWT jwt = verifier.verify(token);
+        Long id = jwt.getClaim("id").asLong();
+        String tipo = jwt.getClaim("tipo").asString();
+        if (id == null || tipo == null || jwt.getExpiresAt() == null) {
+            throw new JWTVerificationException("Token sem as claims id/tipo/exp");
+        }
+        try {
+            UsuarioAutenticado usuario = new UsuarioAutenticado(id, jwt.getSubject(), TipoUsuario.valueOf(tipo));
+            return new TokenVerificado(usuario, jwt.getExpiresAt().getTime());
+        } catch (IllegalArgumentException e) {
+            throw new JWTVerificationException("Tipo de usuário inválido no token");
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record TokenVerificado(UsuarioAutenticado usuario, long expiraEmMillis) {}
+
+    /** Expira a entrada no "exp" do token, limitado pelo ttl máximo configurado. */
+    private record ExpiraNoExp(Duration ttlMaximo) implements Expiry<ByteBuffer, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer chave, TokenVerificado valor, long agoraNanos) {
+            long restante = Duration.ofMillis(valor.expiraEmMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(restante, ttlMaximo.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer chave, TokenVerificado valor, long agoraNanos, long duracaoAtual) {
+            return expireAfterCreate(chave, valor, agoraNanos);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer chave, TokenVerificado valor, long agoraNanos, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
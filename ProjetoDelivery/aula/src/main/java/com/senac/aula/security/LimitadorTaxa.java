@@ -0,0 +1,65 @@
+package com.senac.aula.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por chave, sem locks (GCRA: "theoretical arrival time").
+ *
+ * Observações:
+ * - Cada chave guarda um único AtomicLong: o instante em que o balde estaria cheio de novo.
+ *   Admitir = um compareAndSet; não há thread de reposição nem lock por chave.
+ * - Equivale a um balde de "capacidade" fichas, repostas a "porSegundo" fichas por segundo.
+ * - Chaves paradas somem do cache (um balde parado por mais que o tempo de encher está cheio,
+ *   então descartá-lo não muda o comportamento).
+ */
+public class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final long origem = System.nanoTime();
+    private final Cache<Long, AtomicLong> baldes;
+
+    public LimitadorTaxa(int capacidade, double porSegundo, long maximoChaves) {
+        if (capacidade < 1 || porSegundo <= 0) {
+            throw new IllegalArgumentException("capacidade e porSegundo devem ser positivos");
+        }
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000L / porSegundo));
+        this.toleranciaNanos = intervaloNanos * capacidade;
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterAccess(Duration.ofNanos(Math.max(toleranciaNanos, Duration.ofMinutes(1).toNanos())))
+                .build();
+    }
+
+    /**
+     * Consome uma ficha da chave.
+     *
+     * @return 0 se admitido; senão, nanos até haver ficha disponível
+     */
+    public long tentar(Long chave) {
+        return tentar(chave, System.nanoTime() - origem);
+    }
+
+    long tentar(Long chave, long agora) {
+        AtomicLong tat = baldes.get(chave, c -> new AtomicLong(agora));
+        while (true) {
+            long atual = tat.get();
+            long proximo = Math.max(atual, agora) + intervaloNanos;
+            long excesso = proximo - agora - toleranciaNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (tat.compareAndSet(atual, proximo)) {
+                return 0;
+            }
+        }
+    }
+
+    public long getChaves() {
+        return baldes.estimatedSize();
+    }
+}
@@ -0,0 +1,58 @@
+package com.senac.aula.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hash e verificação de senhas (BCrypt) fora das threads de requisição.
+ *
+ * Observações:
+ * - Todo BCrypt roda no senhaExecutor (limitado): um pico de logins ocupa no máximo
+ *   seguranca.senha.threads núcleos, e o restante da CPU continua atendendo pedidos.
+ * - Fila cheia = TaskRejectedException (503 no GlobalExceptionHandler) em vez de enfileirar sem limite.
+ * - precisaRehash compara o custo gravado no hash com o configurado (nos dois sentidos).
+ */
+@Service
+public class SenhaService {
+
+    private static final Pattern CUSTO_BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final Executor senhaExecutor;
+    private final int custo;
+    private final String hashFicticio;
+
+    public SenhaService(PasswordEncoder passwordEncoder,
+                        @Qualifier("senhaExecutor") Executor senhaExecutor,
+                        @Value("${seguranca.senha.custo-bcrypt:10}") int custo) {
+        this.passwordEncoder = passwordEncoder;
+        this.senhaExecutor = senhaExecutor;
+        this.custo = custo;
+        // Comparado quando o email não existe: a resposta leva o mesmo tempo de uma senha errada
+        this.hashFicticio = passwordEncoder.encode("senha-ficticia-para-email-inexistente");
+    }
+
+    public CompletableFuture<String> gerarHash(String senha) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(senha), senhaExecutor);
+    }
+
+    /** hash null (usuário inexistente) é comparado com o hash fictício e sempre resulta em false. */
+    public CompletableFuture<Boolean> confere(String senha, String hash) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean confere = passwordEncoder.matches(senha, hash != null ? hash : hashFicticio);
+            return confere && hash != null;
+        }, senhaExecutor);
+    }
+
+    public boolean precisaRehash(String hash) {
+        Matcher matcher = CUSTO_BCRYPT.matcher(hash);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != custo;
+    }
+}
@@ -0,0 +1,50 @@
+package com.senac.aula.security;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.exception.BusinessException;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * Principal leve montado a partir das claims do JWT (sub, id e tipo).
+ *
+ * Observações:
+ * - Não é uma entidade: nenhuma consulta ao banco é feita para autenticar a requisição.
+ * - getName() devolve o email, mantendo compatível o uso de Authentication.getName().
+ */
+public record UsuarioAutenticado(Long id, String email, TipoUsuario tipo) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isEmpresa() {
+        return tipo == TipoUsuario.EMPRESA;
+    }
+
+    public boolean isEntregador() {
+        return tipo == TipoUsuario.ENTREGADOR;
+    }
+
+    /** Mesma convenção de Usuario.getAuthorities(): ROLE_CLIENTE, ROLE_EMPRESA ou ROLE_ENTREGADOR. */
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + tipo.name()));
+    }
+
+    /**
+     * Recupera o usuário autenticado da requisição atual.
+     */
+    public static UsuarioAutenticado atual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof UsuarioAutenticado usuario)) {
+            throw new BusinessException("Usuário não encontrado.");
+        }
+        return usuario;
+    }
+}
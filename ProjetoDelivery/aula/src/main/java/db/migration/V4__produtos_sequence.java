@@ -0,0 +1,43 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Troca o id de produtos de IDENTITY para sequence (incremento 50 = allocationSize do Produto),
+ * o que permite ao Hibernate agrupar os INSERTs em lote (importação de catálogo).
+ *
+ * Migração em Java porque o início da sequence depende dos ids já existentes e o H2 dos testes
+ * não tem setval(). O início fica em max(id) + 50: o otimizador pooled do Hibernate usa a faixa
+ * (valor - 49 .. valor), que assim começa logo depois do maior id atual.
+ * INSERTs manuais (sem id) continuam funcionando pelo default nextval.
+ *
+ * O id vem da V1 como bigserial: no PostgreSQL é um default nextval (troca-se o default);
+ * no H2 o bigserial vira coluna IDENTITY, que precisa ser removida antes.
+ */
+public class V4__produtos_sequence extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maiorId;
+            try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from produtos")) {
+                rs.next();
+                maiorId = rs.getLong(1);
+            }
+            statement.execute("create sequence produtos_seq start with " + (maiorId + 50) + " increment by 50");
+            boolean identity;
+            try (ResultSet rs = statement.executeQuery("select is_identity from information_schema.columns " +
+                    "where table_name = 'produtos' and column_name = 'id'")) {
+                identity = rs.next() && "YES".equalsIgnoreCase(rs.getString(1));
+            }
+            if (identity) {
+                statement.execute("alter table produtos alter column id drop identity");
+            }
+            statement.execute("alter table produtos alter column id set default nextval('produtos_seq')");
+        }
+    }
+}
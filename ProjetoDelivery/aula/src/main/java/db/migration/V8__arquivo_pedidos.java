@@ -0,0 +1,65 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+/**
+ * Arquivo frio dos pedidos entregues (ArquivamentoPedidosService): pedidos_delivery_arquivo
+ * e itens_pedido_arquivo, sem FKs (só recebem cópias feitas pelo job).
+ *
+ * No PostgreSQL o arquivo é particionado por mês de criado_em (a PK inclui criado_em, como exige
+ * o particionamento); as partições mensais são criadas pelo job antes de cada cópia, sem partição
+ * default. Migração em Java porque o H2 dos testes não tem "partition by": lá a tabela é comum.
+ */
+public class V8__arquivo_pedidos extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        boolean postgres = "PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("""
+                    create table pedidos_delivery_arquivo (
+                        id            bigint         not null,
+                        descricao     varchar(255)   not null,
+                        endereco      varchar(255)   not null,
+                        valor_total   numeric(38, 2),
+                        status        varchar(255),
+                        criado_em     timestamp(6)   not null,
+                        empresa_id    bigint,
+                        cliente_id    bigint,
+                        latitude      double precision,
+                        longitude     double precision,
+                        entregador_id bigint,
+                        atribuido_em  timestamp(6),
+                        versao        bigint         not null,
+                        arquivado_em  timestamp(6)   not null,
+                        primary key (id, criado_em)
+                    )""" + (postgres ? " partition by range (criado_em)" : ""));
+            // Mesmos índices de listagem da V2 (no PostgreSQL, replicados em cada partição)
+            statement.execute("create index idx_pedidos_arquivo_empresa_criado_em " +
+                    "on pedidos_delivery_arquivo (empresa_id, criado_em desc, id desc)");
+            statement.execute("create index idx_pedidos_arquivo_cliente_criado_em " +
+                    "on pedidos_delivery_arquivo (cliente_id, criado_em desc, id desc)");
+
+            statement.execute("""
+                    create table itens_pedido_arquivo (
+                        id             bigint         primary key,
+                        pedido_id      bigint         not null,
+                        produto_id     bigint,
+                        nome_produto   varchar(255)   not null,
+                        preco_unitario numeric(38, 2) not null,
+                        quantidade     integer        not null
+                    )""");
+            statement.execute("create index idx_itens_pedido_arquivo_pedido on itens_pedido_arquivo (pedido_id)");
+
+            // ArquivamentoPedidosService: where status = 'ENTREGUE' and criado_em < ?. Índice parcial (só
+            // PostgreSQL): um (status, criado_em) comum concorreria com os índices da listagem no planner
+            if (postgres) {
+                statement.execute("create index idx_pedidos_entregues_criado_em on pedidos_delivery (criado_em) " +
+                        "where status = 'ENTREGUE'");
+            }
+        }
+    }
+}
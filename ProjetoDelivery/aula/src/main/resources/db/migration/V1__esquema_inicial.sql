@@ -0,0 +1,46 @@
+-- ===============================================
+-- Esquema inicial: exatamente o que o ddl-auto=update (Hibernate 6, PostgreSQLDialect) gerava
+-- Bancos já existentes são marcados nesta versão (baseline) e não rodam este script;
+-- por isso nada que veio depois entra aqui. Os nomes das constraints são os que o
+-- PostgreSQL/Hibernate deram a esses bancos, para as migrações seguintes valerem nos dois casos.
+-- Compatível com PostgreSQL e com H2 em modo PostgreSQL (testes)
+-- ===============================================
+
+create table usuarios (
+    id    bigserial    not null,
+    cpf   varchar(20),
+    cnpj  varchar(30),
+    email varchar(255) not null,
+    nome  varchar(255) not null,
+    senha varchar(255) not null,
+    tipo  varchar(255) not null,
+    primary key (id),
+    constraint usuarios_email_key unique (email),
+    constraint usuarios_tipo_check check (tipo in ('CLIENTE', 'EMPRESA'))
+);
+
+create table produtos (
+    preco      numeric(38, 2) not null,
+    empresa_id bigint,
+    id         bigserial      not null,
+    categoria  varchar(255),
+    nome       varchar(255)   not null,
+    primary key (id)
+);
+
+create table pedidos_delivery (
+    valor_total numeric(38, 2),
+    cliente_id  bigint,
+    criado_em   timestamp(6) not null,
+    empresa_id  bigint,
+    id          bigserial    not null,
+    descricao   varchar(255) not null,
+    endereco    varchar(255) not null,
+    status      varchar(255),
+    primary key (id),
+    constraint pedidos_delivery_status_check check (status in ('RECEBIDO', 'EM_PREPARO', 'A_CAMINHO', 'ENTREGUE'))
+);
+
+alter table pedidos_delivery add constraint fke4hehsol7dvp7v6o0wgff1eua foreign key (cliente_id) references usuarios (id);
+alter table pedidos_delivery add constraint fkrorct5dqpsmceuphj3jox5gxi foreign key (empresa_id) references usuarios (id);
+alter table produtos add constraint fkpuucmsk1a63u36jbbmws60l9a foreign key (empresa_id) references usuarios (id);
@@ -0,0 +1,14 @@
+-- ===============================================
+-- Índices guiados pelos acessos dos repositórios
+-- ===============================================
+
+-- PedidoRepository.buscarPagina / findByEmpresa: where empresa_id = ? order by criado_em desc, id desc
+create index idx_pedidos_empresa_criado_em on pedidos_delivery (empresa_id, criado_em desc, id desc);
+
+-- PedidoRepository.buscarPagina / findByCliente: where cliente_id = ? order by criado_em desc, id desc
+create index idx_pedidos_cliente_criado_em on pedidos_delivery (cliente_id, criado_em desc, id desc);
+
+-- ProdutoRepository.findByEmpresa
+create index idx_produtos_empresa on produtos (empresa_id);
+
+-- UsuarioRepository.findByEmail já é atendido pelo índice da constraint usuarios_email_key
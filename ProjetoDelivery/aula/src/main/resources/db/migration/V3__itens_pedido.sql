@@ -0,0 +1,22 @@
+-- ===============================================
+-- Itens do pedido: referência ao produto + snapshot de nome e preço no momento da compra
+-- ===============================================
+
+-- Sequence com incremento 50 (= allocationSize do ItemPedido): o Hibernate reserva 50 ids
+-- por chamada e consegue agrupar os INSERTs em lote (IDENTITY impede o batch)
+create sequence itens_pedido_seq start with 1 increment by 50;
+
+create table itens_pedido (
+    id             bigint         primary key,
+    pedido_id      bigint         not null,
+    produto_id     bigint,
+    nome_produto   varchar(255)   not null,
+    preco_unitario numeric(38, 2) not null,
+    quantidade     integer        not null,
+    constraint fk_itens_pedido_pedido foreign key (pedido_id) references pedidos_delivery (id) on delete cascade,
+    -- Produto excluído do cardápio não apaga o histórico: o snapshot continua no item
+    constraint fk_itens_pedido_produto foreign key (produto_id) references produtos (id) on delete set null,
+    constraint ck_itens_pedido_quantidade check (quantidade > 0)
+);
+
+create index idx_itens_pedido_pedido on itens_pedido (pedido_id);
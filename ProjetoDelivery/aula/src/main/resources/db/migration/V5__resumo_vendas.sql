@@ -0,0 +1,21 @@
+-- ===============================================
+-- Resumo de vendas por empresa, dia (de criado_em) e status atual do pedido
+-- Mantido incrementalmente pelo PedidoService na mesma transação da mudança do pedido
+-- ===============================================
+
+create table resumo_vendas_diario (
+    empresa_id bigint         not null,
+    dia        date           not null,
+    status     varchar(32)    not null,
+    quantidade bigint         not null,
+    receita    numeric(38, 2) not null,
+    constraint pk_resumo_vendas_diario primary key (empresa_id, dia, status),
+    constraint fk_resumo_vendas_empresa foreign key (empresa_id) references usuarios (id)
+);
+
+-- Carga inicial a partir dos pedidos existentes
+insert into resumo_vendas_diario (empresa_id, dia, status, quantidade, receita)
+select empresa_id, cast(criado_em as date), status, count(*), coalesce(sum(valor_total), 0)
+from pedidos_delivery
+where empresa_id is not null and status is not null
+group by empresa_id, cast(criado_em as date), status;
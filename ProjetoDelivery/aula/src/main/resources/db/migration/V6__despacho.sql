@@ -0,0 +1,22 @@
+-- ===============================================
+-- Despacho de entregadores: coordenadas do endereço (geocodificado na criação)
+-- e o entregador atribuído quando o pedido sai para entrega
+-- ===============================================
+
+-- Novo tipo de usuário ENTREGADOR (check do enum criado pelo Hibernate, ver V1)
+alter table usuarios drop constraint usuarios_tipo_check;
+alter table usuarios add constraint usuarios_tipo_check check (tipo in ('CLIENTE', 'EMPRESA', 'ENTREGADOR'));
+
+alter table pedidos_delivery add column latitude double precision;
+alter table pedidos_delivery add column longitude double precision;
+alter table pedidos_delivery add column entregador_id bigint;
+alter table pedidos_delivery add column atribuido_em timestamp(6);
+
+alter table pedidos_delivery add constraint fk_pedidos_entregador
+    foreign key (entregador_id) references usuarios (id) on delete set null;
+
+-- DespachoService.atribuicaoAtual / entregadorOcupado: where entregador_id = ? and status = 'A_CAMINHO'
+create index idx_pedidos_entregador on pedidos_delivery (entregador_id, status);
+
+-- DespachoService.reprocessar: where status = 'A_CAMINHO' and entregador_id is null
+create index idx_pedidos_aguardando_entregador on pedidos_delivery (status, entregador_id, criado_em);
@@ -0,0 +1,6 @@
+-- ===============================================
+-- Versionamento otimista dos pedidos (@Version em PedidoDelivery).
+-- Os UPDATEs em massa e condicionais (avanço, edição, despacho) também incrementam a coluna
+-- ===============================================
+
+alter table pedidos_delivery add column versao bigint not null default 0;
@@ -0,0 +1,21 @@
+-- ===============================================
+-- Outbox de emails (envio assíncrono em lotes, EmailOutboxService)
+-- Fora da V1: bancos marcados no baseline não tinham esta tabela
+-- ===============================================
+
+create table email_outbox (
+    id                   bigint generated by default as identity primary key,
+    destinatario         varchar(255) not null,
+    nome_cliente         varchar(255) not null,
+    descricao_pedido     varchar(255) not null,
+    pedido_id            bigint,
+    status               varchar(255) not null,
+    tentativas           integer      not null,
+    proxima_tentativa_em timestamp(6) not null,
+    ultimo_erro          varchar(1000),
+    criado_em            timestamp(6) not null,
+    enviado_em           timestamp(6)
+);
+
+-- EmailOutboxRepository.buscarProntosParaEnvio: where status = 'PENDENTE' and proxima_tentativa_em <= ?
+create index idx_email_outbox_pendentes on email_outbox (status, proxima_tentativa_em);
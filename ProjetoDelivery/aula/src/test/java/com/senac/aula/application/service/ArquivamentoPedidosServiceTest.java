@@ -0,0 +1,131 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.FormatoExportacao;
+import com.senac.aula.application.dto.pedido.PaginaPedidos;
+import com.senac.aula.application.dto.pedido.PedidoFiltro;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.ResumoVendasDiario;
+import com.senac.aula.infra.repository.ResumoVendasRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arquivo frio: entregues antigos saem da listagem padrão, continuam na listagem com
+ * arquivados=true (intercalados na mesma paginação), na exportação e no resumo de vendas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArquivamentoPedidosServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 10, 12, 0);
+
+    @Autowired
+    private ArquivamentoPedidosService arquivamentoPedidosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ExportacaoPedidosService exportacaoPedidosService;
+
+    @Autowired
+    private ResumoVendasService resumoVendasService;
+
+    @Autowired
+    private ResumoVendasRepository resumoVendasRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresa;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@arquivo.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Empresa', ?, 'x', 'EMPRESA')", email);
+        empresa = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, email, TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarPedido(String descricao, StatusPedido status, LocalDateTime criadoEm) {
+        jdbcTemplate.update("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id) " +
+                "values (?, 'Rua', 10, ?, ?, ?)", descricao, status.name(), criadoEm, empresa);
+        Long id = jdbcTemplate.queryForObject("select max(id) from pedidos_delivery where empresa_id = ?", Long.class, empresa);
+        jdbcTemplate.update("insert into itens_pedido (id, pedido_id, nome_produto, preco_unitario, quantidade) " +
+                "values (nextval('itens_pedido_seq'), ?, 'Item', 10, 1)", id);
+        return id;
+    }
+
+    private List<String> listarTudo(boolean incluirArquivados) {
+        List<String> descricoes = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaPedidos pagina = pedidoService.listarPedidos(new PedidoFiltro(null, null, null, incluirArquivados), cursor, 2);
+            pagina.itens().stream().map(PedidoResponse::descricao).forEach(descricoes::add);
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+        return descricoes;
+    }
+
+    @Test
+    void entreguesAntigosVaoParaOArquivoSemSumirDoHistorico() throws Exception {
+        Long antigo1 = criarPedido("entregue-1", StatusPedido.ENTREGUE, BASE);
+        criarPedido("recebido-2", StatusPedido.RECEBIDO, BASE.plusDays(1));
+        Long antigo3 = criarPedido("entregue-3", StatusPedido.ENTREGUE, BASE.plusDays(40));
+        criarPedido("entregue-4", StatusPedido.ENTREGUE, BASE.plusDays(60));
+        resumoVendasService.reconstruir(empresa);
+
+        long movidos = arquivamentoPedidosService.arquivarCriadosAntesDe(BASE.plusDays(50));
+
+        assertThat(movidos).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pedidos_delivery where id in (?, ?)",
+                Long.class, antigo1, antigo3)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from itens_pedido_arquivo where pedido_id in (?, ?)",
+                Long.class, antigo1, antigo3)).isEqualTo(2);
+
+        // Padrão: só os recentes; com arquivados=true a paginação intercala as duas tabelas
+        assertThat(listarTudo(false)).containsExactly("entregue-4", "recebido-2");
+        assertThat(listarTudo(true)).containsExactly("entregue-4", "entregue-3", "recebido-2", "entregue-1");
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoPedidosService.exportar(new ExportacaoFiltro(null, null, null), FormatoExportacao.NDJSON, () -> saida);
+        assertThat(saida.toString(StandardCharsets.UTF_8).lines().map(l -> l.replaceAll(".*\"descricao\":\"([^\"]+)\".*", "$1")))
+                .containsExactly("entregue-1", "recebido-2", "entregue-3", "entregue-4");
+
+        // A reconstrução do resumo soma o arquivo: nada some do painel
+        resumoVendasService.reconstruir(empresa);
+        assertThat(resumoVendasRepository.buscarPeriodo(empresa, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31))
+                .stream().mapToLong(ResumoVendasDiario::getQuantidade).sum()).isEqualTo(4);
+
+        // Segunda execução não encontra mais nada
+        assertThat(arquivamentoPedidosService.arquivarCriadosAntesDe(BASE.plusDays(50))).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.auth.LoginRequest;
+import com.senac.aula.application.dto.auth.LoginResponse;
+import com.senac.aula.application.dto.auth.RegisterRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Login com uma consulta só e rehash quando o custo configurado (4 no perfil de teste) muda.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String criarUsuario(String hash) {
+        String email = UUID.randomUUID() + "@auth.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Cliente', ?, ?, 'CLIENTE')", email, hash);
+        return email;
+    }
+
+    private String hashGravado(String email) {
+        return jdbcTemplate.queryForObject("select senha from usuarios where email = ?", String.class, email);
+    }
+
+    // O rehash é gravado em segundo plano, depois da resposta do login
+    private void aguardarHash(String email, String prefixo) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!hashGravado(email).startsWith(prefixo) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(hashGravado(email)).startsWith(prefixo);
+    }
+
+    @Test
+    void loginFazUmaConsultaERefazHashComCustoAntigo() throws Exception {
+        String email = criarUsuario(new BCryptPasswordEncoder(5).encode("senha123"));
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long consultasAntes = stats.getPrepareStatementCount();
+
+        LoginResponse resposta = authService.login(new LoginRequest(email, "senha123")).join();
+
+        assertThat(resposta.token()).isNotBlank();
+        assertThat(resposta.tipo()).isEqualTo("CLIENTE");
+        assertThat(stats.getPrepareStatementCount() - consultasAntes).isEqualTo(1);
+        aguardarHash(email, "$2a$04$");
+
+        // Hash novo continua válido e não é refeito de novo
+        String hashNovo = hashGravado(email);
+        authService.login(new LoginRequest(email, "senha123")).join();
+        assertThat(hashGravado(email)).isEqualTo(hashNovo);
+    }
+
+    @Test
+    void senhaErradaOuEmailInexistenteFalham() {
+        String email = criarUsuario(new BCryptPasswordEncoder(4).encode("senha123"));
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest(email, "errada")).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> authService.login(new LoginRequest("ninguem@auth.local", "senha123")).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void cadastroGravaOHashGeradoNoExecutorDeSenhas() {
+        String email = UUID.randomUUID() + "@auth.local";
+
+        authService.registrar(new RegisterRequest("Cliente", email, "senha123", "12345678900", null, null)).join();
+
+        assertThat(hashGravado(email)).startsWith("$2a$04$");
+        assertThat(authService.login(new LoginRequest(email, "senha123")).join().tipo()).isEqualTo("CLIENTE");
+    }
+}
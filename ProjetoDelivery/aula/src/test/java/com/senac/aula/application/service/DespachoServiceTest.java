@@ -0,0 +1,125 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.despacho.AtribuicaoResponse;
+import com.senac.aula.application.dto.despacho.PosicaoRequest;
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Despacho ponta a ponta: geocodificação na criação (endereço com "@lat,lng" no geocodificador local),
+ * atribuição do mais próximo ao ficar A_CAMINHO e volta do entregador à grade na entrega.
+ * As coordenadas ficam longe do centro padrão para não disputar entregadores com outros testes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DespachoServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private DespachoService despachoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UsuarioAutenticado empresa;
+
+    @BeforeEach
+    void setUp() {
+        empresa = usuario("EMPRESA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void atribuiOMaisProximoEDevolveNaEntrega() {
+        UsuarioAutenticado perto = disponivel(-3.1000, -60.0200);
+        UsuarioAutenticado longe = disponivel(-3.1000, -60.0600);
+
+        Long pedido = criarPedido("Rua das Flores, 10 @-3.1010,-60.0210");
+        assertThat(jdbcTemplate.queryForObject("select latitude from pedidos_delivery where id = ?", Double.class, pedido))
+                .isEqualTo(-3.1010);
+
+        pedidoService.avancarStatus(pedido); // EM_PREPARO: ainda sem entregador
+        assertThat(entregadorDe(pedido)).isNull();
+        pedidoService.avancarStatus(pedido); // A_CAMINHO
+        assertThat(entregadorDe(pedido)).isEqualTo(perto.id());
+
+        autenticar(perto);
+        AtribuicaoResponse atribuicao = despachoService.atribuicaoAtual().orElseThrow();
+        assertThat(atribuicao.pedidoId()).isEqualTo(pedido);
+        autenticar(longe);
+        assertThat(despachoService.atribuicaoAtual()).isEmpty();
+
+        // Entregue: "perto" volta para a grade e pega o próximo pedido da região
+        autenticar(empresa);
+        pedidoService.avancarStatus(pedido);
+        Long outro = criarPedido("Av. Norte, 5 @-3.1015,-60.0215");
+        pedidoService.avancarStatusEmLote(new AvancarLoteRequest(List.of(outro), null));
+        pedidoService.avancarStatusEmLote(new AvancarLoteRequest(List.of(outro), null));
+        assertThat(entregadorDe(outro)).isEqualTo(perto.id());
+    }
+
+    @Test
+    void semEntregadorNoRaioFicaAguardandoOReprocessamento() {
+        Long pedido = criarPedido("Rua Sul, 1 @-9.6500,-35.7300");
+        pedidoService.avancarStatus(pedido);
+        pedidoService.avancarStatus(pedido);
+        assertThat(entregadorDe(pedido)).isNull();
+
+        UsuarioAutenticado entregador = disponivel(-9.6510, -35.7310);
+        autenticar(empresa);
+        despachoService.reprocessar();
+
+        assertThat(entregadorDe(pedido)).isEqualTo(entregador.id());
+    }
+
+    private Long criarPedido(String endereco) {
+        autenticar(empresa);
+        return pedidoService.criarPedido(new PedidoRequest("Pedido", endereco, new BigDecimal("10.00"), null, null)).id();
+    }
+
+    private UsuarioAutenticado disponivel(double latitude, double longitude) {
+        UsuarioAutenticado entregador = usuario("ENTREGADOR");
+        autenticar(entregador);
+        despachoService.ficarDisponivel(new PosicaoRequest(latitude, longitude));
+        return entregador;
+    }
+
+    private Long entregadorDe(Long pedido) {
+        return jdbcTemplate.queryForObject("select entregador_id from pedidos_delivery where id = ?", Long.class, pedido);
+    }
+
+    private UsuarioAutenticado usuario(String tipo) {
+        String email = UUID.randomUUID() + "@despacho.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuário', ?, 'x', ?)", email, tipo);
+        Long id = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+        return new UsuarioAutenticado(id, email, TipoUsuario.valueOf(tipo));
+    }
+
+    private static void autenticar(UsuarioAutenticado usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.senac.aula.application.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.senac.aula.domain.enums.StatusEmail;
+import com.senac.aula.domain.model.EmailOutbox;
+import com.senac.aula.infra.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox de emails contra um SMTP em processo (GreenMail na porta 3025).
+ */
+@SpringBootTest(properties = "email.outbox.max-tentativas=2")
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void limpar() {
+        emailOutboxRepository.deleteAll();
+        // Usuário já criado: com envios paralelos o GreenMail às vezes tenta criar a mesma caixa duas vezes
+        smtp.setUser("delivery@teste.local", "delivery@teste.local", "");
+    }
+
+    private void enfileirar(int quantidade) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < quantidade; i++) {
+                emailOutboxService.enfileirarConfirmacao((long) i, "cliente" + i + "@teste.local", "Pedido " + i, "Cliente " + i);
+            }
+        });
+    }
+
+    @Test
+    void enviaTodosOsLotesEMarcaComoEnviado() {
+        enfileirar(120); // mais de dois lotes de 50
+
+        emailOutboxService.despachar();
+
+        assertThat(smtp.getReceivedMessages()).hasSize(120);
+        assertThat(emailOutboxRepository.findAll())
+                .allSatisfy(e -> {
+                    assertThat(e.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+                    assertThat(e.getEnviadoEm()).isNotNull();
+                });
+    }
+
+    @Test
+    void falhaReagendaComBackoffEDescartaAoEsgotarTentativas() {
+        enfileirar(1);
+        smtp.stop();
+
+        emailOutboxService.despachar();
+
+        EmailOutbox email = emailOutboxRepository.findAll().get(0);
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.PENDENTE);
+        assertThat(email.getTentativas()).isEqualTo(1);
+        assertThat(email.getProximaTentativaEm()).isAfter(LocalDateTime.now());
+        assertThat(email.getUltimoErro()).isNotBlank();
+
+        // Ainda dentro do backoff: nada é tentado
+        emailOutboxService.despachar();
+        assertThat(emailOutboxRepository.findAll().get(0).getTentativas()).isEqualTo(1);
+
+        // Vence o backoff: segunda falha atinge o limite (max-tentativas=2) e vai para dead-letter
+        email.setProximaTentativaEm(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(email);
+        emailOutboxService.despachar();
+
+        List<EmailOutbox> emails = emailOutboxRepository.findAll();
+        assertThat(emails.get(0).getStatus()).isEqualTo(StatusEmail.DESCARTADO);
+        assertThat(emails.get(0).getTentativas()).isEqualTo(2);
+    }
+
+    @Test
+    void backoffDobraAteOLimite() {
+        assertThat(emailOutboxService.backoff(1)).hasSeconds(30);
+        assertThat(emailOutboxService.backoff(2)).hasSeconds(60);
+        assertThat(emailOutboxService.backoff(3)).hasSeconds(120);
+        assertThat(emailOutboxService.backoff(30)).hasMinutes(30);
+    }
+}
@@ -0,0 +1,116 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.ExportacaoFiltro;
+import com.senac.aula.application.dto.pedido.FormatoExportacao;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportação do histórico: filtros, escape do CSV e leitura sem carregar entidades.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoPedidosServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private ExportacaoPedidosService exportacaoPedidosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long empresa;
+    private Long outraEmpresa;
+
+    @BeforeEach
+    void setUp() {
+        empresa = criarUsuario(TipoUsuario.EMPRESA);
+        outraEmpresa = criarUsuario(TipoUsuario.EMPRESA);
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, "exportacao@empresa.local", TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarUsuario(TipoUsuario tipo) {
+        String email = UUID.randomUUID() + "@exportacao.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuario', ?, 'x', ?)", email, tipo.name());
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    private void criarPedido(Long empresaId, String descricao, StatusPedido status, LocalDateTime criadoEm) {
+        jdbcTemplate.update("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id) "
+                + "values (?, 'Rua A, 1', 12.50, ?, ?, ?)", descricao, status.name(), criadoEm, empresaId);
+    }
+
+    private String exportar(ExportacaoFiltro filtro, FormatoExportacao formato) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoPedidosService.exportar(filtro, formato, () -> saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void aplicaFiltrosEEscapaOCsv() throws Exception {
+        criarPedido(empresa, "antes do período", StatusPedido.ENTREGUE, BASE.minusDays(1));
+        criarPedido(empresa, "X-Burger, sem \"cebola\"", StatusPedido.ENTREGUE, BASE);
+        criarPedido(empresa, "=HYPERLINK(\"x\")", StatusPedido.ENTREGUE, BASE.plusHours(1));
+        criarPedido(empresa, "ainda em preparo", StatusPedido.EM_PREPARO, BASE.plusHours(2));
+        criarPedido(outraEmpresa, "de outra empresa", StatusPedido.ENTREGUE, BASE);
+
+        String csv = exportar(new ExportacaoFiltro(Set.of(StatusPedido.ENTREGUE), BASE, BASE.plusDays(1)),
+                FormatoExportacao.CSV);
+
+        List<String> linhas = csv.lines().toList();
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas.get(0)).isEqualTo("﻿id,criado_em,status,descricao,endereco,valor_total,cliente_nome,cliente_email");
+        assertThat(linhas.get(1)).contains(",ENTREGUE,\"X-Burger, sem \"\"cebola\"\"\",\"Rua A, 1\",12.50,,");
+        assertThat(linhas.get(2)).contains(",\"'=HYPERLINK(\"\"x\"\")\",");
+    }
+
+    @Test
+    void exportaEmNdjsonSemCarregarEntidades() throws Exception {
+        for (int i = 0; i < 1500; i++) {
+            criarPedido(empresa, "Pedido " + i, StatusPedido.ENTREGUE, BASE.plusMinutes(i));
+        }
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long carregadasAntes = stats.getEntityLoadCount();
+
+        String ndjson = exportar(new ExportacaoFiltro(null, null, null), FormatoExportacao.NDJSON);
+
+        List<String> linhas = ndjson.lines().toList();
+        assertThat(linhas).hasSize(1500);
+        assertThat(linhas.get(0)).startsWith("{\"id\":").contains("\"descricao\":\"Pedido 0\"");
+        assertThat(linhas.get(1499)).contains("\"descricao\":\"Pedido 1499\"");
+        assertThat(stats.getEntityLoadCount()).isEqualTo(carregadasAntes);
+    }
+}
@@ -0,0 +1,105 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.produto.EventoImportacao;
+import com.senac.aula.domain.enums.TipoUsuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Importação de CSV: linhas inválidas viram eventos ERRO sem interromper o restante,
+ * aspas/separador ';'/vírgula decimal são aceitos e arquivos grandes são gravados em lotes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacaoProdutosServiceTest {
+
+    @Autowired
+    private ImportacaoProdutosService importacaoProdutosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresa;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@importacao.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Empresa', ?, 'x', ?)",
+                email, TipoUsuario.EMPRESA.name());
+        empresa = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    @Test
+    void importaLinhasValidasEReportaAsInvalidas() throws Exception {
+        String csv = """
+                nome,preco,categoria
+                X-Burger,25.90,Lanches
+                ,10.00,Lanches
+                "Suco, laranja",8.5,Bebidas
+                Pizza,abc,Pizzas
+                Água,-1,Bebidas
+                "Combo ""família""\",99.99,
+                """;
+        List<EventoImportacao> eventos = new ArrayList<>();
+
+        EventoImportacao resumo = importacaoProdutosService.importar(empresa, new StringReader(csv), eventos::add);
+
+        assertThat(resumo.linhasLidas()).isEqualTo(6);
+        assertThat(resumo.importados()).isEqualTo(3);
+        assertThat(resumo.erros()).isEqualTo(3);
+        assertThat(eventos).filteredOn(e -> e.tipo() == EventoImportacao.Tipo.ERRO)
+                .extracting(EventoImportacao::linha)
+                .containsExactly(3L, 5L, 6L);
+        assertThat(eventos.get(eventos.size() - 1).tipo()).isEqualTo(EventoImportacao.Tipo.RESUMO);
+
+        List<Map<String, Object>> gravados = jdbcTemplate.queryForList(
+                "select nome, preco, categoria from produtos where empresa_id = ? order by nome", empresa);
+        assertThat(gravados).extracting(m -> m.get("NOME"))
+                .containsExactly("Combo \"família\"", "Suco, laranja", "X-Burger");
+        assertThat(gravados.get(0).get("CATEGORIA")).isNull();
+        assertThat((BigDecimal) gravados.get(1).get("PRECO")).isEqualByComparingTo("8.50");
+    }
+
+    @Test
+    void aceitaPontoEVirgulaComVirgulaDecimal() throws Exception {
+        String csv = "﻿Nome;Preço;Categoria\r\nCoxinha;6,50;Salgados\r\nEsfiha;4,00;Salgados\r\n";
+
+        EventoImportacao resumo = importacaoProdutosService.importar(empresa, new StringReader(csv), e -> {});
+
+        assertThat(resumo.importados()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "select preco from produtos where empresa_id = ? and nome = 'Coxinha'", BigDecimal.class, empresa))
+                .isEqualByComparingTo("6.50");
+    }
+
+    @Test
+    void importaArquivoGrandeEmLotes() throws Exception {
+        int linhas = 50_000;
+        StringBuilder csv = new StringBuilder("nome,preco,categoria\n");
+        for (int i = 0; i < linhas; i++) {
+            csv.append("Produto ").append(i).append(',').append(i % 100 + 1).append(".90,Lote\n");
+        }
+        List<EventoImportacao> eventos = new ArrayList<>();
+
+        EventoImportacao resumo = importacaoProdutosService.importar(empresa, new StringReader(csv.toString()), eventos::add);
+
+        assertThat(resumo.importados()).isEqualTo(linhas);
+        assertThat(resumo.erros()).isZero();
+        assertThat(eventos).filteredOn(e -> e.tipo() == EventoImportacao.Tipo.PROGRESSO).hasSizeGreaterThan(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from produtos where empresa_id = ?", Long.class, empresa))
+                .isEqualTo(linhas);
+    }
+}
@@ -0,0 +1,125 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.application.dto.pedido.ResultadoAvanco;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Avanço em lote contra o PostgreSQL (Testcontainers; sem Docker o teste é pulado).
+ * O H2 aceita FOR UPDATE em qualquer consulta; o PostgreSQL recusa a trava no lado anulável
+ * de um LEFT JOIN, então a leitura travada (travarParaAvanco) precisa rodar no dialeto de produção.
+ * Os pedidos misturam com e sem cliente, que era o caso do LEFT JOIN.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@RecordApplicationEvents
+class PedidoServiceAvancoLotePostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private Long empresa;
+    private Long cliente;
+
+    @BeforeEach
+    void setUp() {
+        empresa = criarUsuario(TipoUsuario.EMPRESA);
+        cliente = criarUsuario(TipoUsuario.CLIENTE);
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, "lote@postgres.local", TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarUsuario(TipoUsuario tipo) {
+        String email = UUID.randomUUID() + "@postgres.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuario', ?, 'x', ?)", email, tipo.name());
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    private Long criarPedido(StatusPedido status, Long clienteId) {
+        return jdbcTemplate.queryForObject("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id, cliente_id) " +
+                "values ('Pedido', 'Rua', 10, ?, current_timestamp, ?, ?) returning id", Long.class, status.name(), empresa, clienteId);
+    }
+
+    private String status(Long id) {
+        return jdbcTemplate.queryForObject("select status from pedidos_delivery where id = ?", String.class, id);
+    }
+
+    @Test
+    void travaEAvancaPedidosComESemCliente() {
+        Long doCliente = criarPedido(StatusPedido.RECEBIDO, cliente);
+        Long balcao = criarPedido(StatusPedido.EM_PREPARO, null);
+        Long entregue = criarPedido(StatusPedido.ENTREGUE, cliente);
+
+        List<ResultadoAvanco> resultados = pedidoService.avancarStatusEmLote(
+                new AvancarLoteRequest(List.of(doCliente, balcao, entregue), null));
+
+        assertThat(resultados).extracting(ResultadoAvanco::id, ResultadoAvanco::situacao, ResultadoAvanco::statusAtual)
+                .containsExactly(
+                        tuple(doCliente, ResultadoAvanco.Situacao.AVANCADO, "EM_PREPARO"),
+                        tuple(balcao, ResultadoAvanco.Situacao.AVANCADO, "A_CAMINHO"),
+                        tuple(entregue, ResultadoAvanco.Situacao.JA_ENTREGUE, "ENTREGUE"));
+        assertThat(status(doCliente)).isEqualTo("EM_PREPARO");
+        assertThat(status(balcao)).isEqualTo("A_CAMINHO");
+
+        // clienteId lido da própria coluna, sem o join
+        assertThat(eventos.stream(PedidoEvento.class))
+                .extracting(PedidoEvento::pedidoId, PedidoEvento::clienteId)
+                .containsExactlyInAnyOrder(tuple(doCliente, cliente), tuple(balcao, null));
+    }
+
+    @Test
+    void avancaTodosDoStatusInformado() {
+        Long recebido1 = criarPedido(StatusPedido.RECEBIDO, cliente);
+        Long recebido2 = criarPedido(StatusPedido.RECEBIDO, null);
+        Long emPreparo = criarPedido(StatusPedido.EM_PREPARO, null);
+
+        List<ResultadoAvanco> resultados = pedidoService.avancarStatusEmLote(
+                new AvancarLoteRequest(null, StatusPedido.RECEBIDO));
+
+        assertThat(resultados).extracting(ResultadoAvanco::id).containsExactlyInAnyOrder(recebido1, recebido2);
+        assertThat(status(recebido1)).isEqualTo("EM_PREPARO");
+        assertThat(status(recebido2)).isEqualTo("EM_PREPARO");
+        assertThat(status(emPreparo)).isEqualTo("EM_PREPARO");
+    }
+}
@@ -0,0 +1,110 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.ResultadoAvanco;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Avanço em lote: um UPDATE com CASE que respeita a ordem de StatusPedido e o dono do pedido.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PedidoServiceAvancoLoteTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresa;
+    private Long outraEmpresa;
+
+    @BeforeEach
+    void setUp() {
+        empresa = criarEmpresa();
+        outraEmpresa = criarEmpresa();
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, "lote@empresa.local", TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarEmpresa() {
+        String email = UUID.randomUUID() + "@lote.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Empresa', ?, 'x', 'EMPRESA')", email);
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    private Long criarPedido(Long empresaId, StatusPedido status) {
+        jdbcTemplate.update("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id) " +
+                "values ('Pedido', 'Rua', 10, ?, current_timestamp, ?)", status.name(), empresaId);
+        return jdbcTemplate.queryForObject("select max(id) from pedidos_delivery where empresa_id = ?", Long.class, empresaId);
+    }
+
+    private String status(Long id) {
+        return jdbcTemplate.queryForObject("select status from pedidos_delivery where id = ?", String.class, id);
+    }
+
+    @Test
+    void avancaCadaPedidoUmPassoERespeitaDono() {
+        Long recebido = criarPedido(empresa, StatusPedido.RECEBIDO);
+        Long aCaminho = criarPedido(empresa, StatusPedido.A_CAMINHO);
+        Long entregue = criarPedido(empresa, StatusPedido.ENTREGUE);
+        Long deOutra = criarPedido(outraEmpresa, StatusPedido.RECEBIDO);
+
+        List<ResultadoAvanco> resultados = pedidoService.avancarStatusEmLote(
+                new AvancarLoteRequest(List.of(recebido, aCaminho, entregue, deOutra, -1L), null));
+
+        assertThat(resultados).extracting(ResultadoAvanco::id, ResultadoAvanco::situacao, ResultadoAvanco::statusAtual)
+                .containsExactly(
+                        tuple(recebido, ResultadoAvanco.Situacao.AVANCADO, "EM_PREPARO"),
+                        tuple(aCaminho, ResultadoAvanco.Situacao.AVANCADO, "ENTREGUE"),
+                        tuple(entregue, ResultadoAvanco.Situacao.JA_ENTREGUE, "ENTREGUE"),
+                        tuple(deOutra, ResultadoAvanco.Situacao.NAO_ENCONTRADO, null),
+                        tuple(-1L, ResultadoAvanco.Situacao.NAO_ENCONTRADO, null));
+
+        assertThat(status(recebido)).isEqualTo("EM_PREPARO");
+        assertThat(status(aCaminho)).isEqualTo("ENTREGUE");
+        assertThat(status(entregue)).isEqualTo("ENTREGUE");
+        assertThat(status(deOutra)).isEqualTo("RECEBIDO");
+    }
+
+    @Test
+    void avancaTodosDoStatusInformado() {
+        Long emPreparo1 = criarPedido(empresa, StatusPedido.EM_PREPARO);
+        Long emPreparo2 = criarPedido(empresa, StatusPedido.EM_PREPARO);
+        Long recebido = criarPedido(empresa, StatusPedido.RECEBIDO);
+        Long deOutra = criarPedido(outraEmpresa, StatusPedido.EM_PREPARO);
+
+        List<ResultadoAvanco> resultados = pedidoService.avancarStatusEmLote(
+                new AvancarLoteRequest(null, StatusPedido.EM_PREPARO));
+
+        assertThat(resultados).extracting(ResultadoAvanco::id).containsExactly(emPreparo1, emPreparo2);
+        assertThat(status(emPreparo1)).isEqualTo("A_CAMINHO");
+        assertThat(status(emPreparo2)).isEqualTo("A_CAMINHO");
+        assertThat(status(recebido)).isEqualTo("RECEBIDO");
+        assertThat(status(deOutra)).isEqualTo("EM_PREPARO");
+    }
+}
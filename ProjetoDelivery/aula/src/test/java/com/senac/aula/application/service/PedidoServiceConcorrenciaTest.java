@@ -0,0 +1,160 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.ItemPedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.ResumoVendasDiario;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.exception.ConflitoException;
+import com.senac.aula.infra.repository.ResumoVendasRepository;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Avanço, edição e exclusão como comandos condicionais: toques concorrentes não perdem
+ * nem pulam etapas, e o filtro de dono vale no próprio UPDATE/DELETE.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PedidoServiceConcorrenciaTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ResumoVendasRepository resumoVendasRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarUsuario(TipoUsuario tipo) {
+        String email = UUID.randomUUID() + "@concorrencia.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuario', ?, 'x', ?)", email, tipo.name());
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    // Cliente só pede com itens do cardápio
+    private Long criarProduto(Long empresaId) {
+        String nome = "Pizza " + UUID.randomUUID();
+        jdbcTemplate.update("insert into produtos (nome, preco, categoria, empresa_id) values (?, 40.00, 'Pizzas', ?)",
+                nome, empresaId);
+        return jdbcTemplate.queryForObject("select id from produtos where nome = ?", Long.class, nome);
+    }
+
+    private static void logar(Long id, TipoUsuario tipo) {
+        UsuarioAutenticado principal = new UsuarioAutenticado(id, id + "@concorrencia.local", tipo);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @Test
+    void toquesConcorrentesAvancamCadaEtapaUmaVez() throws Exception {
+        Long empresa = criarUsuario(TipoUsuario.EMPRESA);
+        logar(empresa, TipoUsuario.EMPRESA);
+        Long pedidoId = pedidoService.criarPedido(new PedidoRequest("Pedido", "Rua", new BigDecimal("25.00"), null, null)).id();
+
+        // Cada thread toca "avançar" até ver o pedido entregue; conflitos (409) são repetidos
+        ConcurrentLinkedQueue<String> avancos = new ConcurrentLinkedQueue<>();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                tarefas.add(executor.submit(() -> {
+                    logar(empresa, TipoUsuario.EMPRESA);
+                    largada.await();
+                    String antes = null;
+                    while (!"ENTREGUE".equals(antes)) {
+                        try {
+                            PedidoResponse r = pedidoService.avancarStatus(pedidoId);
+                            if (!r.status().equals(antes)) avancos.add(r.status());
+                            antes = r.status();
+                        } catch (ConflitoException e) {
+                            conflitos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) tarefa.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Uma resposta por transição (a primeira a ver ENTREGUE pode ser o no-op de outra thread)
+        Map<String, Long> porStatus = avancos.stream().collect(Collectors.groupingBy(s -> s, Collectors.counting()));
+        assertThat(porStatus.get("EM_PREPARO")).isEqualTo(1L);
+        assertThat(porStatus.get("A_CAMINHO")).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("select versao from pedidos_delivery where id = ?", Long.class, pedidoId))
+                .isEqualTo(3L);
+
+        // Resumo de vendas moveu o pedido exatamente três vezes: só ENTREGUE fica com 1
+        Map<String, Long> resumo = resumoVendasRepository.buscarPeriodo(empresa, LocalDate.now(), LocalDate.now()).stream()
+                .filter(r -> r.getQuantidade() != 0)
+                .collect(Collectors.toMap(r -> r.getId().getStatus().name(), ResumoVendasDiario::getQuantidade));
+        assertThat(resumo).containsExactly(Map.entry("ENTREGUE", 1L));
+    }
+
+    @Test
+    void edicaoEExclusaoSoParaODono() {
+        Long empresa = criarUsuario(TipoUsuario.EMPRESA);
+        Long cliente = criarUsuario(TipoUsuario.CLIENTE);
+        Long estranho = criarUsuario(TipoUsuario.CLIENTE);
+        Long pizza = criarProduto(empresa);
+        logar(cliente, TipoUsuario.CLIENTE);
+        Long pedidoId = pedidoService.criarPedido(
+                new PedidoRequest("Pizza", "Rua", null, empresa, List.of(new ItemPedidoRequest(pizza, 1)))).id();
+
+        logar(estranho, TipoUsuario.CLIENTE);
+        assertThatThrownBy(() -> pedidoService.atualizarPedido(pedidoId, new PedidoRequest("Outra", "Rua", null, null, null)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> pedidoService.excluirPedido(pedidoId)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> pedidoService.avancarStatus(pedidoId)).isInstanceOf(BusinessException.class);
+
+        logar(cliente, TipoUsuario.CLIENTE);
+        assertThat(pedidoService.atualizarPedido(pedidoId, new PedidoRequest("Pizza grande", "Rua", null, null, null)).descricao())
+                .isEqualTo("Pizza grande");
+
+        logar(empresa, TipoUsuario.EMPRESA);
+        assertThat(pedidoService.avancarStatus(pedidoId).status()).isEqualTo("EM_PREPARO");
+        pedidoService.excluirPedido(pedidoId);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pedidos_delivery where id = ?", Integer.class, pedidoId))
+                .isZero();
+    }
+}
@@ -0,0 +1,174 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.ItemPedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.exception.BusinessException;
+import com.senac.aula.security.UsuarioAutenticado;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pedido com itens: preço vindo do cardápio, uma consulta para todos os produtos
+ * e INSERT dos itens em lote (número de comandos não cresce com o número de itens).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PedidoServiceItensTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long empresa;
+    private List<Long> produtos;
+
+    @BeforeEach
+    void setUp() {
+        empresa = criarUsuario(TipoUsuario.EMPRESA);
+        produtos = IntStream.range(0, 120)
+                .mapToObj(i -> criarProduto(empresa, new BigDecimal("10.50").add(BigDecimal.valueOf(i))))
+                .toList();
+
+        Long cliente = criarUsuario(TipoUsuario.CLIENTE);
+        UsuarioAutenticado principal = new UsuarioAutenticado(cliente, "itens@cliente.local", TipoUsuario.CLIENTE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarUsuario(TipoUsuario tipo) {
+        String email = UUID.randomUUID() + "@itens.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuario', ?, 'x', ?)", email, tipo.name());
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    private Long criarProduto(Long empresaId, BigDecimal preco) {
+        String nome = "Produto " + UUID.randomUUID();
+        jdbcTemplate.update("insert into produtos (nome, preco, categoria, empresa_id) values (?, ?, 'Lanches', ?)",
+                nome, preco, empresaId);
+        return jdbcTemplate.queryForObject("select id from produtos where nome = ?", Long.class, nome);
+    }
+
+    private PedidoRequest pedido(List<ItemPedidoRequest> itens) {
+        return new PedidoRequest("Pedido com itens", "Rua A, 1", new BigDecimal("0.01"), empresa, itens);
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void calculaTotalNoServidorECopiaPrecoDoCardapio() {
+        Long x = produtos.get(0);   // 10.50
+        Long y = produtos.get(1);   // 11.50
+        PedidoResponse response = pedidoService.criarPedido(pedido(List.of(
+                new ItemPedidoRequest(x, 2),
+                new ItemPedidoRequest(y, 1),
+                new ItemPedidoRequest(x, 1))));
+
+        // 3 x 10.50 + 1 x 11.50 (o valorTotal enviado pelo cliente é ignorado)
+        assertThat(response.valorTotal()).isEqualByComparingTo("43.00");
+
+        jdbcTemplate.update("update produtos set preco = 99 where id = ?", x);
+        List<Map<String, Object>> itens = jdbcTemplate.queryForList(
+                "select produto_id, preco_unitario, quantidade from itens_pedido where pedido_id = ? order by produto_id",
+                response.id());
+        assertThat(itens).hasSize(2);
+        assertThat((BigDecimal) itens.get(0).get("preco_unitario")).isEqualByComparingTo("10.50");
+        assertThat(itens.get(0).get("quantidade")).isEqualTo(3);
+    }
+
+    @Test
+    void recusaProdutoDeOutroRestaurante() {
+        Long outraEmpresa = criarUsuario(TipoUsuario.EMPRESA);
+        Long produtoDeOutra = criarProduto(outraEmpresa, BigDecimal.ONE);
+
+        assertThatThrownBy(() -> pedidoService.criarPedido(pedido(List.of(
+                new ItemPedidoRequest(produtos.get(0), 1),
+                new ItemPedidoRequest(produtoDeOutra, 1)))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining(produtoDeOutra.toString());
+    }
+
+    @Test
+    void clienteNaoCriaPedidoSemItens() {
+        assertThatThrownBy(() -> pedidoService.criarPedido(pedido(null)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("item");
+        assertThatThrownBy(() -> pedidoService.criarPedido(pedido(List.of())))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void empresaSemItensUsaOValorInformadoSeNaoForNegativo() {
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, "itens@empresa.local", TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+
+        PedidoResponse balcao = pedidoService.criarPedido(
+                new PedidoRequest("Balcão", "Rua A, 1", new BigDecimal("25.00"), null, null));
+        assertThat(balcao.valorTotal()).isEqualByComparingTo("25.00");
+
+        assertThatThrownBy(() -> pedidoService.criarPedido(
+                new PedidoRequest("Balcão", "Rua A, 1", new BigDecimal("-1.00"), null, null)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("negativo");
+    }
+
+    @Test
+    void numeroDeComandosNaoCresceComOsItens() {
+        pedidoService.criarPedido(pedido(itens(1))); // aquece o cache de usuários
+
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        pedidoService.criarPedido(pedido(itens(2)));
+        long comandosPedidoPequeno = estatisticas.getPrepareStatementCount();
+
+        estatisticas.clear();
+        pedidoService.criarPedido(pedido(itens(100)));
+        long comandosPedidoGrande = estatisticas.getPrepareStatementCount();
+
+        // 100 itens = 2 lotes de 50 e 2 reservas de ids da sequence, contra 1 + 1 no pedido pequeno
+        assertThat(comandosPedidoGrande).isLessThanOrEqualTo(comandosPedidoPequeno + 2);
+        assertThat(comandosPedidoGrande).isLessThan(10);
+    }
+
+    private List<ItemPedidoRequest> itens(int quantidade) {
+        List<ItemPedidoRequest> itens = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            itens.add(new ItemPedidoRequest(produtos.get(i), 1));
+        }
+        return itens;
+    }
+}
@@ -0,0 +1,112 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.domain.enums.TipoEventoPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fila por assinante sem Spring MVC: o executor de teste só guarda os drenos, então as mensagens
+ * ficam na fila e dá para ver quando o assinante é despejado.
+ */
+class PedidoStreamServiceTest {
+
+    private static final UsuarioAutenticado EMPRESA = new UsuarioAutenticado(1L, "cozinha@stream.local", TipoUsuario.EMPRESA);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Runnable> drenosPendentes = new ArrayList<>();
+
+    private PedidoStreamService servico(int tamanhoFila, int janelaReplay) {
+        return new PedidoStreamService(drenosPendentes::add, registry, tamanhoFila, janelaReplay,
+                Duration.ofMinutes(30), Duration.ofHours(1));
+    }
+
+    private static PedidoEvento evento(long pedidoId) {
+        return new PedidoEvento(TipoEventoPedido.EXCLUIDO, pedidoId, EMPRESA.id(), null, null);
+    }
+
+    private double assinantes() {
+        return registry.get("delivery.sse.pedidos.assinantes").gauge().value();
+    }
+
+    private double despejados() {
+        return registry.get("delivery.sse.pedidos.despejados").counter().count();
+    }
+
+    @Test
+    void assinanteQueNaoDrenaEDespejadoQuandoAFilaEnche() {
+        // Fila = janela (1) + tamanho-fila (2)
+        PedidoStreamService stream = servico(2, 1);
+        stream.assinar(EMPRESA, null);
+
+        stream.aoAlterarPedido(evento(1));
+        stream.aoAlterarPedido(evento(2));
+        stream.aoAlterarPedido(evento(3));
+        assertThat(assinantes()).isEqualTo(1);
+        assertThat(drenosPendentes).hasSize(1); // no máximo um dreno agendado por assinante
+
+        stream.aoAlterarPedido(evento(4));
+
+        assertThat(assinantes()).isZero();
+        assertThat(despejados()).isEqualTo(1);
+    }
+
+    @Test
+    void despejoSoMarcaEQuemEncerraEODreno() throws Exception {
+        PedidoStreamService stream = servico(1, 1);
+        SseEmitter emitter = stream.assinar(EMPRESA, null);
+        stream.aoAlterarPedido(evento(1));
+        stream.aoAlterarPedido(evento(2));
+
+        stream.aoAlterarPedido(evento(3)); // fila cheia: despeja
+
+        assertThat(despejados()).isEqualTo(1);
+        emitter.send("ainda aberto"); // o publicador não chamou complete()
+
+        new ArrayList<>(drenosPendentes).forEach(Runnable::run);
+
+        assertThatThrownBy(() -> emitter.send("depois do dreno")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void replayMaiorQueAFilaNaoDespejaOProprioAssinante() {
+        PedidoStreamService stream = servico(2, 8);
+        for (long i = 1; i <= 8; i++) {
+            stream.aoAlterarPedido(evento(i)); // ninguém assinando: só a janela guarda
+        }
+
+        stream.assinar(EMPRESA, "0");
+        assertThat(assinantes()).isEqualTo(1);
+        assertThat(despejados()).isZero();
+
+        // A folga ao vivo continua sendo tamanho-fila
+        stream.aoAlterarPedido(evento(9));
+        stream.aoAlterarPedido(evento(10));
+        assertThat(despejados()).isZero();
+        stream.aoAlterarPedido(evento(11));
+        assertThat(despejados()).isEqualTo(1);
+    }
+
+    @Test
+    void drenoRecusadoPeloExecutorEncerraOAssinante() {
+        PedidoStreamService stream = new PedidoStreamService(tarefa -> {
+            throw new RejectedExecutionException("saturado");
+        }, registry, 2, 1, Duration.ofMinutes(30), Duration.ofHours(1));
+        stream.assinar(EMPRESA, null);
+
+        stream.aoAlterarPedido(evento(1));
+
+        assertThat(assinantes()).isZero();
+    }
+}
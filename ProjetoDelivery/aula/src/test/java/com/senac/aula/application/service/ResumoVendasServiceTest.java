@@ -0,0 +1,109 @@
+package com.senac.aula.application.service;
+
+import com.senac.aula.application.dto.pedido.AvancarLoteRequest;
+import com.senac.aula.application.dto.pedido.LinhaResumoVendas;
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.application.dto.pedido.ResumoVendas;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Resumo de vendas mantido junto com os pedidos (criação, avanço, lote, exclusão)
+ * e reconstruído a partir dos pedidos quando diverge.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumoVendasServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ResumoVendasService resumoVendasService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresa;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@resumo.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Empresa', ?, 'x', 'EMPRESA')", email);
+        empresa = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+        UsuarioAutenticado principal = new UsuarioAutenticado(empresa, email, TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Long criarPedido(String valor) {
+        return pedidoService.criarPedido(
+                new PedidoRequest("Pedido", "Rua A, 1", new BigDecimal(valor), null, null)).id();
+    }
+
+    @Test
+    void acompanhaCriacaoAvancoEExclusao() {
+        Long p1 = criarPedido("10.00");
+        Long p2 = criarPedido("20.50");
+        Long p3 = criarPedido("5.25");
+        criarPedido("7.00");
+
+        pedidoService.avancarStatus(p1);
+        pedidoService.avancarStatusEmLote(new AvancarLoteRequest(List.of(p1, p2), null));
+        pedidoService.excluirPedido(p3);
+
+        LocalDate hoje = LocalDate.now();
+        ResumoVendas resumo = resumoVendasService.consultar(null, null);
+
+        assertThat(resumo.de()).isEqualTo(hoje);
+        assertThat(resumo.quantidade()).isEqualTo(3);
+        assertThat(resumo.receita()).isEqualByComparingTo("37.50");
+        assertThat(resumo.linhas())
+                .extracting(LinhaResumoVendas::status, LinhaResumoVendas::quantidade, l -> l.receita().toPlainString())
+                .containsExactly(
+                        tuple(StatusPedido.RECEBIDO, 1L, "7.00"),
+                        tuple(StatusPedido.EM_PREPARO, 1L, "20.50"),
+                        tuple(StatusPedido.A_CAMINHO, 1L, "10.00"));
+    }
+
+    @Test
+    void reconstrucaoCorrigeDivergencia() {
+        criarPedido("12.00");
+        criarPedido("8.00");
+        // Pedido gravado por fora do serviço + linha corrompida
+        jdbcTemplate.update("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id) "
+                + "values ('Importado', 'Rua', 30, 'ENTREGUE', current_timestamp, ?)", empresa);
+        jdbcTemplate.update("update resumo_vendas_diario set quantidade = 99 where empresa_id = ?", empresa);
+
+        resumoVendasService.reconstruir(empresa);
+
+        ResumoVendas resumo = resumoVendasService.consultar(LocalDate.now(), LocalDate.now());
+        assertThat(resumo.quantidade()).isEqualTo(3);
+        assertThat(resumo.receita()).isEqualByComparingTo("50.00");
+        assertThat(resumo.linhas()).extracting(LinhaResumoVendas::status, LinhaResumoVendas::quantidade)
+                .containsExactly(tuple(StatusPedido.RECEBIDO, 2L), tuple(StatusPedido.ENTREGUE, 1L));
+    }
+}
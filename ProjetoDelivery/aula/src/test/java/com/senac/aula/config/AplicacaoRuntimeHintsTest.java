@@ -0,0 +1,45 @@
+package com.senac.aula.config;
+
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.model.PedidoDelivery;
+import com.senac.aula.infra.cache.UsuarioCacheListener;
+import db.migration.V8__arquivo_pedidos;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AplicacaoRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    AplicacaoRuntimeHintsTest() {
+        new AplicacaoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entidadesProjecoesEJwtTemReflexao() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(PedidoDelivery.class.getDeclaredConstructor()))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(PedidoDelivery.class.getMethod("getVersao"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(UsuarioCacheListener.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(PedidoResponse.class.getConstructor(
+                Long.class, String.class, String.class, BigDecimal.class,
+                StatusPedido.class, LocalDateTime.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(PedidoEvento.class.getMethod("pedido"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(V8__arquivo_pedidos.class.getConstructor())).accepts(hints);
+
+        // Os nomes das classes internas do java-jwt precisam continuar existindo na versão do pom
+        for (String nome : AplicacaoRuntimeHints.JWT) {
+            assertThat(Class.forName(nome)).isNotNull();
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(nome))).accepts(hints);
+        }
+    }
+}
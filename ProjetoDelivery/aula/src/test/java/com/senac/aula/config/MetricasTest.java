@@ -0,0 +1,75 @@
+package com.senac.aula.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * O scrape do Prometheus traz as métricas de endpoints, repositórios, JWT, pool e Hibernate.
+ * Sem autenticação só na porta de gerenciamento; na porta da aplicação o /actuator não responde.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @LocalManagementPort
+    private int portaGerenciamento;
+
+    @Test
+    void expoeMetricasNoFormatoPrometheus() throws Exception {
+        // Login é assíncrono (BCrypt no executor de senhas): completa o dispatch para registrar a métrica
+        MvcResult login = mvc.perform(post("/auth/login").contentType("application/json")
+                .content("{\"email\":\"ninguem@metricas.local\",\"senha\":\"123456\"}")).andReturn();
+        mvc.perform(asyncDispatch(login));
+        mvc.perform(get("/pedidos").header("Authorization", "Bearer token-invalido"));
+
+        ResponseEntity<String> scrape = rest.getForEntity(gerenciamento("/actuator/prometheus"), String.class);
+
+        assertThat(scrape.getStatusCode().value()).isEqualTo(200);
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/auth/login\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("delivery_jwt_verificacoes_total{")
+                .contains("resultado=\"invalido\"")
+                .contains("delivery_jwt_cache_total{")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .contains("delivery_email_envio_seconds_bucket{");
+    }
+
+    @Test
+    void actuatorNaoFicaAbertoNaPortaDaAplicacao() {
+        assertThat(rest.getForEntity("/actuator/prometheus", String.class).getStatusCode().is2xxSuccessful()).isFalse();
+        assertThat(rest.getForEntity("/actuator/health", String.class).getStatusCode().is2xxSuccessful()).isFalse();
+        // Na porta de gerenciamento, só health e prometheus dispensam login
+        // 503 = DOWN pelo indicador de email (sem SMTP nos testes), mas respondeu sem login
+        assertThat(rest.getForEntity(gerenciamento("/actuator/health"), String.class).getStatusCode().value()).isIn(200, 503);
+        assertThat(rest.getForEntity(gerenciamento("/actuator/metrics"), String.class).getStatusCode().value()).isEqualTo(403);
+    }
+
+    private String gerenciamento(String caminho) {
+        return "http://localhost:" + portaGerenciamento + caminho;
+    }
+}
@@ -0,0 +1,61 @@
+package com.senac.aula.infra.busca;
+
+import com.senac.aula.application.dto.auth.RegisterRequest;
+import com.senac.aula.application.dto.restaurante.RestauranteResumo;
+import com.senac.aula.application.service.AuthService;
+import com.senac.aula.domain.model.Produto;
+import com.senac.aula.infra.cache.CatalogoCache;
+import com.senac.aula.infra.repository.ProdutoRepository;
+import com.senac.aula.infra.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Índice de restaurantes atualizado sem reconstrução: cadastro de empresa e mudança de cardápio.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BuscaRestaurantesTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private BuscaRestaurantes buscaRestaurantes;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Test
+    void cadastroECardapioEntramNaBusca() {
+        String marca = "Quitandinha" + UUID.randomUUID().toString().substring(0, 8);
+        String email = UUID.randomUUID() + "@busca.local";
+        authService.registrar(new RegisterRequest(marca + " Mineira", email, "segredo123", null, "12345678000199", null)).join();
+        Long empresaId = usuarioRepository.findByEmail(email).orElseThrow().getId();
+
+        assertThat(buscaRestaurantes.buscar(marca.substring(0, 8).toLowerCase() + " min", 50))
+                .extracting(RestauranteResumo::id).contains(empresaId);
+
+        produtoRepository.save(Produto.builder().nome("Pão de queijo").preco(new BigDecimal("6.00"))
+                .categoria("Salgados " + marca).empresa(usuarioRepository.getReferenceById(empresaId)).build());
+        catalogoCache.invalidar(empresaId);
+
+        assertThat(buscaRestaurantes.buscar("salg " + marca, 10)).singleElement().satisfies(r -> {
+            assertThat(r.id()).isEqualTo(empresaId);
+            assertThat(r.categorias()).containsExactly("Salgados " + marca);
+        });
+    }
+}
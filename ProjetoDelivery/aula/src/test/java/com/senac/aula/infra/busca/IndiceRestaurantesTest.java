@@ -0,0 +1,58 @@
+package com.senac.aula.infra.busca;
+
+import com.senac.aula.application.dto.restaurante.RestauranteResumo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceRestaurantesTest {
+
+    @Test
+    void prefixoNoNomeVemAntesDaCategoriaESemAcento() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        indice.colocar(1, "Pizzaria Bella Napoli", List.of("Pizzas", "Bebidas"));
+        indice.colocar(2, "Cantina do Zé", List.of("Massas", "Pizzas"));
+        indice.colocar(3, "Açaí da Praia", List.of("Sobremesas"));
+
+        assertThat(indice.buscar("piz", 10)).extracting(RestauranteResumo::id).containsExactly(1L, 2L);
+        assertThat(indice.buscar("ACAI", 10)).extracting(RestauranteResumo::id).containsExactly(3L);
+        assertThat(indice.buscar("ze", 10)).singleElement()
+                .satisfies(r -> assertThat(r.categorias()).containsExactly("Massas", "Pizzas"));
+
+        // Todas as palavras precisam casar (nome ou categoria)
+        assertThat(indice.buscar("cantina piz", 10)).extracting(RestauranteResumo::id).containsExactly(2L);
+        assertThat(indice.buscar("cantina sobrem", 10)).isEmpty();
+        assertThat(indice.buscar("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void colocarDeNovoTrocaOsTermosERemoverTiraDoIndice() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        indice.colocar(1, "Sushi Kenzo", List.of("Japonesa"));
+        indice.colocar(1, "Kenzo Burger", List.of("Lanches", "lanches"));
+
+        assertThat(indice.buscar("sushi", 10)).isEmpty();
+        assertThat(indice.buscar("lanc", 10)).singleElement()
+                .satisfies(r -> assertThat(r.categorias()).containsExactly("Lanches"));
+
+        indice.remover(1);
+        assertThat(indice.buscar("kenzo", 10)).isEmpty();
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void limiteDevolveOsMelhoresEmOrdem() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        for (int i = 0; i < 100; i++) {
+            indice.colocar(i, "Burger " + String.format("%03d", i), List.of("Lanches"));
+        }
+        indice.colocar(500, "Lanches", List.of());
+
+        List<RestauranteResumo> resultado = indice.buscar("lanches", 3);
+
+        // Nome exato ganha; depois os de categoria exata, em ordem alfabética
+        assertThat(resultado).extracting(RestauranteResumo::nome).containsExactly("Lanches", "Burger 000", "Burger 001");
+    }
+}
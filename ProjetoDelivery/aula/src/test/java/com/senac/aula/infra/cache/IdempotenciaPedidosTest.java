@@ -0,0 +1,98 @@
+package com.senac.aula.infra.cache;
+
+import com.senac.aula.application.dto.pedido.PedidoRequest;
+import com.senac.aula.application.dto.pedido.PedidoResponse;
+import com.senac.aula.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotenciaPedidosTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IdempotenciaPedidos idempotencia =
+            new IdempotenciaPedidos(1000, Duration.ofMinutes(10), Duration.ofSeconds(10), registry);
+
+    private final PedidoRequest pedido = new PedidoRequest("Pizza", "Rua A", new BigDecimal("40.00"), 7L, null);
+    private final AtomicInteger criados = new AtomicInteger();
+
+    private PedidoResponse criar() {
+        int n = criados.incrementAndGet();
+        return new PedidoResponse((long) n, "Pizza", "Rua A", new BigDecimal("40.00"), "RECEBIDO", LocalDateTime.now());
+    }
+
+    @Test
+    void repeticoesConcorrentesEsperamAPrimeiraECriamUmaVez() throws Exception {
+        CountDownLatch criando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotenciaPedidos.Resultado> primeira = executor.submit(() -> idempotencia.executar(1L, "abc", pedido, () -> {
+                criando.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return criar();
+            }));
+            criando.await();
+            List<Future<IdempotenciaPedidos.Resultado>> repeticoes = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                repeticoes.add(executor.submit(() -> idempotencia.executar(1L, "abc", pedido, this::criar)));
+            }
+            liberar.countDown();
+
+            assertThat(primeira.get(10, TimeUnit.SECONDS).repetido()).isFalse();
+            for (Future<IdempotenciaPedidos.Resultado> r : repeticoes) {
+                assertThat(r.get(10, TimeUnit.SECONDS).repetido()).isTrue();
+                assertThat(r.get().pedido()).isEqualTo(primeira.get().pedido());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(criados).hasValue(1);
+        assertThat(registry.counter("delivery.pedidos.idempotencia.repeticoes").count()).isEqualTo(3);
+
+        // Mesma chave de outro usuário é independente
+        assertThat(idempotencia.executar(2L, "abc", pedido, this::criar).repetido()).isFalse();
+        assertThat(criados).hasValue(2);
+    }
+
+    @Test
+    void chaveReusadaComOutroCorpoERecusada() {
+        idempotencia.executar(1L, "k1", pedido, this::criar);
+
+        PedidoRequest outro = new PedidoRequest("Sushi", "Rua A", new BigDecimal("40.00"), 7L, null);
+        assertThatThrownBy(() -> idempotencia.executar(1L, "k1", outro, this::criar))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> idempotencia.executar(1L, " ", pedido, this::criar))
+                .isInstanceOf(BusinessException.class);
+        assertThat(criados).hasValue(1);
+    }
+
+    @Test
+    void falhaLiberaAChave() {
+        assertThatThrownBy(() -> idempotencia.executar(1L, "k2", pedido, () -> {
+            throw new BusinessException("Restaurante não encontrado.");
+        })).isInstanceOf(BusinessException.class);
+
+        IdempotenciaPedidos.Resultado resultado = idempotencia.executar(1L, "k2", pedido, this::criar);
+        assertThat(resultado.repetido()).isFalse();
+        assertThat(criados).hasValue(1);
+    }
+}
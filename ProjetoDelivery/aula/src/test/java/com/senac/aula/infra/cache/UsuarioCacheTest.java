@@ -0,0 +1,102 @@
+package com.senac.aula.infra.cache;
+
+import com.senac.aula.application.dto.usuario.UsuarioResumo;
+import com.senac.aula.infra.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invalidação do UsuarioCache pelo UsuarioCacheListener: só depois do commit.
+ * Dentro da transação, depois do flush, uma falta vinda de outra thread recarrega a linha
+ * ainda commitada (a antiga); é o afterCommit que tira essa entrada velha do cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuarioCacheTest {
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@cache.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Antigo', ?, 'x', 'CLIENTE')", email);
+        usuarioId = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from usuarios where id = ?", usuarioId);
+        usuarioCache.invalidar(usuarioId);
+    }
+
+    // Outra requisição consultando o cache enquanto a transação ainda não commitou
+    private Optional<UsuarioResumo> buscarEmOutraThread() {
+        return CompletableFuture.supplyAsync(() -> usuarioCache.buscar(usuarioId)).join();
+    }
+
+    @Test
+    void alteracaoInvalidaDepoisDoCommit() {
+        assertThat(usuarioCache.buscar(usuarioId)).map(UsuarioResumo::nome).contains("Antigo");
+
+        transactionTemplate.executeWithoutResult(s -> {
+            usuarioRepository.findById(usuarioId).orElseThrow().setNome("Novo");
+            usuarioRepository.flush();
+            usuarioCache.invalidar(usuarioId); // entrada expirada bem na janela entre flush e commit
+            assertThat(buscarEmOutraThread()).map(UsuarioResumo::nome).contains("Antigo");
+        });
+
+        assertThat(usuarioCache.buscar(usuarioId)).map(UsuarioResumo::nome).contains("Novo");
+    }
+
+    @Test
+    void remocaoInvalidaDepoisDoCommit() {
+        assertThat(usuarioCache.buscar(usuarioId)).isPresent();
+
+        transactionTemplate.executeWithoutResult(s -> {
+            usuarioRepository.deleteById(usuarioId);
+            usuarioRepository.flush();
+            assertThat(buscarEmOutraThread()).isPresent();
+        });
+
+        assertThat(usuarioCache.buscar(usuarioId)).isEmpty();
+    }
+
+    @Test
+    void rollbackMantemAEntrada() {
+        assertThat(usuarioCache.buscar(usuarioId)).map(UsuarioResumo::nome).contains("Antigo");
+        jdbcTemplate.update("update usuarios set nome = 'Fora da aplicacao' where id = ?", usuarioId);
+
+        transactionTemplate.executeWithoutResult(s -> {
+            usuarioRepository.findById(usuarioId).orElseThrow().setNome("Novo");
+            usuarioRepository.flush();
+            s.setRollbackOnly();
+        });
+
+        // Nada foi commitado: o cache não foi tocado (senão recarregaria "Fora da aplicacao")
+        assertThat(usuarioCache.buscar(usuarioId)).map(UsuarioResumo::nome).contains("Antigo");
+    }
+}
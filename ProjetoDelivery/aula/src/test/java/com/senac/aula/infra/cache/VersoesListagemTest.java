@@ -0,0 +1,63 @@
+package com.senac.aula.infra.cache;
+
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.domain.enums.TipoEventoPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersoesListagemTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VersoesListagem versoes = new VersoesListagem(registry, 1000);
+
+    private final UsuarioAutenticado empresa = new UsuarioAutenticado(10L, "loja@etag.local", TipoUsuario.EMPRESA);
+    private final UsuarioAutenticado cliente = new UsuarioAutenticado(20L, "cliente@etag.local", TipoUsuario.CLIENTE);
+    private final UsuarioAutenticado outroCliente = new UsuarioAutenticado(21L, "outro@etag.local", TipoUsuario.CLIENTE);
+
+    @Test
+    void pedidoAlteradoTrocaEtagDaEmpresaEDoClienteSomente() {
+        String etagEmpresa = versoes.etagPedidos(empresa, null);
+        String etagCliente = versoes.etagPedidos(cliente, "status=PENDENTE");
+        String etagOutro = versoes.etagPedidos(outroCliente, null);
+
+        // Sem mudança: ETag estável; filtros diferentes, ETags diferentes
+        assertThat(versoes.etagPedidos(empresa, null)).isEqualTo(etagEmpresa);
+        assertThat(versoes.etagPedidos(cliente, "status=ENTREGUE")).isNotEqualTo(etagCliente);
+
+        versoes.aoAlterarPedido(new PedidoEvento(TipoEventoPedido.STATUS_ALTERADO, 1L, 10L, 20L, null));
+
+        assertThat(versoes.etagPedidos(empresa, null)).isNotEqualTo(etagEmpresa);
+        assertThat(versoes.etagPedidos(cliente, "status=PENDENTE")).isNotEqualTo(etagCliente);
+        assertThat(versoes.etagPedidos(outroCliente, null)).isEqualTo(etagOutro);
+    }
+
+    @Test
+    void ifNoneMatchComEtagAtualResponde304() {
+        String etag = versoes.etagProdutos(10L);
+
+        ServletWebRequest igual = requisicao(etag);
+        assertThat(versoes.naoModificado(igual, etag, VersoesListagem.Listagem.PRODUTOS)).isTrue();
+        assertThat(igual.getResponse().getStatus()).isEqualTo(304);
+
+        versoes.incrementar(VersoesListagem.Escopo.PRODUTOS, 10L);
+        String novo = versoes.etagProdutos(10L);
+        assertThat(novo).isNotEqualTo(etag);
+        assertThat(versoes.naoModificado(requisicao(etag), novo, VersoesListagem.Listagem.PRODUTOS)).isFalse();
+
+        assertThat(registry.get("delivery.listagem.condicional")
+                .tag("listagem", "produtos").tag("resultado", "nao_modificado").counter().count()).isEqualTo(1);
+    }
+
+    private static ServletWebRequest requisicao(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/empresa/produtos");
+        request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,42 @@
+package com.senac.aula.infra.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitadorConcorrenciaDataSourceTest {
+
+    private LimitadorConcorrenciaDataSource limitador(int maximo) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:limitador;DB_CLOSE_DELAY=-1");
+        return new LimitadorConcorrenciaDataSource(h2, maximo, Duration.ofMillis(100));
+    }
+
+    @Test
+    void rejeitaAlemDoLimiteELiberaNoClose() throws Exception {
+        LimitadorConcorrenciaDataSource dataSource = limitador(2);
+
+        Connection c1 = dataSource.getConnection();
+        Connection c2 = dataSource.getConnection();
+        assertThat(dataSource.getEmUso()).isEqualTo(2);
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(dataSource.getRejeitadas()).isEqualTo(1);
+
+        c1.close();
+        c1.close(); // fechar de novo não devolve a permissão duas vezes
+        assertThat(dataSource.getEmUso()).isEqualTo(1);
+
+        try (Connection c3 = dataSource.getConnection()) {
+            assertThat(c3.isValid(1)).isTrue();
+        }
+        c2.close();
+        assertThat(dataSource.getEmUso()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.senac.aula.infra.datasource;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dois bancos H2 independentes fazem o papel de primário e réplica;
+ * cada um responde com o próprio nome na tabela "origem".
+ */
+class RoteamentoLeituraDataSourceTest {
+
+    private final ConsistenciaLeitura consistencia = new ConsistenciaLeitura(Duration.ofSeconds(5), 1000);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyVaiParaReplicaEEscritaParaPrimario() {
+        Cenario cenario = new Cenario(banco("rot_primario_1", "primario"), banco("rot_leitura_1", "leitura"));
+
+        assertThat(cenario.ler()).isEqualTo("leitura");
+        assertThat(cenario.escrever()).isEqualTo("primario");
+        assertThat(cenario.jdbc.queryForObject("select nome from origem", String.class)).isEqualTo("primario");
+        assertThat(cenario.roteamento.getLeiturasReplica()).isEqualTo(1);
+    }
+
+    @Test
+    void quemEscreveuLeDoPrimarioDuranteAJanela() {
+        Cenario cenario = new Cenario(banco("rot_primario_2", "primario"), banco("rot_leitura_2", "leitura"));
+
+        autenticar(1L);
+        assertThat(cenario.ler()).isEqualTo("leitura");
+        cenario.escrever();
+        assertThat(cenario.ler()).isEqualTo("primario");
+
+        autenticar(2L);
+        assertThat(cenario.ler()).isEqualTo("leitura");
+
+        // Pedido alterado: a outra ponta também passa a ler do primário
+        consistencia.marcar(2L);
+        assertThat(cenario.ler()).isEqualTo("primario");
+        assertThat(consistencia.noPrimario(() -> {
+            SecurityContextHolder.clearContext();
+            return cenario.ler();
+        })).isEqualTo("primario");
+    }
+
+    @Test
+    void replicaForaCaiNoPrimarioESaiDaRotacao() {
+        DriverManagerDataSource inacessivel = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/inexistente", "sa", "");
+        Cenario cenario = new Cenario(banco("rot_primario_3", "primario"), inacessivel);
+
+        assertThat(cenario.ler()).isEqualTo("primario");
+        assertThat(cenario.ler()).isEqualTo("primario");
+
+        assertThat(cenario.roteamento.getFalhasReplica()).isEqualTo(1); // segunda leitura nem tenta
+        assertThat(cenario.roteamento.replicaDisponivel()).isFalse();
+    }
+
+    @Test
+    void conexaoComCredenciaisSegueOMesmoRoteamento() {
+        Cenario cenario = new Cenario(banco("rot_primario_4", "primario"), banco("rot_leitura_4", "leitura"));
+
+        assertThat(cenario.leitura.<String>execute(s -> origem(cenario.roteamento))).isEqualTo("leitura");
+        assertThat(cenario.escrita.<String>execute(s -> origem(cenario.roteamento))).isEqualTo("primario");
+        assertThat(origem(cenario.roteamento)).isEqualTo("primario");
+    }
+
+    private static String origem(DataSource dataSource) {
+        try (Connection conexao = dataSource.getConnection("sa", "");
+             ResultSet rs = conexao.createStatement().executeQuery("select nome from origem")) {
+            rs.next();
+            return rs.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void autenticar(Long id) {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(id, id + "@roteamento.local", TipoUsuario.CLIENTE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities()));
+    }
+
+    private static DataSource banco(String nome, String origem) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table origem (nome varchar(20))");
+        jdbc.update("insert into origem values (?)", origem);
+        return ds;
+    }
+
+    private final class Cenario {
+        final RoteamentoLeituraDataSource roteamento;
+        final JdbcTemplate jdbc;
+        final TransactionTemplate leitura;
+        final TransactionTemplate escrita;
+
+        Cenario(DataSource primario, DataSource replica) {
+            this.roteamento = new RoteamentoLeituraDataSource(primario, replica, consistencia, Duration.ofMinutes(1));
+            DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+            DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.escrita = new TransactionTemplate(tm);
+            this.leitura = new TransactionTemplate(tm);
+            this.leitura.setReadOnly(true);
+        }
+
+        String ler() {
+            return leitura.execute(s -> jdbc.queryForObject("select nome from origem", String.class));
+        }
+
+        String escrever() {
+            return escrita.execute(s -> {
+                jdbc.update("update origem set nome = nome");
+                return jdbc.queryForObject("select nome from origem", String.class);
+            });
+        }
+    }
+}
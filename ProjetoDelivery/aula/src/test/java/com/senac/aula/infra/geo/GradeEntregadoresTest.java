@@ -0,0 +1,59 @@
+package com.senac.aula.infra.geo;
+
+import com.senac.aula.domain.Coordenada;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GradeEntregadoresTest {
+
+    @Test
+    void buscaEmAneisAchaOMesmoMaisProximoQueForcaBruta() {
+        Random random = new Random(42);
+        GradeEntregadores grade = new GradeEntregadores(0.01);
+        Coordenada[] posicoes = new Coordenada[2000];
+        for (int i = 0; i < posicoes.length; i++) {
+            posicoes[i] = new Coordenada(-23.70 + random.nextDouble() * 0.3, -46.80 + random.nextDouble() * 0.3);
+            grade.atualizar(i, posicoes[i]);
+        }
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            Coordenada ponto = new Coordenada(-23.70 + random.nextDouble() * 0.3, -46.80 + random.nextDouble() * 0.3);
+            int esperado = 0;
+            for (int i = 1; i < posicoes.length; i++) {
+                if (posicoes[i] != null && (posicoes[esperado] == null
+                        || ponto.distanciaKm(posicoes[i]) < ponto.distanciaKm(posicoes[esperado]))) {
+                    esperado = i;
+                }
+            }
+            List<GradeEntregadores.Reserva> reserva = grade.reservar(
+                    List.of(new GradeEntregadores.Solicitacao(consulta, ponto)), 50);
+
+            assertThat(reserva).singleElement()
+                    .extracting(GradeEntregadores.Reserva::entregadorId).isEqualTo((long) esperado);
+            posicoes[esperado] = null; // reservado: saiu da grade
+        }
+        assertThat(grade.tamanho()).isEqualTo(1800);
+    }
+
+    @Test
+    void loteAtribuiPelosParesMaisProximosERespeitaORaio() {
+        GradeEntregadores grade = new GradeEntregadores(0.01);
+        grade.atualizar(1, new Coordenada(-23.5500, -46.6300));
+        grade.atualizar(2, new Coordenada(-23.5500, -46.6500));
+
+        // Na ordem de chegada, o pedido A levaria o entregador 1 e o B iria buscar o 2, longe dele
+        List<GradeEntregadores.Reserva> reservas = grade.reservar(List.of(
+                new GradeEntregadores.Solicitacao(100, new Coordenada(-23.5500, -46.6400)),
+                new GradeEntregadores.Solicitacao(200, new Coordenada(-23.5500, -46.6290)),
+                new GradeEntregadores.Solicitacao(300, new Coordenada(-22.9000, -43.2000))), 8);
+
+        assertThat(reservas).extracting(GradeEntregadores.Reserva::pedidoId, GradeEntregadores.Reserva::entregadorId)
+                .containsExactly(tuple(200L, 1L), tuple(100L, 2L));
+        assertThat(grade.tamanho()).isZero();
+    }
+}
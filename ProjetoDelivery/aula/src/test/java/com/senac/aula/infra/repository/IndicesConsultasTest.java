@@ -0,0 +1,101 @@
+package com.senac.aula.infra.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o planner usa os índices da V2 nas consultas de listagem.
+ * Roda contra o esquema criado pelas migrações (H2 em modo PostgreSQL).
+ *
+ * Observação: o H2 cria um índice próprio para cada FK (o PostgreSQL não), e com só a igualdade
+ * em empresa_id/cliente_id os dois empatam. Por isso as consultas abaixo são as páginas com cursor
+ * e com filtro de data, onde o índice composto é o único que atende a faixa em criado_em.
+ *
+ * Os pedidos são de uma empresa/cliente criados pelo próprio teste e saem no @AfterEach
+ * (o banco H2 é compartilhado com as outras classes do contexto).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IndicesConsultasTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresa;
+    private Long cliente;
+
+    @BeforeEach
+    void popular() {
+        empresa = criarUsuario("EMPRESA");
+        cliente = criarUsuario("CLIENTE");
+        jdbcTemplate.batchUpdate(
+                "insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id, cliente_id) " +
+                        "values ('Pedido', 'Rua', 10, 'RECEBIDO', dateadd('MINUTE', ?, timestamp '2025-01-01 00:00:00'), ?, ?)",
+                IntStream.range(0, 2000)
+                        .mapToObj(i -> new Object[]{i, empresa, i % 2 == 0 ? cliente : null})
+                        .toList());
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("delete from pedidos_delivery where empresa_id = ?", empresa);
+        jdbcTemplate.update("delete from usuarios where id in (?, ?)", empresa, cliente);
+    }
+
+    private Long criarUsuario(String tipo) {
+        String email = UUID.randomUUID() + "@indices.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Usuario', ?, 'x', ?)", email, tipo);
+        return jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+    }
+
+    private String plano(String sql, Object... parametros) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parametros));
+    }
+
+    @Test
+    void paginaComCursorDaEmpresaUsaIndiceEmpresaCriadoEm() {
+        // Mesmo formato gerado por PedidoRepositoryImpl.buscarPagina com status + cursor
+        String plano = plano("""
+                select p.id, p.descricao, p.endereco, p.valor_total, p.status, p.criado_em
+                from pedidos_delivery p
+                where p.empresa_id = ? and p.status = 'RECEBIDO'
+                  and p.criado_em <= timestamp '2025-01-01 12:00:00'
+                  and (p.criado_em < timestamp '2025-01-01 12:00:00'
+                       or (p.criado_em = timestamp '2025-01-01 12:00:00' and p.id < 100))
+                order by p.criado_em desc, p.id desc
+                fetch first 51 rows only""", empresa);
+
+        assertThat(plano).contains("idx_pedidos_empresa_criado_em");
+    }
+
+    @Test
+    void filtroPorDataDoClienteUsaIndiceClienteCriadoEm() {
+        String plano = plano("""
+                select p.id, p.descricao, p.endereco, p.valor_total, p.status, p.criado_em
+                from pedidos_delivery p
+                where p.cliente_id = ?
+                  and p.criado_em >= timestamp '2025-01-01 00:00:00'
+                  and p.criado_em < timestamp '2025-01-02 00:00:00'
+                order by p.criado_em desc, p.id desc
+                fetch first 51 rows only""", cliente);
+
+        assertThat(plano).contains("idx_pedidos_cliente_criado_em");
+    }
+
+    @Test
+    void loginUsaIndiceUnicoDeEmail() {
+        assertThat(plano("select * from usuarios u where u.email = 'a@b.com'").toLowerCase())
+                .contains("usuarios_email_key");
+    }
+}
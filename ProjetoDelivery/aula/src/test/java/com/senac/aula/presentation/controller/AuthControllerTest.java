@@ -0,0 +1,70 @@
+package com.senac.aula.presentation.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Cadastro e login assíncronos pela API: o resultado do CompletableFuture (ou a falha dentro dele)
+ * vira a resposta HTTP certa.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String email = UUID.randomUUID() + "@auth-api.local";
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from usuarios where email = ?", email);
+    }
+
+    private MockHttpServletResponse postar(String url, String json) throws Exception {
+        MvcResult inicio = mvc.perform(post(url).contentType("application/json").content(json)).andReturn();
+        return mvc.perform(asyncDispatch(inicio)).andReturn().getResponse();
+    }
+
+    @Test
+    void cadastroELoginRespondem200() throws Exception {
+        assertThat(postar("/auth/register",
+                "{\"nome\":\"Cliente\",\"email\":\"" + email + "\",\"senha\":\"senha123\",\"cpf\":\"12345678900\"}")
+                .getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse login = postar("/auth/login", "{\"email\":\"" + email + "\",\"senha\":\"senha123\"}");
+
+        assertThat(login.getStatus()).isEqualTo(200);
+        assertThat(login.getContentAsString()).contains("\"token\"");
+    }
+
+    @Test
+    void senhaErradaResponde401() throws Exception {
+        postar("/auth/register",
+                "{\"nome\":\"Cliente\",\"email\":\"" + email + "\",\"senha\":\"senha123\",\"cpf\":\"12345678900\"}");
+
+        MockHttpServletResponse login = postar("/auth/login", "{\"email\":\"" + email + "\",\"senha\":\"errada\"}");
+
+        assertThat(login.getStatus()).isEqualTo(401);
+        assertThat(postar("/auth/login", "{\"email\":\"ninguem@auth-api.local\",\"senha\":\"senha123\"}").getStatus())
+                .isEqualTo(401);
+    }
+}
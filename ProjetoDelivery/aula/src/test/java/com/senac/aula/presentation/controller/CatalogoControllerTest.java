@@ -0,0 +1,133 @@
+package com.senac.aula.presentation.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Catálogo servido do CatalogoCache: a primeira leitura carrega, as seguintes não vão ao banco,
+ * criar/deletar produto invalida, e o JSON pronto só tem os campos do ProdutoResumo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogoControllerTest {
+
+    private static final String HASH_SENHA = "$2a$10$hashDeTesteQueNaoPodeVazarNoCatalogoXXXXXXXXXXXXXXXXX";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresaId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@catalogo.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, cnpj, tipo) values ('Empresa', ?, ?, '00.000.000/0001-00', 'EMPRESA')",
+                email, HASH_SENHA);
+        empresaId = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+        token = "Bearer " + jwtService.gerarToken(Usuario.builder().id(empresaId).email(email).tipo(TipoUsuario.EMPRESA).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from produtos where empresa_id = ?", empresaId);
+        jdbcTemplate.update("delete from usuarios where id = ?", empresaId);
+    }
+
+    private String catalogo() throws Exception {
+        return mvc.perform(get("/catalogo/" + empresaId).header("Authorization", token))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<String> nomes(String json) {
+        return JsonPath.read(json, "$[*].nome");
+    }
+
+    private void inserirDireto(String nome) {
+        jdbcTemplate.update("insert into produtos (nome, preco, categoria, empresa_id) values (?, 10.00, 'Lanches', ?)",
+                nome, empresaId);
+    }
+
+    @Test
+    void segundaLeituraVemDoCacheSemConsultarOBanco() throws Exception {
+        inserirDireto("X-Burger");
+        assertThat(nomes(catalogo())).containsExactly("X-Burger");
+
+        // Gravado por fora da aplicação: sem invalidação, o cache continua servindo a primeira carga
+        inserirDireto("X-Salada");
+
+        assertThat(nomes(catalogo())).containsExactly("X-Burger");
+    }
+
+    @Test
+    void criarEDeletarProdutoInvalidamOCatalogo() throws Exception {
+        inserirDireto("X-Burger");
+        assertThat(nomes(catalogo())).containsExactly("X-Burger");
+
+        String criado = mvc.perform(post("/empresa/produtos").header("Authorization", token)
+                        .contentType("application/json")
+                        .content("{\"nome\":\"Refrigerante\",\"preco\":6.50,\"categoria\":\"Bebidas\"}"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(nomes(catalogo())).containsExactlyInAnyOrder("X-Burger", "Refrigerante");
+
+        Number id = JsonPath.read(criado, "$.id");
+        int status = mvc.perform(delete("/empresa/produtos/" + id).header("Authorization", token))
+                .andReturn().getResponse().getStatus();
+
+        assertThat(status).isEqualTo(204);
+        assertThat(nomes(catalogo())).containsExactly("X-Burger");
+    }
+
+    @Test
+    void catalogoVazioNaoFicaNoCache() throws Exception {
+        assertThat(catalogo()).isEqualTo("[]");
+        assertThat(mvc.perform(get("/catalogo/" + Long.MAX_VALUE).header("Authorization", token))
+                .andReturn().getResponse().getContentAsString()).isEqualTo("[]");
+
+        // Sem invalidação: só aparece porque a lista vazia não foi guardada
+        inserirDireto("X-Burger");
+
+        assertThat(nomes(catalogo())).containsExactly("X-Burger");
+    }
+
+    @Test
+    void jsonProntoNaoTrazDadosDaEmpresa() throws Exception {
+        inserirDireto("X-Burger");
+
+        String json = catalogo();
+
+        assertThat(JsonPath.<List<Object>>read(json, "$[0].*")).hasSize(4); // id, nome, preco, categoria
+        assertThat(json)
+                .doesNotContain(HASH_SENHA)
+                .doesNotContain("senha")
+                .doesNotContain("empresa")
+                .doesNotContain("@catalogo.local")
+                .doesNotContain("cnpj");
+    }
+}
@@ -0,0 +1,146 @@
+package com.senac.aula.presentation.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.senac.aula.domain.enums.StatusPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /pedidos paginado por keyset: o cursor (criadoEm, id) segue sem pular nem repetir pedidos,
+ * os filtros valem em todas as páginas e a última página vem sem X-Proximo-Cursor.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PedidoControllerListagemTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 10, 12, 0);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresaId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@listagem.local";
+        jdbcTemplate.update("insert into usuarios (nome, email, senha, tipo) values ('Empresa', ?, 'x', 'EMPRESA')", email);
+        empresaId = jdbcTemplate.queryForObject("select id from usuarios where email = ?", Long.class, email);
+        token = jwtService.gerarToken(Usuario.builder().id(empresaId).email(email).tipo(TipoUsuario.EMPRESA).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from pedidos_delivery where empresa_id = ?", empresaId);
+        jdbcTemplate.update("delete from usuarios where id = ?", empresaId);
+    }
+
+    private Long inserir(StatusPedido status, LocalDateTime criadoEm) {
+        jdbcTemplate.update("insert into pedidos_delivery (descricao, endereco, valor_total, status, criado_em, empresa_id) " +
+                "values ('Pedido', 'Rua', 10.00, ?, ?, ?)", status.name(), criadoEm, empresaId);
+        return jdbcTemplate.queryForObject("select max(id) from pedidos_delivery where empresa_id = ?", Long.class, empresaId);
+    }
+
+    private MockHttpServletResponse listar(String parametros) throws Exception {
+        return mvc.perform(get("/pedidos?" + parametros).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse();
+    }
+
+    private static List<Long> ids(MockHttpServletResponse resposta) throws Exception {
+        List<Number> ids = JsonPath.read(resposta.getContentAsString(), "$[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    @Test
+    void cursorContinuaEntrePedidosComMesmoCriadoEm() throws Exception {
+        List<Long> esperado = new ArrayList<>();
+        Long antigo = inserir(StatusPedido.RECEBIDO, BASE.minusMinutes(5));
+        for (int i = 0; i < 5; i++) {
+            esperado.add(0, inserir(StatusPedido.RECEBIDO, BASE)); // empate no criadoEm: desempata pelo id desc
+        }
+        Long recente = inserir(StatusPedido.RECEBIDO, BASE.plusMinutes(5));
+        esperado.add(0, recente);
+        esperado.add(antigo);
+
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MockHttpServletResponse resposta = listar("limite=2" + (cursor != null ? "&cursor=" + cursor : ""));
+            assertThat(resposta.getStatus()).isEqualTo(200);
+            lidos.addAll(ids(resposta));
+            cursor = resposta.getHeader(PedidoController.HEADER_PROXIMO_CURSOR);
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(lidos).containsExactlyElementsOf(esperado);
+        assertThat(paginas).isEqualTo(4);
+    }
+
+    @Test
+    void filtrosDeStatusEPeriodoValemEmTodasAsPaginas() throws Exception {
+        Long foraAntes = inserir(StatusPedido.ENTREGUE, BASE.minusDays(1));
+        Long noInicio = inserir(StatusPedido.ENTREGUE, BASE);
+        Long outroStatus = inserir(StatusPedido.EM_PREPARO, BASE.plusHours(1));
+        Long noMeio = inserir(StatusPedido.ENTREGUE, BASE.plusHours(2));
+        Long noFim = inserir(StatusPedido.ENTREGUE, BASE.plusDays(1)); // "ate" é exclusivo
+
+        String filtro = "status=ENTREGUE&de=" + BASE + "&ate=" + BASE.plusDays(1);
+        MockHttpServletResponse primeira = listar(filtro + "&limite=1");
+        String cursor = primeira.getHeader(PedidoController.HEADER_PROXIMO_CURSOR);
+        MockHttpServletResponse segunda = listar(filtro + "&limite=1&cursor=" + cursor);
+
+        assertThat(ids(primeira)).containsExactly(noMeio);
+        assertThat(ids(segunda)).containsExactly(noInicio);
+        assertThat(segunda.getHeader(PedidoController.HEADER_PROXIMO_CURSOR)).isNull();
+        assertThat(ids(listar("status=EM_PREPARO"))).containsExactly(outroStatus);
+        assertThat(ids(listar("de=" + BASE.plusDays(1)))).containsExactly(noFim);
+        assertThat(ids(listar("ate=" + BASE))).containsExactly(foraAntes);
+    }
+
+    @Test
+    void ultimaPaginaNaoTrazProximoCursor() throws Exception {
+        inserir(StatusPedido.RECEBIDO, BASE);
+        inserir(StatusPedido.RECEBIDO, BASE.plusMinutes(1));
+
+        MockHttpServletResponse exata = listar("limite=2");
+        MockHttpServletResponse sobra = listar("limite=1");
+
+        assertThat(ids(exata)).hasSize(2);
+        assertThat(exata.getHeader(PedidoController.HEADER_PROXIMO_CURSOR)).isNull();
+        assertThat(sobra.getHeader(PedidoController.HEADER_PROXIMO_CURSOR)).isNotBlank();
+    }
+
+    @Test
+    void cursorMalformadoResponde400() throws Exception {
+        assertThat(listar("cursor=nao-e-um-cursor").getStatus()).isEqualTo(400);
+        // Base64 válido, conteúdo sem o separador "criadoEm|id"
+        assertThat(listar("cursor=YWJj").getStatus()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,128 @@
+package com.senac.aula.presentation.controller;
+
+import com.senac.aula.application.dto.pedido.PedidoEvento;
+import com.senac.aula.application.service.PedidoStreamService;
+import com.senac.aula.domain.enums.TipoEventoPedido;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import com.senac.aula.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /pedidos/stream de ponta a ponta: cada assinante recebe só o próprio canal
+ * (empresa:{id} / cliente:{id}) e a reconexão com Last-Event-ID reenvia o que ficou para trás.
+ * Os ids são aleatórios: o PedidoStreamService é compartilhado com as outras classes do contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PedidoControllerStreamTest {
+
+    private static final Pattern PEDIDO_ID = Pattern.compile("\"pedidoId\":(\\d+)");
+    private static final Pattern EVENTO_ID = Pattern.compile("(?m)^id:(\\d+)$");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PedidoStreamService pedidoStreamService;
+
+    private static long novoId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE / 2);
+    }
+
+    private MockHttpServletResponse assinar(long usuarioId, TipoUsuario tipo, String lastEventId) throws Exception {
+        String token = jwtService.gerarToken(Usuario.builder().id(usuarioId).email(usuarioId + "@stream.local").tipo(tipo).build());
+        MockHttpServletRequestBuilder requisicao = get("/pedidos/stream").header("Authorization", "Bearer " + token);
+        if (lastEventId != null) {
+            requisicao.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult resultado = mvc.perform(requisicao).andReturn();
+        assertThat(resultado.getRequest().isAsyncStarted()).isTrue();
+        return resultado.getResponse();
+    }
+
+    private void publicar(long pedidoId, long empresaId, Long clienteId) {
+        pedidoStreamService.aoAlterarPedido(new PedidoEvento(TipoEventoPedido.EXCLUIDO, pedidoId, empresaId, clienteId, null));
+    }
+
+    private static List<Long> extrair(Pattern padrao, MockHttpServletResponse resposta) throws Exception {
+        Matcher m = padrao.matcher(resposta.getContentAsString());
+        return m.results().map(r -> Long.parseLong(r.group(1))).toList();
+    }
+
+    // O envio roda no sseExecutor: espera a quantidade esperada de eventos chegar
+    private static List<Long> pedidosRecebidos(MockHttpServletResponse resposta, int esperados) throws Exception {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (extrair(PEDIDO_ID, resposta).size() < esperados && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        return extrair(PEDIDO_ID, resposta);
+    }
+
+    @Test
+    void cadaAssinanteRecebeSoOProprioCanal() throws Exception {
+        long empresaA = novoId(), empresaB = novoId(), cliente = novoId();
+        MockHttpServletResponse streamA = assinar(empresaA, TipoUsuario.EMPRESA, null);
+        MockHttpServletResponse streamB = assinar(empresaB, TipoUsuario.EMPRESA, null);
+        MockHttpServletResponse streamCliente = assinar(cliente, TipoUsuario.CLIENTE, null);
+
+        publicar(101, empresaA, cliente);
+        publicar(102, empresaB, null);
+        publicar(103, empresaA, null);
+
+        assertThat(pedidosRecebidos(streamA, 2)).containsExactly(101L, 103L);
+        assertThat(pedidosRecebidos(streamB, 1)).containsExactly(102L);
+        assertThat(pedidosRecebidos(streamCliente, 1)).containsExactly(101L);
+    }
+
+    @Test
+    void reconexaoComLastEventIdReenviaSoOQueFaltou() throws Exception {
+        long empresa = novoId();
+        MockHttpServletResponse primeira = assinar(empresa, TipoUsuario.EMPRESA, null);
+        publicar(201, empresa, null);
+        assertThat(pedidosRecebidos(primeira, 1)).containsExactly(201L);
+        long ultimoRecebido = extrair(EVENTO_ID, primeira).get(0);
+
+        // Enquanto o cliente estava desconectado
+        publicar(202, empresa, null);
+        publicar(203, empresa, null);
+
+        MockHttpServletResponse reconexao = assinar(empresa, TipoUsuario.EMPRESA, Long.toString(ultimoRecebido));
+        assertThat(pedidosRecebidos(reconexao, 2)).containsExactly(202L, 203L);
+
+        publicar(204, empresa, null);
+        assertThat(pedidosRecebidos(reconexao, 3)).containsExactly(202L, 203L, 204L);
+    }
+
+    @Test
+    void replayDaJanelaInteiraChegaSemDespejar() throws Exception {
+        long empresa = novoId();
+        for (long pedido = 1; pedido <= 200; pedido++) {
+            publicar(pedido, empresa, null); // mais que sse.pedidos.tamanho-fila (64), dentro da janela (256)
+        }
+
+        MockHttpServletResponse reconexao = assinar(empresa, TipoUsuario.EMPRESA, "0");
+
+        assertThat(pedidosRecebidos(reconexao, 200)).hasSize(200).startsWith(1L).endsWith(200L);
+    }
+}
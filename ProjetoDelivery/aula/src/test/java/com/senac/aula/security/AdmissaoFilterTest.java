@@ -0,0 +1,71 @@
+package com.senac.aula.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.senac.aula.domain.enums.TipoUsuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissaoFilterTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void baldeAdmiteRajadaEDepoisRepoeNaTaxa() {
+        LimitadorTaxa limitador = new LimitadorTaxa(3, 2, 100);
+
+        assertThat(limitador.tentar(1L, 0)).isZero();
+        assertThat(limitador.tentar(1L, 0)).isZero();
+        assertThat(limitador.tentar(1L, 0)).isZero();
+        assertThat(limitador.tentar(1L, 0)).isEqualTo(SEGUNDO / 2); // 2 fichas/s: próxima em 0,5 s
+        assertThat(limitador.tentar(2L, 0)).isZero();                // outra chave, outro balde
+
+        assertThat(limitador.tentar(1L, SEGUNDO / 2)).isZero();
+        assertThat(limitador.tentar(1L, SEGUNDO / 2)).isPositive();
+        assertThat(limitador.tentar(1L, 10 * SEGUNDO)).isZero();     // parado: balde cheio de novo
+    }
+
+    @Test
+    void responde429ComRetryAfterPorEmpresa() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissaoFilter filtro = new AdmissaoFilter(registry, new ObjectMapper().registerModule(new JavaTimeModule()),
+                true, 2, 0.5, 100, 100, 1000);
+        UsuarioAutenticado empresa = new UsuarioAutenticado(7L, "cozinha@admissao.local", TipoUsuario.EMPRESA);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(empresa, null, empresa.authorities()));
+
+        assertThat(executar(filtro).getStatus()).isEqualTo(200);
+        assertThat(executar(filtro).getStatus()).isEqualTo(200);
+        MockHttpServletResponse recusada = executar(filtro);
+
+        assertThat(recusada.getStatus()).isEqualTo(429);
+        assertThat(recusada.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(recusada.getContentAsString()).contains("\"status\":429");
+        assertThat(registry.get("delivery.admissao.rejeitadas").tag("tipo", "empresa").counter().count()).isEqualTo(1);
+
+        // Sem principal (ex.: login) não consome nem recusa
+        SecurityContextHolder.clearContext();
+        assertThat(executar(filtro).getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse executar(AdmissaoFilter filtro) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/pedidos"), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,60 @@
+package com.senac.aula.security;
+
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O filtro só depende do JwtService: não há repositório nem banco aqui, então o principal
+ * só pode ter vindo das claims do token.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-tamanho-suficiente-para-hmac256";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtService jwtService = new JwtService(SEGREDO, 60_000, 100, Duration.ofMinutes(5));
+    private final JwtAuthenticationFilter filtro = new JwtAuthenticationFilter(jwtService, registry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filtrar(String authorization) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/pedidos");
+        if (authorization != null) req.addHeader("Authorization", authorization);
+        filtro.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void autenticaPelasClaimsSemConsultarUsuario() throws Exception {
+        String token = jwtService.gerarToken(Usuario.builder()
+                .id(42L).email("cozinha@filtro.local").tipo(TipoUsuario.EMPRESA).build());
+
+        Authentication auth = filtrar("Bearer " + token);
+
+        assertThat(auth.getPrincipal()).isEqualTo(new UsuarioAutenticado(42L, "cozinha@filtro.local", TipoUsuario.EMPRESA));
+        assertThat(auth.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_EMPRESA");
+        assertThat(registry.get("delivery.jwt.verificacoes").tag("resultado", "valido").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenInvalidoSegueSemAutenticacao() throws Exception {
+        assertThat(filtrar("Bearer nao.e.jwt")).isNull();
+        assertThat(filtrar(null)).isNull();
+        assertThat(registry.get("delivery.jwt.verificacoes").tag("resultado", "invalido").counter().count()).isEqualTo(1);
+    }
+}
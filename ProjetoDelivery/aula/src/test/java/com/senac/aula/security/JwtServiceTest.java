@@ -0,0 +1,82 @@
+package com.senac.aula.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.senac.aula.domain.enums.TipoUsuario;
+import com.senac.aula.domain.model.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-tamanho-suficiente-para-hmac256";
+
+    private final Usuario empresa = Usuario.builder()
+            .id(7L).nome("Cozinha").email("cozinha@jwt.local").tipo(TipoUsuario.EMPRESA).build();
+
+    @Test
+    void tokenRepetidoVemDoCacheSemNovaVerificacao() {
+        JwtService jwt = new JwtService(SEGREDO, 60_000, 100, Duration.ofMinutes(5));
+        String token = jwt.gerarToken(empresa);
+
+        UsuarioAutenticado primeiro = jwt.extrairUsuario(token);
+        UsuarioAutenticado segundo = jwt.extrairUsuario(token);
+
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(primeiro.id()).isEqualTo(7L);
+        assertThat(primeiro.tipo()).isEqualTo(TipoUsuario.EMPRESA);
+        assertThat(jwt.getCacheMisses()).isEqualTo(1);
+        assertThat(jwt.getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void entradaExpiraNoExpDoToken() throws InterruptedException {
+        // "exp" é gravado em segundos: com 1 s de validade o token vence em até 1 s
+        JwtService jwt = new JwtService(SEGREDO, 1_000, 100, Duration.ofMinutes(5));
+        String token = jwt.gerarToken(empresa);
+        jwt.extrairUsuario(token);
+        assertThat(jwt.extrairUsuario(token).email()).isEqualTo("cozinha@jwt.local");
+
+        Thread.sleep(1_100);
+
+        assertThatThrownBy(() -> jwt.extrairUsuario(token)).isInstanceOf(JWTVerificationException.class);
+        assertThat(jwt.tokenValido(token)).isFalse();
+        assertThat(jwt.getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenAdulteradoNaoAproveitaOCacheDoOriginal() {
+        JwtService jwt = new JwtService(SEGREDO, 60_000, 100, Duration.ofMinutes(5));
+        String token = jwt.gerarToken(empresa);
+        jwt.extrairUsuario(token);
+
+        // Payload de outro usuário com a assinatura do token já verificado
+        Usuario cliente = Usuario.builder()
+                .id(8L).nome("Cliente").email("cliente@jwt.local").tipo(TipoUsuario.CLIENTE).build();
+        String[] original = token.split("\\.");
+        String[] outro = jwt.gerarToken(cliente).split("\\.");
+        String adulterado = original[0] + "." + outro[1] + "." + original[2];
+
+        assertThatThrownBy(() -> jwt.extrairUsuario(adulterado)).isInstanceOf(JWTVerificationException.class);
+        assertThat(jwt.tokenValido(adulterado)).isFalse();
+        assertThat(jwt.getCacheHits()).isZero();
+        assertThat(jwt.getCacheTamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void tamanhoMaximoZeroDesligaOCache() {
+        JwtService jwt = new JwtService(SEGREDO, 60_000, 0, Duration.ofMinutes(5));
+        String token = jwt.gerarToken(empresa);
+
+        UsuarioAutenticado primeiro = jwt.extrairUsuario(token);
+        UsuarioAutenticado segundo = jwt.extrairUsuario(token);
+
+        assertThat(segundo).isEqualTo(primeiro).isNotSameAs(primeiro);
+        assertThat(jwt.getCacheHits()).isZero();
+        assertThat(jwt.getCacheMisses()).isZero();
+        assertThat(jwt.getCacheTamanho()).isZero();
+    }
+}